@@ -21,7 +21,10 @@ import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.text.ParseException;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import org.nanoframework.toolkit.lang.ObjectUtils;
 import org.nanoframework.toolkit.lang.StringUtils;
@@ -79,10 +82,65 @@ public final class ClassCast {
 
     private static final List<String> BOOLEAN_FALSE_VALUES = List.of("0", "NO", "N", "FALSE");
 
+    private static final Map<Class<?>, Class<?>> PRIMITIVES = Map.of(int.class, Integer.class, long.class, Long.class,
+            double.class, Double.class, float.class, Float.class, boolean.class, Boolean.class);
+
+    private static final Map<Class<?>, Function<Object, Object>> CONVERTERS = new IdentityHashMap<>();
+
+    static {
+        CONVERTERS.put(Integer.class, value -> value instanceof Integer ? value
+                : value instanceof BigDecimal ? ((BigDecimal) value).intValue()
+                        : new BigDecimal(String.valueOf(value)).intValue());
+        CONVERTERS.put(Long.class, value -> value instanceof Long ? value
+                : value instanceof BigDecimal ? ((BigDecimal) value).longValue()
+                        : new BigDecimal(String.valueOf(value)).longValue());
+        CONVERTERS.put(Double.class, value -> value instanceof Double ? value
+                : value instanceof BigDecimal ? ((BigDecimal) value).doubleValue()
+                        : new BigDecimal(String.valueOf(value)).doubleValue());
+        CONVERTERS.put(Float.class, value -> value instanceof Float ? value
+                : value instanceof BigDecimal ? ((BigDecimal) value).floatValue()
+                        : new BigDecimal(String.valueOf(value)).floatValue());
+        CONVERTERS.put(Boolean.class,
+                value -> value instanceof Boolean ? value : Boolean.valueOf(String.valueOf(value)));
+        CONVERTERS.put(String.class, value -> value instanceof String ? value : cast(value, STRING));
+    }
+
     private ClassCast() {
 
     }
 
+    /**
+     * 根据Class预先解析类型转换器，转换规则与{@link #cast(Object, String)}一致. <br>
+     * 适用于需要对同一类型反复转换的场景，避免每次转换时进行类型名称匹配. <br>
+     * 基本数据类型按其包装类型进行转换.
+     * @param type 类型
+     * @return 类型转换器，转换失败时抛出{@link org.nanoframework.beans.format.exception.ClassCastException}
+     */
+    public static Function<Object, Object> converter(Class<?> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("类型不能为空");
+        }
+
+        var boxed = PRIMITIVES.getOrDefault(type, type);
+        var converter = CONVERTERS.get(boxed);
+        if (converter == null) {
+            var typeName = boxed.getName();
+            return value -> cast(value, typeName);
+        }
+
+        return value -> {
+            if (value == null) {
+                return null;
+            }
+
+            try {
+                return converter.apply(value);
+            } catch (Throwable e) {
+                throw new org.nanoframework.beans.format.exception.ClassCastException(e.getMessage(), e);
+            }
+        };
+    }
+
     /**
      * 根据Class进行转换，转换简单数据类型.
      * @param value 值
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.benchmarks;
+
+import java.util.Map;
+
+import org.nanoframework.core.rest.annotation.Body;
+import org.nanoframework.core.rest.annotation.Param;
+import org.nanoframework.core.rest.annotation.PathVariable;
+import org.nanoframework.core.rest.annotation.Restful;
+import org.nanoframework.core.rest.annotation.Route;
+import org.nanoframework.core.rest.enums.HttpType;
+
+/**
+ * 基准测试使用的路由服务.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@Restful
+@Route("/benchmark")
+public class BenchmarkService {
+
+    @Route(value = "/hello", type = HttpType.GET)
+    public String hello() {
+        return "world";
+    }
+
+    @Route(value = "/param", type = HttpType.GET)
+    public String param(@Param("name") String name, @Param("size") int size) {
+        return name;
+    }
+
+    @Route(value = "/users/{id}", type = HttpType.GET)
+    public long path(@PathVariable("id") long id, @Param("name") String name) {
+        return id;
+    }
+
+    @Route(value = "/body", type = HttpType.POST)
+    public Map<String, Object> body(@Body Map<String, Object> body) {
+        return body;
+    }
+
+    @Route(value = "/timeout", type = HttpType.GET, timeout = 1000)
+    public String timeout() {
+        return "world";
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.nanoframework.beans.BaseEntity;
+import org.nanoframework.beans.format.ClassCast;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 类型转换及实体属性访问基准测试.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvertBenchmark {
+    private final Function<Object, Object> converter = ClassCast.converter(Long.class);
+
+    private final Map<String, Object> values = Map.of("id", 12345L, "name", "nano", "size", 100);
+
+    private final Entity entity = BaseEntity.mapToBean(values, Entity.class);
+
+    @Benchmark
+    public Object castByName() {
+        return ClassCast.cast("12345", Long.class.getName());
+    }
+
+    @Benchmark
+    public Object castByConverter() {
+        return converter.apply("12345");
+    }
+
+    @Benchmark
+    public Object attributeValue() {
+        return entity.attributeValue("name");
+    }
+
+    @Benchmark
+    public Entity mapToBean() {
+        return BaseEntity.mapToBean(values, Entity.class);
+    }
+
+    /**
+     * @author yanghe
+     * @since 2.0.0
+     */
+    @Getter
+    @Setter
+    public static class Entity extends BaseEntity {
+        private static final long serialVersionUID = 1L;
+
+        private Long id;
+
+        private String name;
+
+        private Integer size;
+    }
+}
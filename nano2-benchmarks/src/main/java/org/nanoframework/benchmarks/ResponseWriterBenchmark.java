@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.nanoframework.core.web.http.ResponseWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 响应输出基准测试，输出目标丢弃所有内容，只统计序列化及编码的开销.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseWriterBenchmark {
+    private final HttpServletResponse response = Servlets.response();
+
+    private final Map<String, Object> small = Map.of("status", 200, "message", "OK", "info", "请求成功");
+
+    private final List<Map<String, Object>> large = IntStream.range(0, 1000)
+            .mapToObj(idx -> Map.<String, Object> of("id", idx, "name", "nano-" + idx, "value", idx * 1.5))
+            .collect(Collectors.toList());
+
+    @Benchmark
+    public void writeSmall() throws IOException {
+        ResponseWriter.json(response, small, null);
+    }
+
+    @Benchmark
+    public void writeLarge() throws IOException {
+        ResponseWriter.json(response, large, null);
+    }
+}
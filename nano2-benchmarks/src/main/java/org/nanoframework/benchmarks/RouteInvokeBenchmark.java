@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.nanoframework.core.boot.BootLoader;
+import org.nanoframework.core.rest.RouteMatch;
+import org.nanoframework.core.rest.Routes;
+import org.nanoframework.core.rest.enums.HttpType;
+import org.nanoframework.toolkit.consts.Charsets;
+import org.nanoframework.toolkit.scan.ClassScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 路由调用基准测试，包含参数绑定、路由过滤器链及超时控制. <br>
+ * bind开头的基准测试只执行参数绑定，用于区分参数绑定与过滤器链的开销. <br>
+ * 调用通过{@link BootLoader}启动后的服务实例进行，与请求处理时的调用路径一致.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteInvokeBenchmark {
+    private static final byte[] BODY = "{\"id\":12345,\"name\":\"nano\",\"tags\":[\"a\",\"b\",\"c\"]}"
+            .getBytes(Charsets.UTF_8);
+
+    private final Map<String, Object> params = Map.of("name", "nano", "size", "100");
+
+    private RouteMatch hello;
+
+    private RouteMatch param;
+
+    private RouteMatch path;
+
+    private RouteMatch body;
+
+    private RouteMatch timeout;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ClassScanner.scan(RouteInvokeBenchmark.class);
+        new BootLoader();
+
+        var route = Routes.route();
+        hello = route.lookup("/benchmark/hello", HttpType.GET);
+        param = route.lookup("/benchmark/param", HttpType.GET);
+        path = route.lookup("/benchmark/users/12345", HttpType.GET);
+        body = route.lookup("/benchmark/body", HttpType.POST);
+        timeout = route.lookup("/benchmark/timeout", HttpType.GET);
+    }
+
+    /**
+     * 请求上下文只在当前线程有效，需要在执行基准测试的线程中设置. <br>
+     * 每次读取请求体时都会重新创建输入流，因此请求上下文可以重复使用.
+     */
+    @Setup(Level.Iteration)
+    public void attach() {
+        Servlets.attach(Servlets.request(BODY), Servlets.response());
+    }
+
+    @Benchmark
+    public Object invokeNoArgs() {
+        return Routes.route().invoke(hello);
+    }
+
+    @Benchmark
+    public Object invokeParam() {
+        return Routes.route().invoke(param, params);
+    }
+
+    @Benchmark
+    public Object invokePathVariable() {
+        return Routes.route().invoke(path, params);
+    }
+
+    @Benchmark
+    public Object invokeBody() {
+        return Routes.route().invoke(body, params);
+    }
+
+    @Benchmark
+    public Object invokeTimeout() {
+        return Routes.route().invoke(timeout);
+    }
+
+    @Benchmark
+    public Object[] bindParam() {
+        return param.getMapper().bind(params, param);
+    }
+
+    @Benchmark
+    public Object[] bindPathVariable() {
+        return path.getMapper().bind(params, path);
+    }
+
+    @Benchmark
+    public Object[] bindBody() {
+        return body.getMapper().bind(params, body);
+    }
+}
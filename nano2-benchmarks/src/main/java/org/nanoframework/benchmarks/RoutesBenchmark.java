@@ -0,0 +1,95 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.nanoframework.core.rest.RouteMapper;
+import org.nanoframework.core.rest.RouteMatch;
+import org.nanoframework.core.rest.Routes;
+import org.nanoframework.core.rest.enums.HttpType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 路由查找基准测试，分别测试不同路由数量下静态路由与路径变量路由的查找耗时.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutesBenchmark {
+
+    @Param({"10", "100", "1000" })
+    private int routes;
+
+    private String staticUrl;
+
+    private String variableUrl;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var route = Routes.route();
+        route.clear();
+        for (var idx = 0; idx < routes; idx++) {
+            route.register("/static/resource" + idx + "/list", get());
+            route.register("/variable/resource" + idx + "/{id}/orders/{no}", get());
+        }
+
+        staticUrl = "/static/resource" + (routes - 1) + "/list";
+        variableUrl = "/variable/resource" + (routes - 1) + "/12345/orders/67890";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Routes.route().clear();
+    }
+
+    @Benchmark
+    public RouteMatch lookupStatic() {
+        return Routes.route().lookup(staticUrl, HttpType.GET);
+    }
+
+    @Benchmark
+    public RouteMatch lookupVariable() {
+        return Routes.route().lookup(variableUrl, HttpType.GET);
+    }
+
+    @Benchmark
+    public RouteMatch lookupMissing() {
+        return Routes.route().lookup("/missing/resource", HttpType.GET);
+    }
+
+    private static Map<HttpType, RouteMapper> get() {
+        return Map.of(HttpType.GET, RouteMapper.builder().types(new HttpType[] {HttpType.GET }).build());
+    }
+}
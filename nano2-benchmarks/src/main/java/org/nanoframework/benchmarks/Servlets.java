@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.nanoframework.core.web.filter.RouteFilter.HttpContext;
+import org.nanoframework.core.web.http.RequestContext;
+import org.nanoframework.toolkit.consts.Charsets;
+
+/**
+ * 基准测试使用的Servlet请求及响应，不依赖Servlet容器.
+ * @author yanghe
+ * @since 2.0.0
+ */
+final class Servlets {
+
+    private Servlets() {
+
+    }
+
+    /**
+     * @param body 请求体，每次获取输入流时从头读取
+     * @return HttpServletRequest
+     */
+    static HttpServletRequest request(byte[] body) {
+        return (HttpServletRequest) Proxy.newProxyInstance(Servlets.class.getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getInputStream":
+                            return input(body);
+                        case "getContentLengthLong":
+                            return (long) body.length;
+                        case "getContentLength":
+                            return body.length;
+                        case "getCharacterEncoding":
+                            return Charsets.UTF_8.name();
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    /**
+     * @return 丢弃所有输出内容的HttpServletResponse
+     */
+    static HttpServletResponse response() {
+        var output = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+
+            }
+        };
+
+        return (HttpServletResponse) Proxy.newProxyInstance(Servlets.class.getClassLoader(),
+                new Class<?>[] {HttpServletResponse.class }, (proxy, method, args) -> {
+                    if ("getOutputStream".equals(method.getName())) {
+                        return output;
+                    }
+
+                    return defaultValue(method.getReturnType());
+                });
+    }
+
+    /**
+     * @param request 请求
+     * @param response 响应
+     */
+    static void attach(HttpServletRequest request, HttpServletResponse response) {
+        Context.attach(RequestContext.builder().request(request).response(response).build());
+    }
+
+    private static ServletInputStream input(byte[] body) {
+        var input = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return input.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return input.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return input.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+
+            }
+        };
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        }
+
+        return null;
+    }
+
+    /**
+     * 通过子类访问请求上下文的设置方法.
+     */
+    private static final class Context extends HttpContext {
+        private static void attach(RequestContext context) {
+            set(context);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Builder;
+
+/**
+ * 根据响应时间自动调整的并发限制. <br>
+ * 按采样窗口统计平均响应时间(短期RTT)，并以指数移动平均维护长期RTT作为无排队时的基准. <br>
+ * 每个窗口结束时按梯度 min(1, 容忍度 * 长期RTT / 短期RTT) 调整限制:
+ * 响应时间稳定时梯度为1，限制增加约sqrt(limit)以探测更高的吞吐; 响应时间上升说明请求开始排队，限制按比例下降. <br>
+ * 窗口内最大并发数不足限制的一半时不增加限制，避免低负载下限制无限增长.
+ *
+ * <pre>
+ * context.route.limit.enabled=true
+ * context.route.limit.initial=20
+ * context.route.limit.min=1
+ * context.route.limit.max=1000
+ * context.route.limit.window=100
+ * </pre>
+ *
+ * @author yanghe
+ * @since 2.0.0
+ */
+public class AdaptiveLimiter {
+    /** 属性前缀. */
+    public static final String PREFIX = "context.route.limit";
+
+    /** 是否开启并发限制. */
+    public static final String ENABLED = PREFIX + ".enabled";
+
+    /** 初始并发限制. */
+    public static final String INITIAL = PREFIX + ".initial";
+
+    /** 最小并发限制. */
+    public static final String MIN = PREFIX + ".min";
+
+    /** 最大并发限制. */
+    public static final String MAX = PREFIX + ".max";
+
+    /** 采样窗口时长，单位毫秒. */
+    public static final String WINDOW = PREFIX + ".window";
+
+    private static final String DEFAULT_INITIAL = "20";
+
+    private static final String DEFAULT_MIN = "1";
+
+    private static final String DEFAULT_MAX = "1000";
+
+    private static final String DEFAULT_WINDOW = "100";
+
+    /** 每个窗口的最少采样数. */
+    private static final int MIN_SAMPLES = 10;
+
+    /** 长期RTT的平滑系数，约等于最近600个窗口的平均值. */
+    private static final double LONG_RTT_ALPHA = 2D / 601;
+
+    /** 短期RTT不超过长期RTT的此倍数时视为未排队. */
+    private static final double TOLERANCE = 1.5;
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final LongAdder rttSum = new LongAdder();
+
+    private final LongAdder rttCount = new LongAdder();
+
+    private final AtomicLong windowEnd;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long window;
+
+    private volatile double limit;
+
+    private double longRtt;
+
+    /**
+     * @param initialLimit 初始并发限制
+     * @param minLimit 最小并发限制
+     * @param maxLimit 最大并发限制
+     * @param window 采样窗口时长，单位毫秒
+     */
+    @Builder
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long window) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException(String.format("无效的并发限制范围: [%d, %d]", minLimit, maxLimit));
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.min(Math.max(initialLimit, minLimit), maxLimit);
+        this.window = TimeUnit.MILLISECONDS.toNanos(Math.max(window, 1));
+        this.windowEnd = new AtomicLong(System.nanoTime() + this.window);
+    }
+
+    /**
+     * @return 是否通过context.route.limit.enabled开启了并发限制
+     */
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(property(ENABLED, "false"));
+    }
+
+    /**
+     * @return 根据context.properties配置创建的并发限制
+     */
+    public static AdaptiveLimiter of() {
+        return builder().initialLimit(Integer.parseInt(property(INITIAL, DEFAULT_INITIAL)))
+                .minLimit(Integer.parseInt(property(MIN, DEFAULT_MIN)))
+                .maxLimit(Integer.parseInt(property(MAX, DEFAULT_MAX)))
+                .window(Long.parseLong(property(WINDOW, DEFAULT_WINDOW))).build();
+    }
+
+    private static String property(String key, String defaultValue) {
+        return System.getProperty(key, defaultValue).trim();
+    }
+
+    /**
+     * @return 未超过并发限制时占用一个并发并返回true，调用完成后必须调用{@link #release(long)}
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            var current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                maxInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param start 调用开始时间，{@link System#nanoTime()}
+     */
+    public void release(long start) {
+        var now = System.nanoTime();
+        inFlight.decrementAndGet();
+        sample(now - start, now);
+    }
+
+    void sample(long rtt, long now) {
+        rttSum.add(rtt);
+        rttCount.increment();
+
+        var end = windowEnd.get();
+        if (now >= end && rttCount.sum() >= MIN_SAMPLES && windowEnd.compareAndSet(end, now + window)) {
+            update();
+        }
+    }
+
+    private synchronized void update() {
+        var count = rttCount.sumThenReset();
+        var sum = rttSum.sumThenReset();
+        var max = maxInFlight.getAndSet(inFlight.get());
+        if (count == 0) {
+            return;
+        }
+
+        var shortRtt = Math.max((double) sum / count, 1);
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) * LONG_RTT_ALPHA;
+        }
+
+        // 负载下降后长期RTT可能明显高于短期RTT，加快衰减以尽快恢复基准
+        if (longRtt > shortRtt * 2) {
+            longRtt = shortRtt * 2;
+        }
+
+        var current = limit;
+        var gradient = Math.max(MIN_GRADIENT, Math.min(1, TOLERANCE * longRtt / shortRtt));
+        if (gradient >= 1 && max < current / 2) {
+            return;
+        }
+
+        var next = current * gradient + Math.sqrt(current);
+        next = current * (1 - SMOOTHING) + next * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    /**
+     * @return 当前并发限制
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return 当前并发数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return 被拒绝的调用次数
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
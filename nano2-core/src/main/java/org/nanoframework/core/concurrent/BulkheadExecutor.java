@@ -0,0 +1,345 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+import org.nanoframework.modules.logging.Logger;
+import org.nanoframework.modules.logging.LoggerFactory;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 可配置的有界线程池，用于隔离不同路由的执行资源. <br>
+ * 通过context.properties进行定义，每个线程池会注册为JMX MXBean: org.nanoframework:type=Executor,name={name}
+ *
+ * <pre>
+ * context.executor.names=slow,report
+ * context.executor.slow.core.size=8
+ * context.executor.slow.max.size=32
+ * context.executor.slow.queue.size=256
+ * context.executor.slow.keep.alive=60000
+ * context.executor.slow.rejection=ABORT
+ * </pre>
+ *
+ * @author yanghe
+ * @since 2.0.0
+ */
+public class BulkheadExecutor implements Executor, BulkheadExecutorMXBean {
+    /** 线程池名称列表，多个名称使用','分隔. */
+    public static final String NAMES = "context.executor.names";
+
+    /** 线程池属性前缀. */
+    public static final String PREFIX = "context.executor.";
+
+    /** 核心线程数. */
+    public static final String CORE_SIZE = ".core.size";
+
+    /** 最大线程数. */
+    public static final String MAX_SIZE = ".max.size";
+
+    /** 队列长度，0时不排队. */
+    public static final String QUEUE_SIZE = ".queue.size";
+
+    /** 空闲线程存活时间，单位毫秒. */
+    public static final String KEEP_ALIVE = ".keep.alive";
+
+    /** 拒绝策略. */
+    public static final String REJECTION = ".rejection";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkheadExecutor.class);
+
+    private static final String DEFAULT_CORE_SIZE = "8";
+
+    private static final String DEFAULT_MAX_SIZE = "64";
+
+    private static final String DEFAULT_QUEUE_SIZE = "1024";
+
+    private static final String DEFAULT_KEEP_ALIVE = "60000";
+
+    private static final String DEFAULT_REJECTION = "ABORT";
+
+    @Getter
+    private final String name;
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder queueTime = new LongAdder();
+
+    private final LongAdder executionTime = new LongAdder();
+
+    private final LongAdder executions = new LongAdder();
+
+    private final LongAccumulator maxExecutionTime = new LongAccumulator(Math::max, 0);
+
+    private ObjectName objectName;
+
+    /**
+     * @param name 线程池名称
+     * @param coreSize 核心线程数
+     * @param maxSize 最大线程数
+     * @param queueSize 队列长度
+     * @param keepAlive 空闲线程存活时间，单位毫秒
+     * @param rejection 拒绝策略
+     */
+    @Builder
+    public BulkheadExecutor(String name, int coreSize, int maxSize, int queueSize, long keepAlive,
+            Rejection rejection) {
+        this.name = name;
+        var threads = new AtomicInteger();
+        var handler = (rejection == null ? Rejection.ABORT : rejection).handler;
+        this.executor = new ThreadPoolExecutor(coreSize, Math.max(coreSize, maxSize), keepAlive,
+                TimeUnit.MILLISECONDS, queue(queueSize), runnable -> {
+                    var thread = new Thread(runnable);
+                    thread.setName(name + "-Executor-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, executor) -> {
+                    rejected.increment();
+                    handler.rejectedExecution(runnable, executor);
+                });
+    }
+
+    /**
+     * @param name 线程池名称
+     * @return 根据context.properties配置创建的线程池
+     */
+    public static BulkheadExecutor of(String name) {
+        var prefix = PREFIX + name;
+        return builder().name(name).coreSize(Integer.parseInt(property(prefix + CORE_SIZE, DEFAULT_CORE_SIZE)))
+                .maxSize(Integer.parseInt(property(prefix + MAX_SIZE, DEFAULT_MAX_SIZE)))
+                .queueSize(Integer.parseInt(property(prefix + QUEUE_SIZE, DEFAULT_QUEUE_SIZE)))
+                .keepAlive(Long.parseLong(property(prefix + KEEP_ALIVE, DEFAULT_KEEP_ALIVE)))
+                .rejection(Rejection.valueOf(property(prefix + REJECTION, DEFAULT_REJECTION).toUpperCase())).build();
+    }
+
+    private static String property(String key, String defaultValue) {
+        return System.getProperty(key, defaultValue).trim();
+    }
+
+    private static BlockingQueue<Runnable> queue(int queueSize) {
+        if (queueSize <= 0) {
+            return new SynchronousQueue<>();
+        } else if (queueSize == Integer.MAX_VALUE) {
+            return new LinkedBlockingQueue<>();
+        }
+
+        return new ArrayBlockingQueue<>(queueSize);
+    }
+
+    /**
+     * 注册JMX MXBean.
+     */
+    public void register() {
+        try {
+            var objectName = new ObjectName("org.nanoframework:type=Executor,name=" + ObjectName.quote(name));
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+                this.objectName = objectName;
+            }
+        } catch (Throwable e) {
+            LOGGER.warn("注册线程池MXBean失败: {}, {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * 关闭线程池并注销JMX MXBean.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Throwable e) {
+                LOGGER.warn("注销线程池MXBean失败: {}, {}", name, e.getMessage());
+            }
+
+            objectName = null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(new TimedTask(command));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        var future = new FutureTask<>(task);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable task, T result) {
+        var future = new FutureTask<>(task, result);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        var future = new FutureTask<Void>(task, null);
+        execute(future);
+        return future;
+    }
+
+    @Override
+    public int getCorePoolSize() {
+        return executor.getCorePoolSize();
+    }
+
+    @Override
+    public int getMaximumPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public int getPoolSize() {
+        return executor.getPoolSize();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int getQueueRemainingCapacity() {
+        return executor.getQueue().remainingCapacity();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    @Override
+    public double getAverageQueueTime() {
+        return average(queueTime.sum());
+    }
+
+    @Override
+    public double getAverageExecutionTime() {
+        return average(executionTime.sum());
+    }
+
+    @Override
+    public double getMaxExecutionTime() {
+        return maxExecutionTime.get() / 1_000_000D;
+    }
+
+    private double average(long nanos) {
+        var count = executions.sum();
+        return count == 0 ? 0 : nanos / 1_000_000D / count;
+    }
+
+    /**
+     * 线程池拒绝策略.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    public enum Rejection {
+        /** 抛出RejectedExecutionException. */
+        ABORT(new ThreadPoolExecutor.AbortPolicy()),
+        /** 在提交任务的线程中执行. */
+        CALLER_RUNS(new ThreadPoolExecutor.CallerRunsPolicy()),
+        /** 丢弃当前任务，通过submit提交的任务会被取消. */
+        DISCARD((runnable, executor) -> cancel(runnable)),
+        /** 丢弃队列中最早的任务，通过submit提交的任务会被取消. */
+        DISCARD_OLDEST((runnable, executor) -> {
+            if (executor.isShutdown()) {
+                cancel(runnable);
+                return;
+            }
+
+            cancel(executor.getQueue().poll());
+            executor.execute(runnable);
+        });
+
+        private final RejectedExecutionHandler handler;
+
+        Rejection(RejectedExecutionHandler handler) {
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * 取消被丢弃的任务，避免调用方一直等待Future完成.
+     */
+    private static void cancel(Runnable runnable) {
+        var task = runnable instanceof TimedTask ? ((TimedTask) runnable).task : runnable;
+        if (task instanceof Future) {
+            ((Future<?>) task).cancel(false);
+        }
+    }
+
+    /**
+     * 记录任务排队及执行耗时.
+     */
+    private final class TimedTask implements Runnable {
+        private final long created = System.nanoTime();
+
+        private final Runnable task;
+
+        private TimedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            var start = System.nanoTime();
+            queueTime.add(start - created);
+            try {
+                task.run();
+            } finally {
+                var elapsed = System.nanoTime() - start;
+                executionTime.add(elapsed);
+                maxExecutionTime.accumulate(elapsed);
+                executions.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+/**
+ * 线程池运行指标.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public interface BulkheadExecutorMXBean {
+
+    String getName();
+
+    int getCorePoolSize();
+
+    int getMaximumPoolSize();
+
+    int getPoolSize();
+
+    int getActiveCount();
+
+    /**
+     * @return 等待执行的任务数
+     */
+    int getQueueSize();
+
+    /**
+     * @return 队列剩余容量
+     */
+    int getQueueRemainingCapacity();
+
+    /**
+     * @return 被拒绝的任务数
+     */
+    long getRejectedCount();
+
+    long getCompletedTaskCount();
+
+    /**
+     * @return 任务平均排队时间，单位毫秒
+     */
+    double getAverageQueueTime();
+
+    /**
+     * @return 任务平均执行时间，单位毫秒
+     */
+    double getAverageExecutionTime();
+
+    /**
+     * @return 任务最大执行时间，单位毫秒
+     */
+    double getMaxExecutionTime();
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.nanoframework.core.web.filter.RouteFilter.HttpContext;
+
+import lombok.NonNull;
+
+/**
+ * 传递请求上下文的线程池包装，提交任务时捕获当前线程的请求上下文，并在执行线程中恢复. <br>
+ * 同时实现{@link java.util.concurrent.Executor}，可作为CompletableFuture异步阶段的执行线程池，
+ * 使用此线程池执行的阶段及其后续的非异步阶段均可获取请求上下文.
+ *
+ * <pre>
+ * CompletableFuture.supplyAsync(() -&gt; query(), ContextExecutor.of(executor))
+ *         .thenApply(value -&gt; HttpContext.get(URLContext.class) ...);
+ * </pre>
+ *
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class ContextExecutor implements Executor, java.util.concurrent.Executor {
+    private final Executor executor;
+
+    private ContextExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param executor 线程池
+     * @return 传递请求上下文的线程池
+     */
+    public static ContextExecutor of(@NonNull Executor executor) {
+        if (executor instanceof ContextExecutor) {
+            return (ContextExecutor) executor;
+        }
+
+        return new ContextExecutor(executor);
+    }
+
+    /**
+     * @param <T> 返回值类型
+     * @param supplier 异步任务
+     * @param executor 线程池
+     * @return 在线程池中使用当前请求上下文执行的CompletableFuture
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier, Executor executor) {
+        return CompletableFuture.supplyAsync(supplier, of(executor));
+    }
+
+    /**
+     * @param runnable 异步任务
+     * @param executor 线程池
+     * @return 在线程池中使用当前请求上下文执行的CompletableFuture
+     */
+    public static CompletableFuture<Void> runAsync(Runnable runnable, Executor executor) {
+        return CompletableFuture.runAsync(runnable, of(executor));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(HttpContext.wrap(command));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(HttpContext.wrap(task));
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable task, T result) {
+        return executor.submit(HttpContext.wrap(task), result);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return executor.submit(HttpContext.wrap(task));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nanoframework.beans.Globals;
+import org.nanoframework.modules.logging.Logger;
+import org.nanoframework.modules.logging.LoggerFactory;
+import org.nanoframework.spi.def.Module;
+import org.nanoframework.spi.support.SPILoader;
+import org.nanoframework.toolkit.lang.StringUtils;
+
+import com.google.inject.Binder;
+import com.google.inject.ConfigurationException;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+
+/**
+ * 根据context.executor.names配置创建有界线程池，并以线程池名称绑定为{@link Executor}扩展，
+ * 可直接通过@Route(executor = "{name}")使用. <br>
+ * 名称与已有的Executor扩展相同时(如default)，配置的线程池替换该扩展，通过{@link #lookup(String)}获取.
+ * @author yanghe
+ * @since 2.0.0
+ * @see BulkheadExecutor
+ */
+public class ExecutorModule implements Module {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorModule.class);
+
+    /** 根据配置创建的线程池，优先于同名的Executor扩展. */
+    private static final Map<String, BulkheadExecutor> CONFIGURED = new ConcurrentHashMap<>();
+
+    private final List<BulkheadExecutor> executors = new ArrayList<>();
+
+    @Override
+    public void configure(Binder binder) {
+        var names = System.getProperty(BulkheadExecutor.NAMES);
+        if (StringUtils.isBlank(names)) {
+            return;
+        }
+
+        var spiNames = SPILoader.spiNames(Executor.class);
+        for (var name : names.split(",")) {
+            name = name.trim();
+            if (StringUtils.isEmpty(name)) {
+                continue;
+            }
+
+            var executor = BulkheadExecutor.of(name);
+            executor.register();
+            executors.add(executor);
+            CONFIGURED.put(name, executor);
+            if (spiNames != null && spiNames.contains(name)) {
+                // 同名的扩展已由SPIModule绑定，路由调用时通过lookup使用配置的线程池
+                LOGGER.info("线程池配置替换Executor扩展: {}", name);
+            } else {
+                binder.bind(Executor.class).annotatedWith(Names.named(name)).toInstance(executor);
+            }
+        }
+    }
+
+    /**
+     * @param name 线程池名称
+     * @return 根据配置创建的线程池，未配置时返回同名的Executor扩展，均不存在时返回null
+     */
+    public static Executor lookup(String name) {
+        Executor executor = CONFIGURED.get(name);
+        if (executor != null) {
+            return executor;
+        }
+
+        var injector = Globals.get(Injector.class);
+        if (injector == null) {
+            return null;
+        }
+
+        try {
+            return injector.getInstance(Key.get(Executor.class, Names.named(name)));
+        } catch (ConfigurationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public List<Module> load() {
+        return List.of(this);
+    }
+
+    @Override
+    public void destroy() {
+        executors.forEach(executor -> {
+            CONFIGURED.values().remove(executor);
+            executor.shutdown();
+        });
+        executors.clear();
+    }
+
+}
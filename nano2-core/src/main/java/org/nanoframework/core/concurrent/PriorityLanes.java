@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.nanoframework.core.rest.annotation.Route;
+import org.nanoframework.core.rest.enums.Priority;
+
+/**
+ * 按路由优先级划分的执行通道，通过context.properties开启及配置. <br>
+ * 每个通道可以限制同时执行的请求数，使低优先级的批量请求不会占满容器线程; <br>
+ * 请求的排队时间(容器线程池队列中的等待时间加上等待通道的时间)超过通道的最大排队时间或路由的timeout时直接拒绝，
+ * 避免继续执行已经超时的请求. <br>
+ * 等待通道许可时会阻塞当前的容器线程，等待的请求越多可用于处理其它优先级请求的容器线程越少，因此等待时间始终受
+ * 最大排队时间及路由timeout限制；两者都不限制时通道已满的请求立即拒绝，不进入等待.
+ *
+ * <pre>
+ * context.route.lanes.enabled=true
+ * # 同时执行的请求数，0表示不限制
+ * context.route.lane.low.permits=32
+ * # 最大排队时间，单位毫秒，0表示不限制排队时间，但通道已满时不等待
+ * context.route.lane.low.max.queue.time=200
+ * </pre>
+ *
+ * 默认不限制执行数，最大排队时间: CRITICAL 0, HIGH 3000, NORMAL 1000, LOW 200.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class PriorityLanes {
+    /** 是否开启执行通道. */
+    public static final String ENABLED = "context.route.lanes.enabled";
+
+    /** 通道属性前缀. */
+    public static final String PREFIX = "context.route.lane.";
+
+    /** 同时执行的请求数. */
+    public static final String PERMITS = ".permits";
+
+    /** 最大排队时间，单位毫秒. */
+    public static final String MAX_QUEUE_TIME = ".max.queue.time";
+
+    private static final long[] DEFAULT_MAX_QUEUE_TIMES = {0, 3000, 1000, 200 };
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    private static final Permit NONE = () -> { };
+
+    private final Lane[] lanes;
+
+    /**
+     * @param lanes 各优先级的执行通道，未指定的优先级不限制执行数及排队时间；为null时不开启执行通道
+     */
+    public PriorityLanes(Map<Priority, Lane> lanes) {
+        if (lanes == null) {
+            this.lanes = null;
+        } else {
+            this.lanes = new Lane[PRIORITIES.length];
+            for (var priority : PRIORITIES) {
+                this.lanes[priority.ordinal()] = lanes.getOrDefault(priority, new Lane(0, 0));
+            }
+        }
+    }
+
+    /**
+     * @return 根据context.properties配置创建的全局执行通道
+     */
+    public static PriorityLanes shared() {
+        return Holder.INSTANCE;
+    }
+
+    private static PriorityLanes of() {
+        if (!Boolean.parseBoolean(property(ENABLED, "false"))) {
+            return new PriorityLanes(null);
+        }
+
+        var lanes = new EnumMap<Priority, Lane>(Priority.class);
+        for (var priority : PRIORITIES) {
+            var prefix = PREFIX + priority.name().toLowerCase();
+            lanes.put(priority, new Lane(Integer.parseInt(property(prefix + PERMITS, "0")), Long.parseLong(
+                    property(prefix + MAX_QUEUE_TIME, String.valueOf(DEFAULT_MAX_QUEUE_TIMES[priority.ordinal()])))));
+        }
+
+        return new PriorityLanes(lanes);
+    }
+
+    private static String property(String key, String defaultValue) {
+        return System.getProperty(key, defaultValue).trim();
+    }
+
+    /**
+     * @param route 路由配置，为null时按NORMAL优先级处理
+     * @return 进入通道的许可，执行完成后必须释放；排队时间超过限制，或不限制排队时间且通道已满时返回null
+     * @throws InterruptedException 等待通道时被中断
+     */
+    public Permit acquire(Route route) throws InterruptedException {
+        if (lanes == null) {
+            return NONE;
+        }
+
+        var lane = lanes[(route == null ? Priority.NORMAL : route.priority()).ordinal()];
+        var limit = lane.maxQueueTime;
+        if (route != null && route.timeout() > 0) {
+            var timeout = TimeUnit.MILLISECONDS.toNanos(route.timeout());
+            limit = limit == 0 ? timeout : Math.min(limit, timeout);
+        }
+
+        var waited = QueueTime.elapsed(TimeUnit.NANOSECONDS);
+        if (limit > 0 && waited >= limit) {
+            lane.shed.increment();
+            return null;
+        }
+
+        if (lane.semaphore == null) {
+            return NONE;
+        }
+
+        if (limit == 0 ? lane.semaphore.tryAcquire()
+                : lane.semaphore.tryAcquire(limit - waited, TimeUnit.NANOSECONDS)) {
+            return lane;
+        }
+
+        lane.shed.increment();
+        return null;
+    }
+
+    /**
+     * @param priority 优先级
+     * @return 因排队超时被拒绝的请求数
+     */
+    public long getShedCount(Priority priority) {
+        return lanes == null ? 0 : lanes[priority.ordinal()].shed.sum();
+    }
+
+    /**
+     * 进入执行通道的许可.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    @FunctionalInterface
+    public interface Permit {
+
+        /**
+         * 释放许可.
+         */
+        void release();
+    }
+
+    /**
+     * 执行通道.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    public static final class Lane implements Permit {
+        private final Semaphore semaphore;
+
+        private final long maxQueueTime;
+
+        private final LongAdder shed = new LongAdder();
+
+        /**
+         * @param permits 同时执行的请求数，0表示不限制
+         * @param maxQueueTime 最大排队时间，单位毫秒，0表示不限制排队时间，但通道已满时不等待
+         */
+        public Lane(int permits, long maxQueueTime) {
+            this.semaphore = permits > 0 ? new Semaphore(permits) : null;
+            this.maxQueueTime = TimeUnit.MILLISECONDS.toNanos(Math.max(maxQueueTime, 0));
+        }
+
+        @Override
+        public void release() {
+            semaphore.release();
+        }
+    }
+
+    private static final class Holder {
+        private static final PriorityLanes INSTANCE = of();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录当前线程正在处理的请求进入容器线程池队列的时间. <br>
+ * 由容器线程池在执行任务前设置，用于在路由执行前根据已排队时间提前拒绝请求.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class QueueTime {
+    private static final ThreadLocal<long[]> ENQUEUED = ThreadLocal.withInitial(() -> new long[1]);
+
+    private QueueTime() {
+
+    }
+
+    /**
+     * @param enqueued 任务进入队列的时间，{@link System#nanoTime()}
+     */
+    public static void mark(long enqueued) {
+        ENQUEUED.get()[0] = enqueued == 0 ? 1 : enqueued;
+    }
+
+    /**
+     * 清除当前线程的入队时间.
+     */
+    public static void clear() {
+        ENQUEUED.get()[0] = 0;
+    }
+
+    /**
+     * @param unit 时间单位
+     * @return 当前请求从入队到现在经过的时间，未记录入队时间时返回0
+     */
+    public static long elapsed(TimeUnit unit) {
+        var enqueued = ENQUEUED.get()[0];
+        if (enqueued == 0) {
+            return 0;
+        }
+
+        return unit.convert(System.nanoTime() - enqueued, TimeUnit.NANOSECONDS);
+    }
+}
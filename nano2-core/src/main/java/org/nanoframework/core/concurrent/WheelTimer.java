@@ -0,0 +1,298 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.nanoframework.modules.logging.Logger;
+import org.nanoframework.modules.logging.LoggerFactory;
+
+/**
+ * 哈希时间轮定时器，适用于大量短时且大多会被取消的超时任务. <br>
+ * 所有任务由一个后台线程按刻度推进执行，到期任务在该线程中执行，因此任务本身应足够轻量.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class WheelTimer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WheelTimer.class);
+
+    private static final long DEFAULT_TICK_DURATION = 10;
+
+    private static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    private static final int MAX_TRANSFER_PER_TICK = 100000;
+
+    private final Bucket[] wheel;
+
+    private final int mask;
+
+    private final long tickDuration;
+
+    private final String name;
+
+    private final Queue<Task> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile boolean stopped;
+
+    private volatile long startTime;
+
+    private Thread worker;
+
+    /**
+     * @param name 线程名称
+     * @param tickDuration 刻度时长
+     * @param unit 刻度时长单位
+     * @param ticksPerWheel 时间轮刻度数量，会调整为2的幂
+     */
+    public WheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("刻度时长必须大于0: " + tickDuration);
+        }
+
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("无效的刻度数量: " + ticksPerWheel);
+        }
+
+        var size = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        this.wheel = new Bucket[Math.max(size, 1)];
+        for (var idx = 0; idx < wheel.length; idx++) {
+            wheel[idx] = new Bucket();
+        }
+
+        this.mask = wheel.length - 1;
+        this.tickDuration = unit.toNanos(tickDuration);
+        this.name = name;
+    }
+
+    /**
+     * @return 全局共享的时间轮定时器
+     */
+    public static WheelTimer shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * @param task 到期时执行的任务
+     * @param delay 延迟时间
+     * @param unit 延迟时间单位
+     * @return 定时任务句柄
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("定时器已停止: " + name);
+        }
+
+        start();
+        var deadline = System.nanoTime() + unit.toNanos(delay) - startTime;
+        var timeout = new Task(task, deadline);
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 停止定时器，未到期的任务不再执行.
+     */
+    public void stop() {
+        stopped = true;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            startTime = System.nanoTime();
+            worker = new Thread(this::work);
+            worker.setName(name);
+            worker.setDaemon(true);
+            worker.start();
+        } else {
+            while (startTime == 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void work() {
+        long tick = 0;
+        while (!stopped) {
+            var deadline = tickDuration * (tick + 1);
+            var sleep = deadline - (System.nanoTime() - startTime);
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+
+            transfer(tick);
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    private void transfer(long tick) {
+        for (var idx = 0; idx < MAX_TRANSFER_PER_TICK; idx++) {
+            var task = pending.poll();
+            if (task == null) {
+                return;
+            }
+
+            if (task.isCancelled()) {
+                continue;
+            }
+
+            var ticks = task.deadline / tickDuration;
+            task.rounds = (ticks - tick) / wheel.length;
+            wheel[(int) (Math.max(ticks, tick) & mask)].add(task);
+        }
+    }
+
+    /**
+     * 定时任务句柄.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    public interface Timeout {
+
+        /**
+         * @return 任务尚未执行时取消成功返回true
+         */
+        boolean cancel();
+
+        boolean isExpired();
+
+        boolean isCancelled();
+    }
+
+    private static final class Task implements Timeout {
+        private static final int INIT = 0;
+
+        private static final int CANCELLED = 1;
+
+        private static final int EXPIRED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(INIT);
+
+        private final Runnable task;
+
+        private final long deadline;
+
+        private long rounds;
+
+        private Task prev;
+
+        private Task next;
+
+        private Task(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            return state.compareAndSet(INIT, CANCELLED);
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(INIT, EXPIRED)) {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    LOGGER.warn("定时任务执行异常: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 时间轮刻度，只在定时器线程中访问.
+     */
+    private static final class Bucket {
+        private Task head;
+
+        private Task tail;
+
+        private void add(Task task) {
+            if (head == null) {
+                head = tail = task;
+            } else {
+                tail.next = task;
+                task.prev = tail;
+                tail = task;
+            }
+        }
+
+        private void expire() {
+            var task = head;
+            while (task != null) {
+                var next = task.next;
+                if (task.isCancelled()) {
+                    remove(task);
+                } else if (task.rounds <= 0) {
+                    remove(task);
+                    task.expire();
+                } else {
+                    task.rounds--;
+                }
+
+                task = next;
+            }
+        }
+
+        private void remove(Task task) {
+            var next = task.next;
+            if (task.prev != null) {
+                task.prev.next = next;
+            }
+
+            if (next != null) {
+                next.prev = task.prev;
+            }
+
+            if (task == head) {
+                head = next;
+            }
+
+            if (task == tail) {
+                tail = task.prev;
+            }
+
+            task.prev = null;
+            task.next = null;
+        }
+    }
+
+    private static final class Holder {
+        private static final WheelTimer INSTANCE = new WheelTimer("WheelTimer-Thread", DEFAULT_TICK_DURATION,
+                TimeUnit.MILLISECONDS, DEFAULT_TICKS_PER_WHEEL);
+    }
+}
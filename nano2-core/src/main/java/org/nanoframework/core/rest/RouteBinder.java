@@ -0,0 +1,322 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.sql.Timestamp;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.nanoframework.beans.format.ClassCast;
+import org.nanoframework.core.rest.annotation.Body;
+import org.nanoframework.core.rest.annotation.Param;
+import org.nanoframework.core.rest.annotation.PathVariable;
+import org.nanoframework.core.rest.enums.ValueConstants;
+import org.nanoframework.core.rest.exception.BindParamException;
+import org.nanoframework.core.rest.exception.RouteException;
+import org.nanoframework.core.web.codec.Codecs;
+import org.nanoframework.core.web.http.ParameterMap;
+import org.nanoframework.core.web.http.ReadStream;
+import org.nanoframework.modules.logging.Logger;
+import org.nanoframework.modules.logging.LoggerFactory;
+import org.nanoframework.toolkit.lang.ObjectUtils;
+import org.nanoframework.toolkit.lang.StringUtils;
+
+import com.alibaba.fastjson.JSONException;
+
+/**
+ * 路由方法的参数绑定计划，在路由注册时根据方法签名编译一次. <br>
+ * 每个参数对应一个预先解析好名称、默认值、必填项及类型转换器的绑定器，请求时只进行取值和类型转换.
+ * @author yanghe
+ * @since 2.0.0
+ */
+final class RouteBinder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RouteBinder.class);
+
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    private final ParameterBinder[] binders;
+
+    private final MethodHandle handle;
+
+    private final boolean isVoid;
+
+    private RouteBinder(ParameterBinder[] binders, MethodHandle handle, boolean isVoid) {
+        this.binders = binders;
+        this.handle = handle;
+        this.isVoid = isVoid;
+    }
+
+    /**
+     * @param method 路由方法
+     * @return 参数绑定计划
+     */
+    static RouteBinder compile(Method method) {
+        var parameters = method.getParameters();
+        var binders = new ParameterBinder[parameters.length];
+        var hasBody = false;
+        for (var idx = 0; idx < parameters.length; idx++) {
+            var parameter = parameters[idx];
+            var param = parameter.getAnnotation(Param.class);
+            var pathVariable = parameter.getAnnotation(PathVariable.class);
+            var body = parameter.getAnnotation(Body.class);
+            if (ObjectUtils.isNotNull(param, pathVariable, body) > 1) {
+                throw new BindParamException("参数绑定不能同时多种类型");
+            }
+
+            if (param != null) {
+                binders[idx] = new ParamBinder(param, parameter.getType());
+            } else if (pathVariable != null) {
+                binders[idx] = new PathVariableBinder(pathVariable, parameter.getType());
+            } else if (body != null) {
+                if (hasBody) {
+                    throw new BindParamException("不能同时绑定多个@Body");
+                }
+
+                hasBody = true;
+                binders[idx] = new BodyBinder(parameter);
+            } else {
+                binders[idx] = new OtherBinder(parameter.getType());
+            }
+        }
+
+        return new RouteBinder(binders, unreflect(method), method.getReturnType() == void.class);
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            var handle = MethodHandles.publicLookup().unreflect(method);
+            return handle.asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new RouteException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param params 请求参数
+     * @param match 路由匹配结果
+     * @param objs 其它可绑定的对象
+     * @return 方法参数列表
+     */
+    Object[] bind(Map<String, Object> params, RouteMatch match, Object... objs) {
+        if (binders.length == 0) {
+            return EMPTY_ARGS;
+        }
+
+        var values = new Object[binders.length];
+        for (var idx = 0; idx < binders.length; idx++) {
+            values[idx] = binders[idx].bind(params, match, objs);
+        }
+
+        return values;
+    }
+
+    /**
+     * @param instance 服务对象
+     * @param args 方法参数列表
+     * @return 方法返回值，方法无返回值时返回{@code Void.TYPE}
+     * @throws Throwable 方法调用异常
+     */
+    Object invoke(Object instance, Object[] args) throws Throwable {
+        var value = (Object) handle.invokeExact(instance, args);
+        return isVoid ? Void.TYPE : value;
+    }
+
+    private static Object find(Map<String, Object> params, String name, String lowerName) {
+        if (params == null || params.isEmpty()) {
+            return null;
+        }
+
+        // 优先使用声明的名称，请求参数通常与声明的名称大小写一致
+        var value = params.get(name);
+        if (value != null || params instanceof ParameterMap) {
+            // 请求参数视图取值时已忽略大小写
+            return value;
+        }
+
+        if (!name.equals(lowerName)) {
+            value = params.get(lowerName);
+        }
+
+        if (value == null) {
+            for (var entry : params.entrySet()) {
+                if (lowerName.equalsIgnoreCase(entry.getKey())) {
+                    return entry.getValue();
+                }
+            }
+        }
+
+        return value;
+    }
+
+    private static Object convert(Function<Object, Object> converter, Class<?> type, Object value) {
+        try {
+            var converted = converter.apply(value);
+            if (converted == null && type.isPrimitive()) {
+                throw new BindParamException(String.format("基本数据类型 [ %s ] 的参数值不能为空", type.getName()));
+            }
+
+            return converted;
+        } catch (org.nanoframework.beans.format.exception.ClassCastException e) {
+            LOGGER.error(e.getMessage(), e);
+            throw new BindParamException(String.format("类型转换异常: 数据类型 [ %s ], 值 [ %s ]", type.getName(), value));
+        }
+    }
+
+    /**
+     * @author yanghe
+     * @since 2.0.0
+     */
+    private interface ParameterBinder {
+        Object bind(Map<String, Object> params, RouteMatch match, Object[] objs);
+    }
+
+    private static final class ParamBinder implements ParameterBinder {
+        private final String name;
+
+        private final String lowerName;
+
+        private final String defaultValue;
+
+        private final boolean required;
+
+        private final Class<?> type;
+
+        private final Function<Object, Object> converter;
+
+        private ParamBinder(Param param, Class<?> type) {
+            this.name = param.value();
+            this.lowerName = name.toLowerCase();
+            this.defaultValue = StringUtils.notEquals(param.defaultValue(), ValueConstants.DEFAULT_NONE)
+                    ? param.defaultValue() : null;
+            this.required = param.required();
+            this.type = type;
+            this.converter = ClassCast.converter(type);
+        }
+
+        @Override
+        public Object bind(Map<String, Object> params, RouteMatch match, Object[] objs) {
+            Object value = match == null ? null : match.getVariable(lowerName);
+            if (value == null) {
+                value = find(params, name, lowerName);
+            }
+
+            if (value == null) {
+                value = defaultValue;
+            }
+
+            if (required && (value == null || (value instanceof String && StringUtils.isEmpty((String) value)))) {
+                throw new BindParamException("参数:[" + name + "]为必填项，但是获取的参数值为空.");
+            }
+
+            return convert(converter, type, value);
+        }
+    }
+
+    private static final class PathVariableBinder implements ParameterBinder {
+        private final String name;
+
+        private final Class<?> type;
+
+        private final Function<Object, Object> converter;
+
+        private PathVariableBinder(PathVariable pathVariable, Class<?> type) {
+            this.name = pathVariable.value().toLowerCase();
+            this.type = type;
+            this.converter = ClassCast.converter(type);
+        }
+
+        @Override
+        public Object bind(Map<String, Object> params, RouteMatch match, Object[] objs) {
+            Object value = match == null ? null : match.getVariable(name);
+            if (value == null) {
+                value = find(params, name, name);
+            }
+
+            if (value == null) {
+                throw new BindParamException("Restful风格参数:[" + name + "]为必填项，但是获取的参数值为空.");
+            }
+
+            return convert(converter, type, value);
+        }
+    }
+
+    private static final class BodyBinder implements ParameterBinder {
+        private static final Set<Class<?>> SCALAR_TYPES = Set.of(String.class, Integer.class, int.class,
+                Long.class, long.class, Double.class, double.class, Float.class, float.class, Boolean.class,
+                boolean.class, java.util.Date.class, java.sql.Date.class, Timestamp.class);
+
+        private final Type type;
+
+        private final String typeName;
+
+        private final boolean scalar;
+
+        private BodyBinder(Parameter parameter) {
+            this.type = parameter.getParameterizedType();
+            this.typeName = parameter.getType().getName();
+            this.scalar = SCALAR_TYPES.contains(parameter.getType());
+        }
+
+        @Override
+        public Object bind(Map<String, Object> params, RouteMatch match, Object[] objs) {
+            try {
+                // 文本格式的请求体直接作为基本类型的值，二进制格式的请求体由编解码组件转换
+                if (scalar && Codecs.isJson(ReadStream.codec())) {
+                    return ClassCast.cast(ReadStream.read(), typeName);
+                }
+
+                return ReadStream.read(type);
+            } catch (IOException e) {
+                LOGGER.error(e.getMessage(), e);
+                throw new BindParamException("读取参数流异常: " + e.getMessage());
+            } catch (JSONException | NumberFormatException
+                    | org.nanoframework.beans.format.exception.ClassCastException e) {
+                LOGGER.error(e.getMessage(), e);
+                throw new BindParamException(String.format("类型转换异常: 数据类型 [ %s ]", type.getTypeName()));
+            }
+        }
+    }
+
+    private static final class OtherBinder implements ParameterBinder {
+        private final Class<?> type;
+
+        private OtherBinder(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public Object bind(Map<String, Object> params, RouteMatch match, Object[] objs) {
+            if (objs != null) {
+                for (var obj : objs) {
+                    if (type.isInstance(obj)) {
+                        return obj;
+                    }
+                }
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.nanoframework.core.rest.enums.HttpType;
+
+import lombok.Getter;
+
+/**
+ * 路由索引，在注册完成后将所有路由地址按路径段编译为不可变的前缀树. <br>
+ * 同一节点下子节点的匹配优先级依次为: 静态路径段 &gt; 正则/组合路径段 &gt; 路径变量 &gt; '*' &gt; '**'. <br>
+ * 查找耗时只与请求路径的段数相关，与已注册的路由数量无关.
+ * @author yanghe
+ * @since 2.0.0
+ */
+final class RouteIndex {
+    private static final char PATH_SEPARATOR = '/';
+
+    private static final String WILDCARD = "*";
+
+    private static final String DOUBLE_WILDCARD = "**";
+
+    private static final Pattern GLOB_PATTERN = Pattern.compile("\\?|\\*|\\{((?:\\{[^/]+?\\}|[^/{}]|\\\\[{}])+?)\\}");
+
+    private static final String DEFAULT_VARIABLE_PATTERN = "(.*)";
+
+    private static final String[] EMPTY_SEGMENTS = new String[0];
+
+    private final Node root;
+
+    private final int maxVariables;
+
+    private RouteIndex(Node root, int maxVariables) {
+        this.root = root;
+        this.maxVariables = maxVariables;
+    }
+
+    /**
+     * @param mappers 路由地址与路由配置
+     * @return 编译后的路由索引
+     */
+    static RouteIndex compile(Map<String, Map<HttpType, RouteMapper>> mappers) {
+        var root = new Node(null);
+        var maxVariables = 0;
+        for (var entry : mappers.entrySet()) {
+            var pattern = entry.getKey();
+            var node = root;
+            var names = new ArrayList<String>();
+            for (var segment : tokenize(pattern)) {
+                node = node.child(segment, names);
+            }
+
+            var variableNames = names.toArray(new String[names.size()]);
+            maxVariables = Math.max(maxVariables, variableNames.length);
+            for (var mapper : entry.getValue().entrySet()) {
+                node.leaf(mapper.getKey(), new Leaf(pattern, mapper.getValue(), variableNames));
+            }
+        }
+
+        root.freeze();
+        return new RouteIndex(root, maxVariables);
+    }
+
+    /**
+     * 将路由地址中的变量名称移除后作为路由的结构签名，签名相同的路由地址在索引中对应同一节点.
+     * @param pattern 路由地址
+     * @return 路由结构签名
+     */
+    static String shape(String pattern) {
+        var shape = new StringBuilder(pattern.length());
+        for (var segment : tokenize(pattern)) {
+            shape.append(PATH_SEPARATOR);
+            if (isVariable(segment)) {
+                var idx = segment.indexOf(':');
+                shape.append(idx > 0 ? "{" + segment.substring(idx) : "{}");
+            } else {
+                shape.append(segment);
+            }
+        }
+
+        return shape.toString();
+    }
+
+    /**
+     * @param path 请求地址
+     * @param type 请求类型
+     * @return 匹配结果，未匹配时返回null
+     */
+    Match lookup(String path, HttpType type) {
+        var segments = tokenize(path);
+        var values = maxVariables == 0 ? EMPTY_SEGMENTS : new String[maxVariables];
+        var leaf = match(root, segments, 0, values, 0, type);
+        if (leaf != null) {
+            return new Match(leaf, values);
+        }
+
+        return null;
+    }
+
+    private Leaf match(Node node, String[] segments, int index, String[] values, int count, HttpType type) {
+        if (index == segments.length) {
+            var leaf = node.leaf(type);
+            if (leaf != null) {
+                return leaf;
+            }
+
+            // '**' 可以匹配0个路径段
+            if (node.doubleWildcard != null) {
+                return match(node.doubleWildcard, segments, index, values, count, type);
+            }
+
+            return null;
+        }
+
+        var segment = segments[index];
+        Leaf leaf;
+        if (node.statics != null) {
+            var child = node.statics.get(segment.toLowerCase());
+            if (child != null && (leaf = match(child, segments, index + 1, values, count, type)) != null) {
+                return leaf;
+            }
+        }
+
+        if (node.patterns != null) {
+            for (var child : node.patterns) {
+                var matcher = child.regex.matcher(child.lowerCase ? segment.toLowerCase() : segment);
+                if (matcher.matches()) {
+                    var groups = matcher.groupCount();
+                    for (var idx = 0; idx < groups; idx++) {
+                        values[count + idx] = matcher.group(idx + 1);
+                    }
+
+                    if ((leaf = match(child, segments, index + 1, values, count + groups, type)) != null) {
+                        return leaf;
+                    }
+                }
+            }
+        }
+
+        if (node.variable != null) {
+            values[count] = segment;
+            if ((leaf = match(node.variable, segments, index + 1, values, count + 1, type)) != null) {
+                return leaf;
+            }
+        }
+
+        if (node.wildcard != null && (leaf = match(node.wildcard, segments, index + 1, values, count, type)) != null) {
+            return leaf;
+        }
+
+        if (node.doubleWildcard != null) {
+            for (var idx = index; idx <= segments.length; idx++) {
+                if ((leaf = match(node.doubleWildcard, segments, idx, values, count, type)) != null) {
+                    return leaf;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private static String[] tokenize(String path) {
+        if (path == null || path.isEmpty()) {
+            return EMPTY_SEGMENTS;
+        }
+
+        var segments = new ArrayList<String>();
+        var length = path.length();
+        var start = 0;
+        for (var idx = 0; idx <= length; idx++) {
+            if (idx == length || path.charAt(idx) == PATH_SEPARATOR) {
+                if (idx > start) {
+                    segments.add(path.substring(start, idx));
+                }
+
+                start = idx + 1;
+            }
+        }
+
+        return segments.toArray(new String[segments.size()]);
+    }
+
+    private static boolean isVariable(String segment) {
+        return segment.length() > 1 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}';
+    }
+
+    private static boolean isPlainVariable(String segment) {
+        return isVariable(segment) && segment.indexOf(':') < 0 && segment.indexOf('{', 1) < 0;
+    }
+
+    private static boolean isStatic(String segment) {
+        return segment.indexOf('{') < 0 && segment.indexOf('*') < 0 && segment.indexOf('?') < 0;
+    }
+
+    /**
+     * 与AntPathMatcher保持一致的路径段正则转换.
+     */
+    private static Pattern toRegex(String segment, List<String> names) {
+        var regex = new StringBuilder();
+        var matcher = GLOB_PATTERN.matcher(segment);
+        var end = 0;
+        var groups = 0;
+        while (matcher.find()) {
+            if (matcher.start() > end) {
+                regex.append(Pattern.quote(segment.substring(end, matcher.start())));
+            }
+
+            var match = matcher.group();
+            if ("?".equals(match)) {
+                regex.append('.');
+            } else if (WILDCARD.equals(match)) {
+                regex.append(".*");
+            } else {
+                var idx = match.indexOf(':');
+                if (idx == -1) {
+                    regex.append(DEFAULT_VARIABLE_PATTERN);
+                    names.add(matcher.group(1));
+                } else {
+                    regex.append('(').append(match, idx + 1, match.length() - 1).append(')');
+                    names.add(match.substring(1, idx));
+                }
+
+                groups++;
+            }
+
+            end = matcher.end();
+        }
+
+        if (segment.length() > end) {
+            regex.append(Pattern.quote(segment.substring(end)));
+        }
+
+        var pattern = Pattern.compile(regex.toString());
+        if (pattern.matcher("").groupCount() != groups) {
+            throw new IllegalArgumentException("The number of capturing groups in the pattern segment " + segment
+                    + " does not match the number of URI template variables it defines, "
+                    + "use non-capturing groups instead.");
+        }
+
+        return pattern;
+    }
+
+    /**
+     * @author yanghe
+     * @since 2.0.0
+     */
+    @Getter
+    static final class Leaf {
+        private final String pattern;
+
+        private final RouteMapper mapper;
+
+        private final String[] names;
+
+        private Leaf(String pattern, RouteMapper mapper, String[] names) {
+            this.pattern = pattern;
+            this.mapper = mapper;
+            this.names = names;
+        }
+    }
+
+    /**
+     * @author yanghe
+     * @since 2.0.0
+     */
+    @Getter
+    static final class Match {
+        private final Leaf leaf;
+
+        private final String[] values;
+
+        private Match(Leaf leaf, String[] values) {
+            this.leaf = leaf;
+            this.values = values;
+        }
+    }
+
+    private static final class Node {
+        private final String segment;
+
+        private Map<String, Node> statics;
+
+        private List<Node> patternList;
+
+        private Node[] patterns;
+
+        private Node variable;
+
+        private Node wildcard;
+
+        private Node doubleWildcard;
+
+        private Map<HttpType, Leaf> leaves;
+
+        private Pattern regex;
+
+        private boolean lowerCase;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node child(String segment, List<String> names) {
+            if (DOUBLE_WILDCARD.equals(segment)) {
+                if (doubleWildcard == null) {
+                    doubleWildcard = new Node(segment);
+                }
+
+                return doubleWildcard;
+            }
+
+            if (WILDCARD.equals(segment)) {
+                if (wildcard == null) {
+                    wildcard = new Node(segment);
+                }
+
+                return wildcard;
+            }
+
+            if (isStatic(segment)) {
+                if (statics == null) {
+                    statics = new HashMap<>();
+                }
+
+                return statics.computeIfAbsent(segment.toLowerCase(), Node::new);
+            }
+
+            if (isPlainVariable(segment)) {
+                names.add(segment.substring(1, segment.length() - 1));
+                if (variable == null) {
+                    variable = new Node(segment);
+                }
+
+                return variable;
+            }
+
+            if (patternList == null) {
+                patternList = new ArrayList<>();
+            }
+
+            var groupNames = new ArrayList<String>();
+            var regex = toRegex(segment, groupNames);
+            names.addAll(groupNames);
+            for (var node : patternList) {
+                if (node.regex.pattern().equals(regex.pattern())) {
+                    return node;
+                }
+            }
+
+            var node = new Node(segment);
+            node.regex = regex;
+            node.lowerCase = !segment.startsWith("{") && !segment.endsWith("}");
+            patternList.add(node);
+            return node;
+        }
+
+        private void leaf(HttpType type, Leaf leaf) {
+            if (leaves == null) {
+                leaves = new EnumMap<>(HttpType.class);
+            }
+
+            leaves.put(type, leaf);
+        }
+
+        private Leaf leaf(HttpType type) {
+            return leaves == null ? null : leaves.get(type);
+        }
+
+        private void freeze() {
+            if (statics != null) {
+                statics.values().forEach(Node::freeze);
+                statics = Map.copyOf(statics);
+            }
+
+            if (patternList != null) {
+                patternList.forEach(Node::freeze);
+                patterns = patternList.toArray(new Node[patternList.size()]);
+                patternList = null;
+            }
+
+            if (variable != null) {
+                variable.freeze();
+            }
+
+            if (wildcard != null) {
+                wildcard.freeze();
+            }
+
+            if (doubleWildcard != null) {
+                doubleWildcard.freeze();
+            }
+        }
+    }
+}
@@ -15,33 +15,19 @@
  */
 package org.nanoframework.core.rest;
 
-import java.io.IOException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import org.nanoframework.beans.BaseEntity;
-import org.nanoframework.beans.format.ClassCast;
-import org.nanoframework.core.rest.annotation.Body;
-import org.nanoframework.core.rest.annotation.Param;
-import org.nanoframework.core.rest.annotation.PathVariable;
+import org.nanoframework.core.rest.cache.ResponseCache;
 import org.nanoframework.core.rest.enums.HttpType;
-import org.nanoframework.core.rest.enums.ValueConstants;
-import org.nanoframework.core.rest.exception.BindParamException;
-import org.nanoframework.core.web.http.ReadStream;
-import org.nanoframework.modules.logging.Logger;
-import org.nanoframework.modules.logging.LoggerFactory;
+import org.nanoframework.core.rest.metrics.RouteMetrics;
 import org.nanoframework.toolkit.lang.ArrayUtils;
-import org.nanoframework.toolkit.lang.CollectionUtils;
-import org.nanoframework.toolkit.lang.ObjectUtils;
-import org.nanoframework.toolkit.lang.StringUtils;
 
 import com.google.common.collect.Lists;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -53,14 +39,11 @@ import lombok.Setter;
  */
 @Getter
 @Setter
-@Builder
 public class RouteMapper extends BaseEntity {
     protected static final HttpType[] DEFAULT_TYPES = new HttpType[] {HttpType.GET, HttpType.POST };
 
     private static final long serialVersionUID = 6571078157462085564L;
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(RouteMapper.class);
-
     private Object instance;
 
     private Class<?> cls;
@@ -69,13 +52,24 @@ public class RouteMapper extends BaseEntity {
 
     private HttpType[] types;
 
-    private Map<String, String> param;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final transient RouteBinder binder;
+
+    @Setter(AccessLevel.NONE)
+    private final transient RouteMetrics metrics;
 
-    private RouteMapper(Object instance, Class<?> cls, Method method, HttpType[] types, Map<String, String> param) {
+    @Setter(AccessLevel.NONE)
+    private final transient ResponseCache cache;
+
+    @Builder
+    private RouteMapper(Object instance, Class<?> cls, Method method, HttpType[] types) {
         this.instance = instance;
         this.cls = cls;
         this.method = method;
-        this.param = param;
+        this.binder = method == null ? null : RouteBinder.compile(method);
+        this.metrics = new RouteMetrics(method);
+        this.cache = ResponseCache.of(method);
 
         // lombok的builder模式不支持默认值，只能使用这种形式对默认值的属性进行判断
         if (ArrayUtils.isEmpty(types)) {
@@ -108,99 +102,22 @@ public class RouteMapper extends BaseEntity {
         return true;
     }
 
-    public Object[] bind(Method method, Map<String, Object> params, Object... objs) {
-        var lowerCaseParams = new HashMap<String, Object>();
-        if (CollectionUtils.isNotEmpty(params)) {
-            params.forEach((key, value) -> lowerCaseParams.put(key.toLowerCase(), value));
-        }
-
-        var parameters = method.getParameters();
-        if (ArrayUtils.isNotEmpty(parameters)) {
-            var values = new ArrayList<Object>();
-            var bodyCount = new AtomicInteger();
-            for (var parameter : parameters) {
-                var type = parameter.getType();
-                var param = parameter.getAnnotation(Param.class);
-                var pathVariable = parameter.getAnnotation(PathVariable.class);
-                var body = parameter.getAnnotation(Body.class);
-                if (ObjectUtils.isNotNull(param, pathVariable, body) > 1) {
-                    throw new BindParamException("参数绑定不能同时多种类型");
-                }
-
-                if (param != null) {
-                    bindWithParam(param, lowerCaseParams, values, type);
-                } else if (pathVariable != null) {
-                    bindWithPathVariable(pathVariable, lowerCaseParams, values, type);
-                } else if (body != null) {
-                    if (bodyCount.incrementAndGet() > 1) {
-                        throw new BindParamException("不能同时绑定多个@Body");
-                    }
-
-                    bindWithBody(values, type);
-                } else if (objs != null && objs.length > 0) {
-                    bindWithOther(values, type, objs);
-                }
-
-            }
-
-            return values.toArray(new Object[values.size()]);
-        }
-
-        return null;
-
-    }
-
-    private void bindWithParam(Param param, Map<String, Object> lowerCaseParams, List<Object> values, Class<?> type) {
-        var value = param.value();
-        var paramValue = lowerCaseParams.get(value.toLowerCase());
-        if (paramValue == null && StringUtils.notEquals(param.defaultValue(), ValueConstants.DEFAULT_NONE)) {
-            paramValue = param.defaultValue();
-        }
-
-        if (param.required()
-                && (paramValue == null || (paramValue instanceof String && StringUtils.isEmpty((String) paramValue)))) {
-            throw new BindParamException("参数:[" + value + "]为必填项，但是获取的参数值为空.");
-        }
-
-        try {
-            values.add(ClassCast.cast(paramValue, type.getName()));
-        } catch (org.nanoframework.beans.format.exception.ClassCastException e) {
-            LOGGER.error(e.getMessage(), e);
-            throw new BindParamException(String.format("类型转换异常: 数据类型 [ %s ], 值 [ %s ]", type.getName(), paramValue));
-        }
-    }
-
-    private void bindWithPathVariable(PathVariable pathVariable, Map<String, Object> lowerCaseParams,
-            List<Object> values, Class<?> type) {
-        var paramValue = lowerCaseParams.get(pathVariable.value().toLowerCase());
-        if (paramValue != null) {
-            try {
-                values.add(ClassCast.cast(paramValue, type.getName()));
-            } catch (org.nanoframework.beans.format.exception.ClassCastException e) {
-                LOGGER.error(e.getMessage(), e);
-                throw new BindParamException(
-                        String.format("类型转换异常: 数据类型 [ %s ], 值 [ %s ]", type.getName(), paramValue));
-            }
-        } else {
-            throw new BindParamException("Restful风格参数:[" + pathVariable.value().toLowerCase() + "]为必填项，但是获取的参数值为空.");
-        }
-    }
-
-    private void bindWithBody(List<Object> values, Class<?> type) {
-        try {
-            values.add(ClassCast.cast(ReadStream.read(), type.getName()));
-        } catch (IOException e) {
-            LOGGER.error(e.getMessage(), e);
-            throw new BindParamException("读取参数流异常");
-        }
+    /**
+     * @param params 请求参数
+     * @param match 路由匹配结果
+     * @param objs 其它可绑定的对象
+     * @return 方法参数列表
+     */
+    public Object[] bind(Map<String, Object> params, RouteMatch match, Object... objs) {
+        return binder.bind(params, match, objs);
     }
 
-    private void bindWithOther(List<Object> values, Class<?> type, Object... objs) {
-        for (var obj : objs) {
-            if (type.isInstance(obj)) {
-                values.add(obj);
-                break;
-            }
-        }
+    /**
+     * @param args 方法参数列表
+     * @return 方法返回值，方法无返回值时返回{@code Void.TYPE}
+     * @throws Throwable 方法调用异常
+     */
+    public Object invoke(Object... args) throws Throwable {
+        return binder.invoke(instance, args);
     }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * 单次请求的路由匹配结果，包含路由配置及按位置存储的路径变量. <br>
+ * 对象创建后不可修改，不同请求之间不共享.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class RouteMatch {
+    private static final String[] EMPTY = new String[0];
+
+    @Getter
+    private final RouteMapper mapper;
+
+    /** 路由地址. */
+    @Getter
+    private final String pattern;
+
+    private final String[] names;
+
+    private final String[] values;
+
+    RouteMatch(RouteMapper mapper, String pattern, String[] names, String[] values) {
+        this.mapper = mapper;
+        this.pattern = pattern;
+        this.names = names;
+        this.values = values;
+    }
+
+    /**
+     * @param mapper 路由配置
+     * @return 不包含路径变量的匹配结果
+     */
+    public static RouteMatch of(@NonNull RouteMapper mapper) {
+        return new RouteMatch(mapper, null, EMPTY, EMPTY);
+    }
+
+    /**
+     * @return 路径变量数量
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param index 路径变量位置
+     * @return 路径变量名称
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * @param index 路径变量位置
+     * @return 路径变量值
+     */
+    public String getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * @param name 路径变量名称，忽略大小写
+     * @return 路径变量值，不存在时返回null
+     */
+    public String getVariable(String name) {
+        for (var idx = 0; idx < names.length; idx++) {
+            if (names[idx].equalsIgnoreCase(name)) {
+                return values[idx];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return 路径变量列表
+     */
+    public Map<String, String> getVariables() {
+        if (names.length == 0) {
+            return Collections.emptyMap();
+        }
+
+        var variables = new LinkedHashMap<String, String>(names.length << 1);
+        for (var idx = 0; idx < names.length; idx++) {
+            variables.put(names[idx], values[idx]);
+        }
+
+        return Collections.unmodifiableMap(variables);
+    }
+}
@@ -18,20 +18,20 @@ package org.nanoframework.core.rest;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 import org.nanoframework.beans.BaseEntity;
 import org.nanoframework.core.rest.annotation.Route;
 import org.nanoframework.core.rest.enums.HttpType;
 import org.nanoframework.core.rest.exception.RouteException;
-import org.nanoframework.core.rest.path.AntPathMatcher;
-import org.nanoframework.core.rest.path.PathMatcher;
+import org.nanoframework.core.rest.exception.RouteTimeoutException;
 import org.nanoframework.core.rest.path.UrlPathHelper;
 import org.nanoframework.modules.logging.Logger;
 import org.nanoframework.modules.logging.LoggerFactory;
@@ -55,7 +55,9 @@ public final class Routes {
 
     private final Map<String, Map<HttpType, RouteMapper>> mappers = Maps.newLinkedHashMap();
 
-    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Set<HttpType>> shapes = Maps.newHashMap();
+
+    private volatile RouteIndex index;
 
     private final UrlPathHelper urlPathHelper = new UrlPathHelper();
 
@@ -70,30 +72,18 @@ public final class Routes {
         return INSTANCE;
     }
 
-    public Object invoke(final RouteMapper mapper) {
-        return invoke(mapper, Maps.newHashMap());
+    public Object invoke(final RouteMatch match) {
+        return invoke(match, Collections.emptyMap());
     }
 
-    public Object invoke(RouteMapper mapper, Map<String, Object> parameter, Object... objs) {
-        if (mapper == null) {
+    public Object invoke(RouteMatch match, Map<String, Object> parameter, Object... objs) {
+        if (match == null) {
             throw new RouteException("未找到路由资源");
         }
 
         try {
-            var param = mapper.getParam();
-            if (CollectionUtils.isNotEmpty(param)) {
-                parameter.putAll(param);
-            }
-
-            var instance = mapper.getInstance();
-            var method = mapper.getMethod();
-            var bind = mapper.bind(method, parameter, objs);
-            var value = method.invoke(instance, bind);
-            if (method.getReturnType() == void.class) {
-                return Void.TYPE;
-            }
-
-            return value;
+            var mapper = match.getMapper();
+            return mapper.invoke(mapper.bind(parameter, match, objs));
         } catch (Throwable e) {
             if (e instanceof RouteException) {
                 throw (RouteException) e;
@@ -106,7 +96,7 @@ public final class Routes {
     private RouteException invokeThrow(Throwable e) {
         Throwable tmp = e;
         Throwable cause;
-        while ((cause = tmp.getCause()) != null) {
+        while (!(tmp instanceof TimeoutException) && (cause = tmp.getCause()) != null) {
             if (cause instanceof RouteException) {
                 return (RouteException) cause;
             } else {
@@ -114,115 +104,110 @@ public final class Routes {
             }
         }
 
+        // 与返回CompletionStage的路由一致，超时按504处理
+        if (tmp instanceof TimeoutException) {
+            return new RouteTimeoutException(tmp.getMessage(), tmp);
+        }
+
         return new RouteException(tmp.getMessage(), tmp);
     }
 
     /**
      * @param url 路由地址
      * @param type 请求类型
-     * @return 路由配置
+     * @return 路由匹配结果
      */
-    public RouteMapper lookup(String url, HttpType type) {
-        var mappers = this.mappers.get(url);
-        if (CollectionUtils.isNotEmpty(mappers)) {
-            var mapper = mappers.get(type);
-            if (mapper != null) {
-                return mapper;
-            }
+    public RouteMatch lookup(String url, HttpType type) {
+        var match = index().lookup(url, type);
+        if (match == null) {
+            return null;
         }
 
-        var matchingPatterns = this.mappers.keySet().stream()
-                .filter(registeredPattern -> pathMatcher.match(registeredPattern, url)
-                        || pathMatcher.match(url, registeredPattern))
-                .collect(Collectors.toList());
-
-        var patternComparator = pathMatcher.getPatternComparator(url);
-        String bestPatternMatch = null;
-        if (!matchingPatterns.isEmpty()) {
-            Collections.sort(matchingPatterns, patternComparator);
-            LOGGER.debug("Matching patterns for request [{}] are {}", url, matchingPatterns);
-            bestPatternMatch = matchingPatterns.get(0);
+        var leaf = match.getLeaf();
+        var names = leaf.getNames();
+        var values = match.getValues();
+        for (var idx = 0; idx < names.length; idx++) {
+            values[idx] = urlPathHelper.decodePathVariable(values[idx]);
         }
 
-        return lookup(url, type, bestPatternMatch, matchingPatterns, patternComparator);
+        LOGGER.debug("Matching pattern for request [{}] is {}", url, leaf.getPattern());
+        return new RouteMatch(leaf.getMapper(), leaf.getPattern(), names, values);
     }
 
-    private RouteMapper lookup(String url, HttpType type, String bestPatternMatch, List<String> matchingPatterns,
-            Comparator<String> patternComparator) {
-        if (bestPatternMatch != null) {
-            var mappers = this.mappers.get(bestPatternMatch);
-            if (mappers == null) {
-                if (!bestPatternMatch.endsWith("/")) {
-                    return null;
-                }
-
-                mappers = this.mappers.get(bestPatternMatch.substring(0, bestPatternMatch.length() - 1));
-                if (mappers == null) {
-                    return null;
-                }
-            }
-
-            var mapper = mappers.get(type);
-            if (mapper == null) {
-                return null;
-            }
-
-            var uriTemplateVariables = new LinkedHashMap<String, String>();
-            for (var matchingPattern : matchingPatterns) {
-                if (patternComparator.compare(bestPatternMatch, matchingPattern) == 0) {
-                    var vars = pathMatcher.extractUriTemplateVariables(matchingPattern, url);
-                    var decodedVars = urlPathHelper.decodePathVariables(vars);
-                    uriTemplateVariables.putAll(decodedVars);
+    private RouteIndex index() {
+        var index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) {
+                    this.index = index = RouteIndex.compile(mappers);
                 }
             }
-
-            mapper.setParam(uriTemplateVariables);
-            return mapper;
         }
 
-        return null;
+        return index;
     }
 
     /**
      * @param url 路由地址
      * @param mappers 路由配置
      */
-    public void register(String url, Map<HttpType, RouteMapper> mappers) {
+    public synchronized void register(String url, Map<HttpType, RouteMapper> mappers) {
         if (CollectionUtils.isEmpty(mappers)) {
             return;
         }
 
+        var shape = RouteIndex.shape(url);
+        var types = shapes.computeIfAbsent(shape, key -> EnumSet.noneOf(HttpType.class));
         mappers.keySet().forEach(type -> {
-            try {
-                var mapped = lookup(url, type);
-                if (mapped != null) {
-                    throw new RouteException("Duplicate Restful-style URL definition: " + url);
-                }
-            } catch (IllegalStateException e) {
-                throw new RouteException("Duplicate Restful-style URL definition: " + url);
+            if (types.contains(type)) {
+                throw new RouteException(
+                        "Duplicate Restful-style URL definition: " + url + " of type [ " + type + " ]");
             }
         });
 
+        types.addAll(mappers.keySet());
+        mappers.values().forEach(mapper -> {
+            mapper.getMetrics().register(url);
+            if (mapper.getCache() != null) {
+                mapper.getCache().register(url);
+            }
+        });
         var mappedMapper = this.mappers.get(url);
         if (mappedMapper != null) {
-            mappers.forEach((type, mapper) -> {
-                if (mappedMapper.containsKey(type)) {
-                    throw new RouteException(
-                            "Duplicate Restful-style URL definition: " + url + " of type [ " + type + " ]");
-                } else {
-                    mappedMapper.put(type, mapper);
-                }
-            });
+            mappedMapper.putAll(mappers);
         } else {
             this.mappers.put(url, mappers);
         }
+
+        this.index = null;
     }
 
     /**
      * 清理路由配置.
      */
-    public void clear() {
+    public synchronized void clear() {
+        forEachMapper(mapper -> {
+            mapper.getMetrics().unregister();
+            if (mapper.getCache() != null) {
+                mapper.getCache().unregister();
+            }
+        });
         this.mappers.clear();
+        this.shapes.clear();
+        this.index = null;
+    }
+
+    /**
+     * @param action 对每个已注册的路由配置执行的操作，同一路由配置只执行一次
+     */
+    public synchronized void forEachMapper(Consumer<RouteMapper> action) {
+        var visited = Collections.newSetFromMap(new IdentityHashMap<RouteMapper, Boolean>());
+        mappers.values().forEach(typeMappers -> typeMappers.values().forEach(mapper -> {
+            if (visited.add(mapper)) {
+                action.accept(mapper);
+            }
+        }));
     }
 
     /**
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 路由响应缓存，仅对GET请求生效. <br>
+ * 缓存键由路由、路径变量及指定的请求参数组成，缓存内容为编码后的响应字节，命中时不再调用路由方法及序列化. <br>
+ * 响应携带ETag，请求的If-None-Match与之匹配时返回304.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@Target({ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Cacheable {
+    /** 使用全部请求参数. */
+    String ALL_PARAMS = "*";
+
+    /**
+     * @return 缓存有效时间，单位毫秒
+     */
+    long ttl() default 1000;
+
+    /**
+     * @return 参与缓存键的请求参数名称，默认使用全部请求参数，为空时只使用路由及路径变量
+     */
+    String[] params() default {ALL_PARAMS };
+
+    /**
+     * @return 缓存内容的最大字节数，超过时淘汰最近较少访问的内容
+     */
+    long maxBytes() default 16 * 1024 * 1024;
+}
@@ -22,6 +22,7 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 import org.nanoframework.core.rest.enums.HttpType;
+import org.nanoframework.core.rest.enums.Priority;
 
 /**
  * 组件服务地址映射注解.
@@ -33,6 +34,12 @@ import org.nanoframework.core.rest.enums.HttpType;
 @Documented
 public @interface Route {
 
+    /**
+     * {@link #executor()}使用请求线程执行路由.
+     * @since 2.0.0
+     */
+    String CALLER = "caller";
+
     /**
      * @return 路由地址
      */
@@ -54,11 +61,25 @@ public @interface Route {
     Mock mock() default @Mock;
 
     /**
-     * @return 线程池隔离，默认使用default线程池(CachedThreadPool) <br>
-     *         可以通过{@code org.nanoframework.core.concurrent.Executor}扩展点进行扩展
+     * @return 线程池隔离，默认使用default线程池(CachedThreadPool)，超时后立即返回Mock结果或超时异常 <br>
+     *         可以通过{@code org.nanoframework.core.concurrent.Executor}扩展点进行扩展 <br>
+     *         设置为{@link #CALLER}时在请求线程中执行，由时间轮在超时时中断请求线程，不额外占用线程，
+     *         但只适用于可响应中断的路由，阻塞在不可中断操作上的路由会在完成后才返回
      */
     String executor() default "default";
 
+    /**
+     * @return 路由优先级，开启context.route.lanes.enabled时不同优先级的请求使用独立的执行通道，
+     *         并在排队时间超过通道限制时提前拒绝
+     */
+    Priority priority() default Priority.NORMAL;
+
+    /**
+     * @return 合并并发的相同调用，相同路由及相同参数的并发调用只执行一次，其余调用等待并共享其结果或异常，
+     *         等待时间不超过timeout. 仅适用于幂等的路由
+     */
+    boolean coalesce() default false;
+
     /**
      * @return 移除指定的Filter
      */
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.batch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.nanoframework.core.concurrent.BulkheadExecutor;
+import org.nanoframework.core.concurrent.Executor;
+import org.nanoframework.core.concurrent.ExecutorModule;
+import org.nanoframework.core.rest.Routes;
+import org.nanoframework.core.rest.annotation.Body;
+import org.nanoframework.core.rest.annotation.Route;
+import org.nanoframework.core.rest.enums.HttpType;
+import org.nanoframework.core.rest.exception.LimitExceededException;
+import org.nanoframework.core.rest.exception.RouteException;
+import org.nanoframework.core.rest.exception.RouteTimeoutException;
+import org.nanoframework.core.rest.path.AntPathMatcher;
+import org.nanoframework.core.rest.path.PathMatcher;
+import org.nanoframework.core.web.filter.RouteFilter.HttpContext;
+import org.nanoframework.core.web.http.HttpStatus;
+import org.nanoframework.core.web.http.RequestContext;
+import org.nanoframework.core.web.http.StreamResponse;
+import org.nanoframework.core.web.http.URLContext;
+import org.nanoframework.core.web.mvc.View;
+import org.nanoframework.core.web.mvc.support.RedirectModel;
+import org.nanoframework.modules.logging.Logger;
+import org.nanoframework.modules.logging.LoggerFactory;
+import org.nanoframework.toolkit.lang.StringUtils;
+
+/**
+ * 批量路由调用，一次请求执行多个子请求并按顺序返回每个子请求的结果. <br>
+ * 设置context.route.batch.path后由RestfulPlugin注册到对应的路由地址(POST)，默认不注册. <br>
+ * 子请求在有界线程池中并行执行，所有子请求共用一个截止时间，结果格式为: [{"status": 200, "body": ...}, ...] <br>
+ * 子请求参数只通过params和地址中的查询参数传递，不支持绑定@Body. <br>
+ * 子请求不共享批量请求的HttpServletRequest和HttpServletResponse，绑定这两种类型的参数为null，
+ * HttpContext中只包含子请求自身的URLContext、Model及批量请求的请求标识. <br>
+ * 子请求直接调用路由，只经过路由的{@link org.nanoframework.core.rest.invoker.Filter}过滤链，
+ * <b>不经过web.xml中映射到子请求地址的Servlet Filter(如鉴权、签名校验)</b>，只受映射到批量调用地址的Servlet Filter保护.
+ * 因此只有context.route.batch.allow中列出的地址可以通过批量调用访问，未设置时拒绝所有子请求(403)，
+ * 列出的地址应只包含不依赖Servlet Filter保护的路由.
+ *
+ * <pre>
+ * context.route.batch.path=/batch
+ * # 允许批量调用的子请求地址，多个地址以逗号分隔，支持Ant风格通配符
+ * context.route.batch.allow=/public/**,/user/{id}/profile
+ * # 线程池名称，未定义同名的Executor扩展时按context.executor.{name}.*创建有界线程池
+ * context.route.batch.executor=batch
+ * context.route.batch.max.size=50
+ * context.route.batch.timeout=5000
+ * </pre>
+ *
+ * @author yanghe
+ * @since 2.0.0
+ */
+public class BatchComponent {
+    /** 批量调用的访问地址. */
+    public static final String PATH = "context.route.batch.path";
+
+    /** 允许批量调用的子请求地址，多个地址以逗号分隔，支持Ant风格通配符. */
+    public static final String ALLOW = "context.route.batch.allow";
+
+    /** 执行子请求的线程池名称. */
+    public static final String EXECUTOR = "context.route.batch.executor";
+
+    /** 单次批量调用的最大子请求数. */
+    public static final String MAX_SIZE = "context.route.batch.max.size";
+
+    /** 子请求超时时间，单位毫秒. */
+    public static final String TIMEOUT = "context.route.batch.timeout";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchComponent.class);
+
+    private static final String DEFAULT_EXECUTOR = "batch";
+
+    private static final String DEFAULT_MAX_SIZE = "50";
+
+    private static final String DEFAULT_TIMEOUT = "5000";
+
+    private static final String STATUS = "status";
+
+    private static final String BODY = "body";
+
+    private final Executor executor;
+
+    private final BulkheadExecutor owned;
+
+    private final int maxSize;
+
+    private final long timeout;
+
+    private final List<String> allows;
+
+    private final PathMatcher matcher = new AntPathMatcher();
+
+    public BatchComponent() {
+        var name = property(EXECUTOR, DEFAULT_EXECUTOR);
+        var executor = ExecutorModule.lookup(name);
+        if (executor == null) {
+            owned = BulkheadExecutor.of(name);
+            owned.register();
+            executor = owned;
+        } else {
+            owned = null;
+        }
+
+        this.executor = executor;
+        this.maxSize = Integer.parseInt(property(MAX_SIZE, DEFAULT_MAX_SIZE));
+        this.timeout = Long.parseLong(property(TIMEOUT, DEFAULT_TIMEOUT));
+        this.allows = Arrays.stream(property(ALLOW, "").split(",")).map(String::trim)
+                .filter(StringUtils::isNotBlank).collect(Collectors.toUnmodifiableList());
+        if (allows.isEmpty()) {
+            LOGGER.warn("未设置{}，批量调用将拒绝所有子请求", ALLOW);
+        }
+    }
+
+    private static String property(String key, String defaultValue) {
+        return System.getProperty(key, defaultValue).trim();
+    }
+
+    /**
+     * @param requests 子请求列表
+     * @return 与子请求顺序一致的结果列表
+     */
+    @Route(value = "", type = HttpType.POST, timeout = 0)
+    public List<Map<String, Object>> batch(@Body List<BatchRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return List.of();
+        }
+
+        if (requests.size() > maxSize) {
+            throw new RouteException(String.format("批量请求数量不能超过%d", maxSize));
+        }
+
+        var parent = HttpContext.current();
+        var correlationId = parent == null ? null : parent.getCorrelationId();
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        var futures = new ArrayList<Future<Map<String, Object>>>(requests.size());
+        for (var request : requests) {
+            try {
+                futures.add(executor.submit(() -> execute(request, correlationId, deadline)));
+            } catch (RejectedExecutionException e) {
+                futures.add(null);
+            }
+        }
+
+        var results = new ArrayList<Map<String, Object>>(futures.size());
+        for (var future : futures) {
+            results.add(await(future, deadline));
+        }
+
+        return results;
+    }
+
+    private Map<String, Object> await(Future<Map<String, Object>> future, long deadline) {
+        if (future == null) {
+            return result(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE.to("服务繁忙，请稍后重试"));
+        }
+
+        try {
+            if (timeout > 0) {
+                return future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            }
+
+            return future.get();
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return result(HttpStatus.GATEWAY_TIMEOUT, HttpStatus.GATEWAY_TIMEOUT.to("服务调用超时"));
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RouteException("批量请求被中断", e);
+        } catch (ExecutionException e) {
+            return error(e.getCause());
+        }
+    }
+
+    private Map<String, Object> execute(BatchRequest request, String correlationId, long deadline) {
+        if (request == null || StringUtils.isBlank(request.getPath())) {
+            return result(HttpStatus.BAD_REQUEST, HttpStatus.BAD_REQUEST.to("子请求地址不能为空"));
+        }
+
+        HttpType type;
+        try {
+            type = StringUtils.isBlank(request.getMethod()) ? HttpType.GET
+                    : HttpType.valueOf(request.getMethod().trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return result(HttpStatus.BAD_REQUEST, HttpStatus.BAD_REQUEST.to("不支持此请求类型: " + request.getMethod()));
+        }
+
+        var context = URLContext.of(request.getPath().trim());
+        var parameter = new HashMap<String, Object>(context.getParameter());
+        if (request.getParams() != null) {
+            request.getParams().forEach((name, value) -> parameter.put(name.toLowerCase(), value));
+        }
+
+        context.setParameter(parameter);
+        var path = context.getNoRootContext();
+        if (!allowed(path)) {
+            return result(HttpStatus.FORBIDDEN, HttpStatus.FORBIDDEN.to("不允许批量调用此地址: " + request.getPath()));
+        }
+
+        var match = Routes.route().lookup(path, type);
+        if (match == null) {
+            return result(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.to("未找到路由资源: " + request.getPath()));
+        }
+
+        var mapper = match.getMapper();
+        if (mapper.getInstance() instanceof BatchComponent) {
+            return result(HttpStatus.BAD_REQUEST, HttpStatus.BAD_REQUEST.to("不支持嵌套批量请求"));
+        }
+
+        var recorder = mapper.getMetrics().recorder(type);
+        var start = recorder.start();
+        var error = false;
+        try {
+            var model = new RedirectModel();
+            var sub = RequestContext.builder().model(model).urlContext(context).deadline(timeout > 0 ? deadline : 0)
+                    .correlationId(correlationId).build();
+            var value = HttpContext.wrap(sub, () -> Routes.route().invoke(match, parameter, model, context)).call();
+            if (value instanceof CompletionStage) {
+                value = ((CompletionStage<?>) value).toCompletableFuture().get();
+            }
+
+            if (value instanceof View) {
+                return result(HttpStatus.BAD_REQUEST, HttpStatus.BAD_REQUEST.to("批量请求不支持页面跳转"));
+            }
+
+            if (StreamResponse.isStream(value)) {
+                StreamResponse.close(value);
+                return result(HttpStatus.BAD_REQUEST, HttpStatus.BAD_REQUEST.to("批量请求不支持流式响应"));
+            }
+
+            return result(HttpStatus.OK, value == Void.TYPE ? null : value);
+        } catch (Throwable e) {
+            error = true;
+            return error(e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e);
+        } finally {
+            recorder.stop(start, error);
+        }
+    }
+
+    private boolean allowed(String path) {
+        for (var allow : allows) {
+            if (matcher.match(allow, path)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Map<String, Object> error(Throwable e) {
+        LOGGER.error(e.getMessage(), e);
+        if (e instanceof LimitExceededException) {
+            return result(HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE.to(e.getMessage()));
+        } else if (e instanceof RouteTimeoutException) {
+            return result(HttpStatus.GATEWAY_TIMEOUT, HttpStatus.GATEWAY_TIMEOUT.to(e.getMessage()));
+        } else if (e instanceof RouteException) {
+            return result(HttpStatus.BAD_REQUEST, HttpStatus.BAD_REQUEST.to(e.getMessage()));
+        }
+
+        return result(HttpStatus.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR.to(e.getMessage()));
+    }
+
+    private static Map<String, Object> result(HttpStatus status, Object body) {
+        var result = new LinkedHashMap<String, Object>(4);
+        result.put(STATUS, status.code);
+        result.put(BODY, body);
+        return result;
+    }
+
+    /**
+     * 关闭批量调用创建的线程池.
+     */
+    public void destroy() {
+        if (owned != null) {
+            owned.shutdown();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.batch;
+
+import java.util.Map;
+
+import org.nanoframework.beans.BaseEntity;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 批量请求中的单个子请求.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@Getter
+@Setter
+public class BatchRequest extends BaseEntity {
+    private static final long serialVersionUID = 3926415707428437128L;
+
+    /** 请求类型，默认GET. */
+    private String method;
+
+    /** 路由地址，可以携带查询参数. */
+    private String path;
+
+    /** 请求参数. */
+    private Map<String, Object> params;
+}
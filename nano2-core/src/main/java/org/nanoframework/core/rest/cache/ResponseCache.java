@@ -0,0 +1,317 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.cache;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.nanoframework.core.rest.RouteMatch;
+import org.nanoframework.core.rest.annotation.Cacheable;
+import org.nanoframework.core.web.http.HttpStatusCode;
+import org.nanoframework.core.web.http.ResponseWriter;
+import org.nanoframework.core.web.http.StreamResponse;
+import org.nanoframework.core.web.mvc.View;
+import org.nanoframework.modules.logging.Logger;
+import org.nanoframework.modules.logging.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+import lombok.Getter;
+
+/**
+ * 单个路由的响应缓存，由{@link Cacheable}开启. <br>
+ * 按编码后的字节数限制缓存大小，超过时淘汰最近较少访问的内容，缓存内容在写入后超过有效时间失效. <br>
+ * 路由注册后发布为JMX MXBean: org.nanoframework:type=ResponseCache,name={路由地址},method={类名.方法名}.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class ResponseCache implements ResponseCacheMXBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseCache.class);
+
+    private static final String CALLBACK = "callback";
+
+    private static final String ETAG = "ETag";
+
+    private static final String IF_NONE_MATCH = "If-None-Match";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private static final char SEPARATOR = '\0';
+
+    /** 缓存条目除响应内容外的估算开销. */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final Cache<String, Entry> cache;
+
+    private final String[] params;
+
+    private final boolean allParams;
+
+    private final String method;
+
+    private final LongAdder notModified = new LongAdder();
+
+    private volatile String pattern;
+
+    private volatile ObjectName objectName;
+
+    private ResponseCache(Cacheable cacheable, Method method) {
+        this.cache = CacheBuilder.newBuilder().expireAfterWrite(cacheable.ttl(), TimeUnit.MILLISECONDS)
+                .maximumWeight(cacheable.maxBytes())
+                .<String, Entry> weigher((key, entry) -> key.length() * 2 + entry.bytes.length + ENTRY_OVERHEAD)
+                .recordStats().build();
+        this.allParams = Arrays.asList(cacheable.params()).contains(Cacheable.ALL_PARAMS);
+        this.params = Arrays.stream(cacheable.params()).map(String::toLowerCase).sorted().toArray(String[]::new);
+        this.method = method.getDeclaringClass().getSimpleName() + '.' + method.getName();
+    }
+
+    /**
+     * @param method 路由方法
+     * @return 路由方法未设置{@link Cacheable}时返回null
+     */
+    public static ResponseCache of(Method method) {
+        if (method == null) {
+            return null;
+        }
+
+        var cacheable = method.getAnnotation(Cacheable.class);
+        if (cacheable == null || cacheable.ttl() <= 0 || cacheable.maxBytes() <= 0) {
+            return null;
+        }
+
+        return new ResponseCache(cacheable, method);
+    }
+
+    /**
+     * @param value 路由方法返回值
+     * @return 返回值是否可以缓存
+     */
+    public static boolean isCacheable(Object value) {
+        return value != null && value != Void.TYPE && !(value instanceof View) && !StreamResponse.isStream(value);
+    }
+
+    /**
+     * @param match 路由匹配结果
+     * @param parameter 请求参数
+     * @return 缓存键，JSONP请求不使用缓存，返回null
+     */
+    public String key(RouteMatch match, Map<String, Object> parameter) {
+        if (parameter != null && parameter.get(CALLBACK) != null) {
+            return null;
+        }
+
+        var key = new StringBuilder();
+        for (var idx = 0; idx < match.size(); idx++) {
+            key.append(match.getValue(idx)).append(SEPARATOR);
+        }
+
+        if (parameter == null || parameter.isEmpty()) {
+            return key.toString();
+        }
+
+        if (allParams) {
+            var sorted = new TreeMap<String, Object>();
+            parameter.forEach((name, value) -> sorted.put(name.toLowerCase(), value));
+            sorted.forEach((name, value) -> append(key, name, value));
+        } else {
+            for (var name : params) {
+                append(key, name, parameter.get(name));
+            }
+        }
+
+        return key.toString();
+    }
+
+    private static void append(StringBuilder key, String name, Object value) {
+        key.append(name).append('=');
+        if (value instanceof Object[]) {
+            key.append(Arrays.toString((Object[]) value));
+        } else if (value != null) {
+            key.append(value);
+        }
+
+        key.append(SEPARATOR);
+    }
+
+    /**
+     * @param key 缓存键
+     * @return 缓存内容，未命中时返回null
+     */
+    public Entry get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * @param key 缓存键
+     * @param value 路由方法返回值
+     * @return 缓存内容
+     * @throws IOException 编码异常
+     */
+    public Entry put(String key, Object value) throws IOException {
+        var entry = new Entry(ResponseWriter.encode(value));
+        cache.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * 输出缓存内容，请求的If-None-Match与缓存内容的ETag匹配时返回304.
+     * @param request HttpServletRequest
+     * @param response HttpServletResponse
+     * @param entry 缓存内容
+     * @throws IOException if I/O error occur
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, Entry entry) throws IOException {
+        response.setHeader(ETAG, entry.etag);
+        if (matches(request.getHeader(IF_NONE_MATCH), entry.etag)) {
+            notModified.increment();
+            response.setStatus(HttpStatusCode.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ResponseWriter.write(response, entry.bytes);
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+
+        for (var tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+
+            if ("*".equals(tag) || etag.equals(tag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 注册JMX MXBean.
+     * @param pattern 路由地址
+     */
+    public synchronized void register(String pattern) {
+        this.pattern = pattern;
+        if (objectName != null) {
+            return;
+        }
+
+        try {
+            var name = new ObjectName("org.nanoframework:type=ResponseCache,name=" + ObjectName.quote(pattern)
+                    + ",method=" + ObjectName.quote(method));
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+                objectName = name;
+            }
+        } catch (Throwable e) {
+            LOGGER.warn("注册响应缓存MXBean失败: {}, {}", pattern, e.getMessage());
+        }
+    }
+
+    /**
+     * 注销JMX MXBean.
+     */
+    public synchronized void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Throwable e) {
+                LOGGER.warn("注销响应缓存MXBean失败: {}, {}", pattern, e.getMessage());
+            }
+
+            objectName = null;
+        }
+    }
+
+    @Override
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getSize() {
+        return cache.size();
+    }
+
+    @Override
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    @Override
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    public long getNotModifiedCount() {
+        return notModified.sum();
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 缓存内容.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    @Getter
+    public static final class Entry {
+        private final byte[] bytes;
+
+        private final String etag;
+
+        private Entry(byte[] bytes) {
+            this.bytes = bytes;
+            this.etag = '"' + Hashing.murmur3_128().hashBytes(bytes).toString() + '"';
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.cache;
+
+/**
+ * 路由响应缓存统计.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public interface ResponseCacheMXBean {
+
+    /**
+     * @return 路由地址
+     */
+    String getPattern();
+
+    /**
+     * @return 路由方法
+     */
+    String getMethod();
+
+    /**
+     * @return 缓存条目数
+     */
+    long getSize();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRate();
+
+    long getEvictionCount();
+
+    /**
+     * @return 返回304的请求数
+     */
+    long getNotModifiedCount();
+
+    /**
+     * 清空缓存.
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.enums;
+
+/**
+ * 路由优先级，不同优先级的请求使用独立的执行通道.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public enum Priority {
+    /** 健康检查等关键路由，默认不因排队时间而拒绝. */
+    CRITICAL,
+    /** 面向用户的核心业务路由，排队时间限制较宽松. */
+    HIGH,
+    /** 未指定优先级时的默认通道. */
+    NORMAL,
+    /** 批量、报表等可延后处理的路由. */
+    LOW;
+
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.exception;
+
+/**
+ * 路由调用超时，同步调用的路由由TimeoutFilter等抛出的{@link java.util.concurrent.TimeoutException}转换而来.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public class RouteTimeoutException extends RouteException {
+    private static final long serialVersionUID = 3296371537281093462L;
+
+    public RouteTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
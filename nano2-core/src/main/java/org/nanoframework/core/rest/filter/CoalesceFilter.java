@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.filter;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.nanoframework.core.rest.annotation.Route;
+import org.nanoframework.core.rest.exception.NotFoundMockException;
+import org.nanoframework.core.rest.invoker.Filter;
+import org.nanoframework.core.rest.invoker.Invoker;
+import org.nanoframework.core.web.http.StreamResponse;
+import org.nanoframework.spi.annotation.Order;
+
+/**
+ * 并发调用合并，路由设置{@link Route#coalesce()}时生效. <br>
+ * 相同路由方法且参数相同的并发调用中，第一个调用执行路由，其余调用等待其完成后共享同一个结果或异常. <br>
+ * 参数通过equals比较，绑定了请求、响应等每次请求不同的对象时不会合并；流式返回值只能消费一次，不会合并. <br>
+ * 等待时间不超过路由的timeout，超时后如果配置了Mock则返回Mock结果，否则抛出超时异常.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@Order(5000)
+public class CoalesceFilter extends Filter {
+    private final ConcurrentMap<Call, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+
+    @Override
+    protected Object proceed(Invoker invoker) throws Throwable {
+        var route = invoker.getMethod().getAnnotation(Route.class);
+        if (!route.coalesce() || StreamResponse.isStream(invoker.getMethod().getReturnType())) {
+            return doNext(invoker);
+        }
+
+        var call = new Call(invoker.getMethod(), invoker.getArguments());
+        var future = new CompletableFuture<Object>();
+        var inFlight = calls.putIfAbsent(call, future);
+        if (inFlight != null) {
+            return await(invoker, inFlight, route.timeout());
+        }
+
+        try {
+            var value = doNext(invoker);
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(call, future);
+        }
+    }
+
+    private Object await(Invoker invoker, CompletableFuture<Object> future, long timeout) throws Throwable {
+        try {
+            if (timeout > 0) {
+                return future.get(timeout, TimeUnit.MILLISECONDS);
+            }
+
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            return mock(invoker);
+        }
+    }
+
+    private Object mock(Invoker invoker) throws TimeoutException {
+        try {
+            return mock0(invoker);
+        } catch (Throwable e) {
+            if (e instanceof NotFoundMockException) {
+                throw new TimeoutException("服务调用超时");
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * 合并调用的键，由路由方法及参数组成.
+     */
+    private static final class Call {
+        private final Method method;
+
+        private final Object[] args;
+
+        private final int hash;
+
+        private Call(Method method, Object[] args) {
+            this.method = method;
+            this.args = args;
+            this.hash = 31 * method.hashCode() + Arrays.deepHashCode(args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Call)) {
+                return false;
+            }
+
+            var other = (Call) obj;
+            return hash == other.hash && method.equals(other.method) && Arrays.deepEquals(args, other.args);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.filter;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.nanoframework.core.concurrent.AdaptiveLimiter;
+import org.nanoframework.core.rest.exception.LimitExceededException;
+import org.nanoframework.core.rest.exception.NotFoundMockException;
+import org.nanoframework.core.rest.invoker.Filter;
+import org.nanoframework.core.rest.invoker.Invoker;
+import org.nanoframework.spi.annotation.Order;
+
+/**
+ * 路由自适应并发限制，通过context.route.limit.enabled开启. <br>
+ * 每个路由方法独立维护一个{@link AdaptiveLimiter}，根据响应时间调整允许的并发数，超过限制的调用立即拒绝. <br>
+ * 被拒绝时如果配置了Mock则返回Mock结果，否则抛出{@link LimitExceededException}. <br>
+ * 路由返回CompletionStage时，在其完成后释放并发数.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@Order(7000)
+public class LimitFilter extends Filter {
+    private final Map<Method, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final boolean enabled = AdaptiveLimiter.isEnabled();
+
+    @Override
+    protected Object proceed(Invoker invoker) throws Throwable {
+        if (!enabled) {
+            return doNext(invoker);
+        }
+
+        var limiter = limiter(invoker.getMethod());
+        if (!limiter.tryAcquire()) {
+            return mock(invoker);
+        }
+
+        var start = System.nanoTime();
+        var async = false;
+        try {
+            var value = doNext(invoker);
+            if (value instanceof CompletionStage) {
+                async = true;
+                ((CompletionStage<?>) value).whenComplete((result, error) -> limiter.release(start));
+            }
+
+            return value;
+        } finally {
+            if (!async) {
+                limiter.release(start);
+            }
+        }
+    }
+
+    private AdaptiveLimiter limiter(Method method) {
+        var limiter = limiters.get(method);
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(method, key -> AdaptiveLimiter.of());
+        }
+
+        return limiter;
+    }
+
+    private Object mock(Invoker invoker) {
+        try {
+            return mock0(invoker);
+        } catch (Throwable e) {
+            if (e instanceof NotFoundMockException) {
+                throw new LimitExceededException("服务繁忙，请稍后重试");
+            }
+
+            throw e;
+        }
+    }
+}
@@ -15,26 +15,28 @@
  */
 package org.nanoframework.core.rest.filter;
 
-import java.lang.reflect.Method;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.nanoframework.beans.Globals;
+import org.nanoframework.core.concurrent.ContextExecutor;
 import org.nanoframework.core.concurrent.Executor;
+import org.nanoframework.core.concurrent.ExecutorModule;
+import org.nanoframework.core.concurrent.WheelTimer;
 import org.nanoframework.core.rest.annotation.Route;
 import org.nanoframework.core.rest.exception.NotFoundMockException;
 import org.nanoframework.core.rest.invoker.Filter;
 import org.nanoframework.core.rest.invoker.Invoker;
-import org.nanoframework.core.web.filter.RouteFilter.HttpContext.HttpContextCopies;
 import org.nanoframework.spi.annotation.Order;
-
-import com.google.inject.Injector;
-import com.google.inject.Key;
-import com.google.inject.name.Names;
+import org.nanoframework.toolkit.lang.StringUtils;
 
 /**
+ * 路由调用超时控制. <br>
+ * 默认在指定的线程池中执行路由实现隔离，超时后立即返回并取消任务; <br>
+ * 指定{@link Route#CALLER}时在当前线程中执行路由，由全局时间轮在超时时中断当前线程，不额外占用线程. <br>
+ * 超时后如果配置了Mock则返回Mock结果，否则抛出超时异常.
  * @author yanghe
  * @since 2.0.0
  */
@@ -43,45 +45,71 @@ public class TimeoutFilter extends Filter {
 
     @Override
     protected Object proceed(Invoker invoker) throws Throwable {
-        var method = invoker.getMethod();
-        var route = method.getAnnotation(Route.class);
+        var route = invoker.getMethod().getAnnotation(Route.class);
         var timeout = route.timeout();
+        if (timeout <= 0) {
+            return doNext(invoker);
+        }
+
+        if (Route.CALLER.equals(route.executor()) || StringUtils.isEmpty(route.executor())) {
+            return proceedWithDeadline(invoker, timeout);
+        }
+
+        var future = submit(invoker, route);
         try {
-            return submit(route).get(timeout, TimeUnit.MILLISECONDS);
+            return future.get(timeout, TimeUnit.MILLISECONDS);
         } catch (TimeoutException e) {
-            return mock(method);
+            future.cancel(true);
+            return mock(invoker);
         }
     }
 
-    private Future<Object> submit(Route route) {
-        var context = new HttpContextCopies();
-        return executor(route).submit(new Callable<>() {
+    private Object proceedWithDeadline(Invoker invoker, long timeout) throws Throwable {
+        var deadline = new Deadline(Thread.currentThread());
+        var handle = WheelTimer.shared().schedule(deadline, timeout, TimeUnit.MILLISECONDS);
+        try {
+            var value = doNext(invoker);
+            if (deadline.finish()) {
+                return value;
+            }
+        } catch (Throwable e) {
+            if (deadline.finish()) {
+                throw e;
+            }
+        } finally {
+            handle.cancel();
+        }
+
+        deadline.await();
+        return mock(invoker);
+    }
+
+    private Future<Object> submit(Invoker invoker, Route route) {
+        return ContextExecutor.of(executor(route)).submit(new Callable<>() {
             @Override
             public Object call() throws Exception {
                 try {
-                    context.copy();
-                    return doNext();
+                    return doNext(invoker);
                 } catch (Throwable e) {
                     throw new Exception(e.getMessage(), e);
-                } finally {
-                    context.clear();
                 }
             }
         });
     }
 
     private Executor executor(Route route) {
-        var executor = route.executor();
-        try {
-            return Globals.get(Injector.class).getInstance(Key.get(Executor.class, Names.named(executor)));
-        } catch (Throwable e) {
-            throw new IllegalArgumentException(String.format("未定义线程池扩展: %s", executor));
+        var name = route.executor();
+        var executor = ExecutorModule.lookup(name);
+        if (executor == null) {
+            throw new IllegalArgumentException(String.format("未定义线程池扩展: %s", name));
         }
+
+        return executor;
     }
 
-    private Object mock(Method method) throws TimeoutException {
+    private Object mock(Invoker invoker) throws TimeoutException {
         try {
-            return mock0(method);
+            return mock0(invoker);
         } catch (Throwable e) {
             if (e instanceof NotFoundMockException) {
                 throw new TimeoutException("服务调用超时");
@@ -90,4 +118,51 @@ public class TimeoutFilter extends Filter {
             throw e;
         }
     }
+
+    /**
+     * 超时时中断执行路由的线程，并保证中断标记不会遗留到线程的后续请求中.
+     */
+    private static final class Deadline implements Runnable {
+        private static final int RUNNING = 0;
+
+        private static final int FINISHED = 1;
+
+        private static final int INTERRUPTING = 2;
+
+        private static final int INTERRUPTED = 3;
+
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+        private final Thread thread;
+
+        private Deadline(Thread thread) {
+            this.thread = thread;
+        }
+
+        @Override
+        public void run() {
+            if (state.compareAndSet(RUNNING, INTERRUPTING)) {
+                thread.interrupt();
+                state.set(INTERRUPTED);
+            }
+        }
+
+        /**
+         * @return 在超时前完成时返回true
+         */
+        private boolean finish() {
+            return state.compareAndSet(RUNNING, FINISHED);
+        }
+
+        /**
+         * 等待中断完成后清除当前线程的中断标记.
+         */
+        private void await() {
+            while (state.get() == INTERRUPTING) {
+                Thread.onSpinWait();
+            }
+
+            Thread.interrupted();
+        }
+    }
 }
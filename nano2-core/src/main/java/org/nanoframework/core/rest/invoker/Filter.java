@@ -15,83 +15,59 @@
  */
 package org.nanoframework.core.rest.invoker;
 
-import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Method;
 
-import org.aopalliance.intercept.MethodInvocation;
 import org.nanoframework.beans.Globals;
 import org.nanoframework.core.rest.annotation.Mock;
 import org.nanoframework.core.rest.exception.NotFoundMockException;
 import org.nanoframework.core.rest.mock.Mocker;
-import org.nanoframework.toolkit.lang.ReflectUtils;
 
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.name.Names;
 
 /**
- * Restful调用过滤链扩展组件.
+ * Restful调用过滤链扩展组件. <br>
+ * 同一个Filter实例会被所有路由及并发请求共享，调用状态均保存在每次调用独立的{@link Invoker}中，实现类不应持有请求相关的状态.
  * @author yanghe
  * @since 2.0.0
  */
 public abstract class Filter {
 
-    private Filter next;
-
-    private MethodInvocation invocation;
-
-    private Invoker invoker;
-
-    final Object doFilter() throws Throwable {
-        this.invoker = new Invoker() {
-            private final Class<?> type;
-            {
-                var clsName = invocation.getThis().getClass().getName();
-                var index = clsName.indexOf("$$EnhancerByGuice$$");
-                type = ReflectUtils.loadClass(index > -1 ? clsName.substring(0, index) : clsName);
-            }
-
-            @Override
-            public Class<?> getType() {
-                return type;
-            }
-
-            @Override
-            public Method getMethod() {
-                return invocation.getMethod();
-            }
-
-            @Override
-            public Object[] getArguments() {
-                return invocation.getArguments();
-            }
-
-            @Override
-            public Object getThis() {
-                return invocation.getThis();
-            }
-
-            @Override
-            public AccessibleObject getStaticPart() {
-                return invocation.getStaticPart();
-            }
-
-        };
+    protected abstract Object proceed(Invoker invoker) throws Throwable;
 
-        return proceed(invoker);
+    /**
+     * 调用过滤链中的下一个Filter，如果已是最后一个Filter则调用路由方法.
+     * @param invoker 当前调用
+     * @return 调用结果
+     * @throws Throwable 调用异常
+     */
+    protected final Object doNext(Invoker invoker) throws Throwable {
+        return FilterChain.Invocation.of(invoker).next();
     }
 
+    /**
+     * @return 调用结果
+     * @throws Throwable 调用异常
+     * @deprecated 使用{@link #doNext(Invoker)}，此方法只能在{@link #proceed(Invoker)}的调用线程中使用
+     */
+    @Deprecated
     protected final Object doNext() throws Throwable {
-        if (next != null) {
-            return next.proceed(invoker);
-        } else {
-            return invocation.proceed();
-        }
+        return FilterChain.Invocation.current().next();
     }
 
-    protected abstract Object proceed(Invoker invoker) throws Throwable;
-
+    /**
+     * @param method 路由方法
+     * @return Mock结果
+     * @deprecated 使用{@link #mock0(Invoker)}，此方法只能在{@link #proceed(Invoker)}的调用线程中使用
+     */
+    @Deprecated
     protected final Object mock0(Method method) {
+        return mock0(FilterChain.Invocation.current());
+    }
+
+    protected final Object mock0(Invoker invoker) {
+        var method = invoker.getMethod();
         if (method.isAnnotationPresent(Mock.class)) {
             var mock = method.getAnnotation(Mock.class);
             var injector = Globals.get(Injector.class);
@@ -101,13 +77,4 @@ public abstract class Filter {
 
         throw new NotFoundMockException();
     }
-
-    final void next(Filter next) {
-        this.next = next;
-    }
-
-    final Filter invocation(MethodInvocation invocation) {
-        this.invocation = invocation;
-        return this;
-    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.invoker;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 路由方法对应的不可变过滤链，每个路由方法只创建一次.
+ * @author yanghe
+ * @since 2.0.0
+ */
+final class FilterChain {
+    private final Filter[] filters;
+
+    private final Class<?> type;
+
+    FilterChain(List<Filter> filters, Class<?> type) {
+        this.filters = filters.toArray(new Filter[filters.size()]);
+        this.type = type;
+    }
+
+    Object invoke(MethodInvocation invocation) throws Throwable {
+        if (filters.length == 0) {
+            return invocation.proceed();
+        }
+
+        return new Invocation(this, invocation).next();
+    }
+
+    /**
+     * 单次路由调用的上下文，记录过滤链当前执行的位置.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    static final class Invocation implements Invoker {
+        /** 当前线程正在执行的调用，仅用于兼容已废弃的{@link Filter#doNext()}及{@link Filter#mock0(Method)}. */
+        private static final ThreadLocal<Invocation> CURRENT = new ThreadLocal<>();
+
+        private final FilterChain chain;
+
+        private final MethodInvocation invocation;
+
+        private int index;
+
+        private Invocation(FilterChain chain, MethodInvocation invocation) {
+            this.chain = chain;
+            this.invocation = invocation;
+        }
+
+        static Invocation of(Invoker invoker) {
+            if (invoker instanceof Invocation) {
+                return (Invocation) invoker;
+            }
+
+            throw new IllegalArgumentException("Invoker必须为过滤链传入的调用对象");
+        }
+
+        static Invocation current() {
+            var invocation = CURRENT.get();
+            if (invocation == null) {
+                throw new IllegalStateException("当前线程不在过滤链调用中");
+            }
+
+            return invocation;
+        }
+
+        Object next() throws Throwable {
+            var filters = chain.filters;
+            if (index < filters.length) {
+                var previous = CURRENT.get();
+                CURRENT.set(this);
+                try {
+                    return filters[index++].proceed(this);
+                } finally {
+                    if (previous == null) {
+                        CURRENT.remove();
+                    } else {
+                        CURRENT.set(previous);
+                    }
+                }
+            }
+
+            return invocation.proceed();
+        }
+
+        @Override
+        public Class<?> getType() {
+            return chain.type;
+        }
+
+        @Override
+        public Method getMethod() {
+            return invocation.getMethod();
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return invocation.getArguments();
+        }
+
+        @Override
+        public Object getThis() {
+            return invocation.getThis();
+        }
+
+        @Override
+        public AccessibleObject getStaticPart() {
+            return invocation.getStaticPart();
+        }
+    }
+}
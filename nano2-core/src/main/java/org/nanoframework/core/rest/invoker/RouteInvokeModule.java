@@ -15,7 +15,12 @@
  */
 package org.nanoframework.core.rest.invoker;
 
+import java.lang.reflect.Method;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.aopalliance.intercept.MethodInvocation;
@@ -26,6 +31,7 @@ import org.nanoframework.spi.annotation.Order;
 import org.nanoframework.spi.def.Module;
 import org.nanoframework.spi.support.SPILoader;
 import org.nanoframework.toolkit.lang.CollectionUtils;
+import org.nanoframework.toolkit.lang.ReflectUtils;
 
 import com.google.inject.Binder;
 import com.google.inject.Injector;
@@ -39,67 +45,95 @@ import com.google.inject.name.Names;
  */
 public class RouteInvokeModule implements Module {
 
-    private Filter chain;
+    /** 按调用目标类及路由方法缓存过滤链，继承的路由方法在不同子类中会对应不同的{@link Invoker#getType()}. */
+    private final Map<Class<?>, Map<Method, FilterChain>> chains = new ConcurrentHashMap<>();
+
+    private volatile List<Entry<String, Filter>> filters;
+
+    public RouteInvokeModule() {
+
+    }
+
+    RouteInvokeModule(List<Entry<String, Filter>> filters) {
+        this.filters = List.copyOf(filters);
+    }
 
     @Override
     public void configure(Binder binder) {
-        binder.bindInterceptor(Matchers.any(), Matchers.annotatedWith(Route.class), invocation -> {
-            init(invocation);
-            if (chain != null) {
-                return chain.doFilter();
-            } else {
-                return invocation.proceed();
-            }
-        });
+        binder.bindInterceptor(Matchers.any(), Matchers.annotatedWith(Route.class),
+                invocation -> chain(invocation).invoke(invocation));
+    }
+
+    private FilterChain chain(MethodInvocation invocation) {
+        var cls = invocation.getThis().getClass();
+        var methods = chains.get(cls);
+        if (methods == null) {
+            methods = chains.computeIfAbsent(cls, key -> new ConcurrentHashMap<>());
+        }
+
+        var method = invocation.getMethod();
+        var chain = methods.get(method);
+        if (chain == null) {
+            chain = methods.computeIfAbsent(method, key -> create(cls, key));
+        }
+
+        return chain;
     }
 
-    private void init(MethodInvocation invocation) {
+    private FilterChain create(Class<?> cls, Method method) {
         try {
-            var injector = Globals.get(Injector.class);
-            var names = SPILoader.spiNames(Filter.class);
-            var route = invocation.getMethod().getAnnotation(Route.class);
+            var route = method.getAnnotation(Route.class);
             var excludeFilter = List.of(route.excludeFilter());
-            if (CollectionUtils.isNotEmpty(names)) {
-                var filters = names.stream().filter(name -> !excludeFilter.contains(name))
-                        .map(name -> injector.getInstance(Key.get(Filter.class, Names.named(name))))
-                        .map(filter -> filter.invocation(invocation)).collect(Collectors.toList());
-                sort(filters);
-                chain(filters);
-            }
+            var filters = filters().stream().filter(entry -> !excludeFilter.contains(entry.getKey()))
+                    .map(Entry::getValue).collect(Collectors.toList());
+            var clsName = cls.getName();
+            var index = clsName.indexOf("$$EnhancerByGuice$$");
+            Class<?> type = index > -1 ? ReflectUtils.loadClass(clsName.substring(0, index)) : cls;
+            return new FilterChain(filters, type);
         } catch (Throwable e) {
             throw new RouteException(e.getMessage(), e);
         }
     }
 
-    private void sort(List<Filter> filters) {
-        filters.sort((before, after) -> {
-            Integer beforeOrder = 0;
-            Integer afterOrder = 0;
-            var beforeCls = before.getClass();
-            var afterCls = after.getClass();
-            if (beforeCls.isAnnotationPresent(Order.class)) {
-                beforeOrder = beforeCls.getAnnotation(Order.class).value();
+    private List<Entry<String, Filter>> filters() {
+        var filters = this.filters;
+        if (filters == null) {
+            synchronized (this) {
+                filters = this.filters;
+                if (filters == null) {
+                    this.filters = filters = loadFilters();
+                }
             }
+        }
 
-            if (afterCls.isAnnotationPresent(Order.class)) {
-                afterOrder = afterCls.getAnnotation(Order.class).value();
-            }
+        return filters;
+    }
+
+    private List<Entry<String, Filter>> loadFilters() {
+        var names = SPILoader.spiNames(Filter.class);
+        if (CollectionUtils.isEmpty(names)) {
+            return List.of();
+        }
 
-            return beforeOrder.compareTo(afterOrder);
-        });
+        var injector = Globals.get(Injector.class);
+        var filters = names.stream()
+                .map(name -> Map.entry(name, injector.getInstance(Key.get(Filter.class, Names.named(name)))))
+                .collect(Collectors.toList());
+        sort(filters);
+        return List.copyOf(filters);
     }
 
-    private void chain(List<Filter> filters) {
-        Filter filter = null;
-        for (var f : filters) {
-            if (filter == null) {
-                filter = f;
-                chain = f;
-            } else {
-                filter.next(f);
-                filter = f;
-            }
+    private void sort(List<Entry<String, Filter>> filters) {
+        filters.sort(Comparator.comparingInt(entry -> order(entry.getValue())));
+    }
+
+    private int order(Filter filter) {
+        var cls = filter.getClass();
+        if (cls.isAnnotationPresent(Order.class)) {
+            return cls.getAnnotation(Order.class).value();
         }
+
+        return 0;
     }
 
     @Override
@@ -109,7 +143,8 @@ public class RouteInvokeModule implements Module {
 
     @Override
     public void destroy() {
-
+        chains.clear();
+        filters = null;
     }
 
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的对数分桶直方图. <br>
+ * 每个2的幂区间划分为8个子桶，记录值的相对误差不超过12.5%，记录时只有一次原子自增，不分配对象.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class Histogram {
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param value 记录值，小于0时按0记录
+     */
+    public void record(long value) {
+        var v = Math.max(value, 0);
+        buckets.incrementAndGet(index(v));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /**
+     * @return 当前数据的快照
+     */
+    public Snapshot snapshot() {
+        var counts = new long[BUCKETS];
+        var total = 0L;
+        for (var idx = 0; idx < BUCKETS; idx++) {
+            counts[idx] = buckets.get(idx);
+            total += counts[idx];
+        }
+
+        return new Snapshot(counts, total, sum.sum(), max.get());
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        var exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+
+        var sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+
+        var exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        var sub = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * 直方图快照.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+
+        private final long count;
+
+        private final long sum;
+
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @param quantile 分位数，取值范围[0, 1]
+         * @return 分位值，取所在子桶的中间值且不超过最大值
+         */
+        public long getValue(double quantile) {
+            if (count == 0) {
+                return 0;
+            } else if (quantile >= 1) {
+                return max;
+            }
+
+            var rank = (long) Math.ceil(quantile * count);
+            var cumulative = 0L;
+            for (var idx = 0; idx < counts.length; idx++) {
+                cumulative += counts[idx];
+                if (cumulative >= rank && counts[idx] > 0) {
+                    var lower = lowerBound(idx);
+                    var upper = idx + 1 < counts.length ? lowerBound(idx + 1) - 1 : lower;
+                    return Math.min(lower + ((upper - lower) >> 1), max);
+                }
+            }
+
+            return max;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+import org.nanoframework.core.rest.enums.HttpType;
+import org.nanoframework.modules.logging.Logger;
+import org.nanoframework.modules.logging.LoggerFactory;
+
+/**
+ * 单个路由的运行指标，按请求类型分别记录耗时直方图、请求数、异常数、处理中的请求数及请求速率. <br>
+ * 路由注册后发布为JMX MXBean: org.nanoframework:type=Route,name={路由地址},method={类名.方法名}.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class RouteMetrics implements RouteMetricsMXBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RouteMetrics.class);
+
+    private static final HttpType[] TYPES = HttpType.values();
+
+    private final AtomicReferenceArray<Recorder> recorders = new AtomicReferenceArray<>(TYPES.length);
+
+    private final String method;
+
+    private volatile String pattern;
+
+    private volatile ObjectName objectName;
+
+    /**
+     * @param method 路由方法
+     */
+    public RouteMetrics(Method method) {
+        this.method = method == null ? null : method.getDeclaringClass().getSimpleName() + '.' + method.getName();
+    }
+
+    /**
+     * @param type 请求类型
+     * @return 对应请求类型的记录器
+     */
+    public Recorder recorder(HttpType type) {
+        var idx = type.ordinal();
+        var recorder = recorders.get(idx);
+        if (recorder == null) {
+            recorders.compareAndSet(idx, null, new Recorder());
+            recorder = recorders.get(idx);
+        }
+
+        return recorder;
+    }
+
+    /**
+     * 注册JMX MXBean.
+     * @param pattern 路由地址
+     */
+    public synchronized void register(String pattern) {
+        this.pattern = pattern;
+        if (objectName != null) {
+            return;
+        }
+
+        try {
+            var name = new ObjectName("org.nanoframework:type=Route,name=" + ObjectName.quote(pattern)
+                    + (method == null ? "" : ",method=" + ObjectName.quote(method)));
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+                objectName = name;
+            }
+        } catch (Throwable e) {
+            LOGGER.warn("注册路由MXBean失败: {}, {}", pattern, e.getMessage());
+        }
+    }
+
+    /**
+     * 注销JMX MXBean.
+     */
+    public synchronized void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Throwable e) {
+                LOGGER.warn("注销路由MXBean失败: {}, {}", pattern, e.getMessage());
+            }
+
+            objectName = null;
+        }
+    }
+
+    @Override
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getRequestCount() {
+        var count = 0L;
+        for (var idx = 0; idx < TYPES.length; idx++) {
+            var recorder = recorders.get(idx);
+            if (recorder != null) {
+                count += recorder.requests.sum();
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public long getErrorCount() {
+        var count = 0L;
+        for (var idx = 0; idx < TYPES.length; idx++) {
+            var recorder = recorders.get(idx);
+            if (recorder != null) {
+                count += recorder.errors.sum();
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public long getInFlight() {
+        var count = 0L;
+        for (var idx = 0; idx < TYPES.length; idx++) {
+            var recorder = recorders.get(idx);
+            if (recorder != null) {
+                count += recorder.inFlight.sum();
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public Map<String, RouteStats> getStats() {
+        var stats = new LinkedHashMap<String, RouteStats>();
+        for (var idx = 0; idx < TYPES.length; idx++) {
+            var recorder = recorders.get(idx);
+            if (recorder != null) {
+                stats.put(TYPES[idx].name(), recorder.stats(TYPES[idx]));
+            }
+        }
+
+        return stats;
+    }
+
+    /**
+     * 单个请求类型的指标记录器.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    public static final class Recorder {
+        private static final long TICK_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+
+        private static final double ALPHA = 1 - Math.exp(-5 / 60D);
+
+        /** 长时间无请求时速率已衰减至接近0，不再逐个刻度计算. */
+        private static final long MAX_TICKS = 120;
+
+        private static final double MICROS_PER_MILLI = 1000D;
+
+        private final Histogram latency = new Histogram();
+
+        private final LongAdder requests = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder inFlight = new LongAdder();
+
+        private final LongAdder uncounted = new LongAdder();
+
+        private final AtomicLong lastTick = new AtomicLong(System.nanoTime());
+
+        private volatile double rate = -1;
+
+        private Recorder() {
+
+        }
+
+        /**
+         * @return 请求开始时间
+         */
+        public long start() {
+            inFlight.increment();
+            return System.nanoTime();
+        }
+
+        /**
+         * @param start 请求开始时间
+         * @param error 请求是否异常
+         */
+        public void stop(long start, boolean error) {
+            latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            inFlight.decrement();
+            requests.increment();
+            if (error) {
+                errors.increment();
+            }
+
+            uncounted.increment();
+            tick();
+        }
+
+        private void tick() {
+            var last = lastTick.get();
+            var now = System.nanoTime();
+            var age = now - last;
+            if (age > TICK_INTERVAL) {
+                var next = now - age % TICK_INTERVAL;
+                if (lastTick.compareAndSet(last, next)) {
+                    var ticks = Math.min(age / TICK_INTERVAL, MAX_TICKS);
+                    for (var idx = 0; idx < ticks; idx++) {
+                        var instant = (idx == 0 ? uncounted.sumThenReset() : 0) / 5D;
+                        rate = rate < 0 ? instant : rate + ALPHA * (instant - rate);
+                    }
+                }
+            }
+        }
+
+        private RouteStats stats(HttpType type) {
+            tick();
+            var snapshot = latency.snapshot();
+            return RouteStats.builder().type(type.name()).requestCount(requests.sum()).errorCount(errors.sum())
+                    .inFlight(inFlight.sum()).rate(Math.max(rate, 0)).mean(snapshot.getMean() / MICROS_PER_MILLI)
+                    .max(snapshot.getMax() / MICROS_PER_MILLI).p50(snapshot.getValue(0.5) / MICROS_PER_MILLI)
+                    .p90(snapshot.getValue(0.9) / MICROS_PER_MILLI).p99(snapshot.getValue(0.99) / MICROS_PER_MILLI)
+                    .p999(snapshot.getValue(0.999) / MICROS_PER_MILLI).build();
+        }
+    }
+}
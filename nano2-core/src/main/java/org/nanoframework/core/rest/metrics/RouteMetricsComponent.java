@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.nanoframework.core.rest.RouteMapper;
+import org.nanoframework.core.rest.Routes;
+import org.nanoframework.core.rest.annotation.Route;
+
+/**
+ * 以JSON格式输出所有路由的运行指标及响应缓存统计. <br>
+ * 设置context.route.metrics.path后由RestfulPlugin注册到对应的路由地址，默认不注册.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public class RouteMetricsComponent {
+    /** 路由指标的访问地址. */
+    public static final String PATH = "context.route.metrics.path";
+
+    @Route("")
+    public List<Map<String, Object>> dump() {
+        var mappers = new ArrayList<RouteMapper>();
+        Routes.route().forEachMapper(mappers::add);
+        mappers.sort(Comparator.comparing(mapper -> mapper.getMetrics().getPattern(),
+                Comparator.nullsLast(Comparator.naturalOrder())));
+
+        var values = new ArrayList<Map<String, Object>>(mappers.size());
+        mappers.forEach(mapper -> {
+            var metric = mapper.getMetrics();
+            var value = new LinkedHashMap<String, Object>();
+            value.put("pattern", String.valueOf(metric.getPattern()));
+            value.put("method", String.valueOf(metric.getMethod()));
+            value.put("stats", metric.getStats());
+
+            var cache = mapper.getCache();
+            if (cache != null) {
+                value.put("cache", Map.of("size", cache.getSize(), "hitCount", cache.getHitCount(), "missCount",
+                        cache.getMissCount(), "hitRate", cache.getHitRate(), "evictionCount",
+                        cache.getEvictionCount(), "notModifiedCount", cache.getNotModifiedCount()));
+            }
+
+            values.add(value);
+        });
+
+        return values;
+    }
+}
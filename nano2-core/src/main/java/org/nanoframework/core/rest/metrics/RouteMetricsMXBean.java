@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.metrics;
+
+import java.util.Map;
+
+/**
+ * 路由运行指标.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public interface RouteMetricsMXBean {
+
+    /**
+     * @return 路由地址
+     */
+    String getPattern();
+
+    /**
+     * @return 路由方法
+     */
+    String getMethod();
+
+    long getRequestCount();
+
+    long getErrorCount();
+
+    long getInFlight();
+
+    /**
+     * @return 按请求类型统计的指标
+     */
+    Map<String, RouteStats> getStats();
+}
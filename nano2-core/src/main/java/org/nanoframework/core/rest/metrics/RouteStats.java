@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.metrics;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 路由某一请求类型的统计快照，耗时单位为毫秒.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@Getter
+@Builder
+public class RouteStats {
+    /** 请求类型. */
+    private final String type;
+
+    /** 请求总数. */
+    private final long requestCount;
+
+    /** 异常请求数. */
+    private final long errorCount;
+
+    /** 正在处理的请求数. */
+    private final long inFlight;
+
+    /** 最近1分钟的每秒请求数(指数加权平均). */
+    private final double rate;
+
+    private final double mean;
+
+    private final double max;
+
+    private final double p50;
+
+    private final double p90;
+
+    private final double p99;
+
+    private final double p999;
+}
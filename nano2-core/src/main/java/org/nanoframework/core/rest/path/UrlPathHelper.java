@@ -40,6 +40,18 @@ public class UrlPathHelper {
         return decodedVars;
     }
 
+    /**
+     * @param source the path variable
+     * @return decoded path variable
+     */
+    public String decodePathVariable(final String source) {
+        if (source == null || (source.indexOf('%') < 0 && source.indexOf('+') < 0)) {
+            return source;
+        }
+
+        return decodeInternal(source);
+    }
+
     private String decodeInternal(final String source) {
         try {
             return URLDecoder.decode(source, Charsets.UTF_8.name());
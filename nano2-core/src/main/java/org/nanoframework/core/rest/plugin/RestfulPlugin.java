@@ -19,6 +19,9 @@ import org.nanoframework.beans.Globals;
 import org.nanoframework.core.rest.Routes;
 import org.nanoframework.core.rest.annotation.Restful;
 import org.nanoframework.core.rest.annotation.Route;
+import org.nanoframework.core.rest.batch.BatchComponent;
+import org.nanoframework.core.rest.metrics.RouteMetricsComponent;
+import org.nanoframework.core.web.codec.Codecs;
 import org.nanoframework.modules.logging.Logger;
 import org.nanoframework.modules.logging.LoggerFactory;
 import org.nanoframework.spi.def.Plugin;
@@ -35,6 +38,8 @@ import com.google.inject.Injector;
 public class RestfulPlugin implements Plugin {
     private static final Logger LOGGER = LoggerFactory.getLogger(RestfulPlugin.class);
 
+    private BatchComponent batch;
+
     @Override
     public boolean load() {
         var classes = ClassScanner.filter(Restful.class);
@@ -54,12 +59,35 @@ public class RestfulPlugin implements Plugin {
             });
         }
 
+        var metricsPath = System.getProperty(RouteMetricsComponent.PATH);
+        if (StringUtils.isNotBlank(metricsPath)) {
+            LOGGER.info("Route metrics API: {}", metricsPath);
+            var routes = Routes.route();
+            var mappers = routes.matchers(new RouteMetricsComponent(), RouteMetricsComponent.class.getMethods(),
+                    Route.class, metricsPath.trim());
+            mappers.forEach((url, mapper) -> routes.register(url, mapper));
+        }
+
+        var batchPath = System.getProperty(BatchComponent.PATH);
+        if (StringUtils.isNotBlank(batchPath)) {
+            LOGGER.info("Route batch API: {}", batchPath);
+            batch = new BatchComponent();
+            var routes = Routes.route();
+            var mappers = routes.matchers(batch, BatchComponent.class.getMethods(), Route.class, batchPath.trim());
+            mappers.forEach((url, mapper) -> routes.register(url, mapper));
+        }
+
         return false;
     }
 
     @Override
     public void destroy() {
         Routes.route().clear();
+        Codecs.clear();
+        if (batch != null) {
+            batch.destroy();
+            batch = null;
+        }
     }
 
 }
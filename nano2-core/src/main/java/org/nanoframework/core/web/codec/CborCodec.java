@@ -0,0 +1,493 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.TypeUtils;
+
+/**
+ * CBOR(RFC 7049)二进制编解码，媒体类型为application/cbor. <br>
+ * JavaBean按FastJSON的规则转换为Map，枚举输出名称，Map的键输出为字符串，与JSON保持一致；
+ * BigInteger及BigDecimal使用CBOR标签2、3、4保留精度. <br>
+ * 日期与JSON不同: JSON响应按WriteDateUseDateFormat输出格式化的字符串，CBOR输出毫秒时间戳整数，
+ * 客户端需按格式分别处理. 解码时同时支持整数及标签1(秒级时间戳)的日期. <br>
+ * 解码时先解析为JSONObject、JSONArray等通用结构，再按FastJSON的规则转换为目标类型.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public class CborCodec implements Codec {
+    public static final String MEDIA_TYPE = "application/cbor";
+
+    private static final int MAX_DEPTH = 512;
+
+    private static final int UNSIGNED = 0;
+
+    private static final int NEGATIVE = 1;
+
+    private static final int BYTES = 2;
+
+    private static final int TEXT = 3;
+
+    private static final int ARRAY = 4;
+
+    private static final int MAP = 5;
+
+    private static final int TAG = 6;
+
+    private static final int SIMPLE = 7;
+
+    private static final int TAG_EPOCH = 1;
+
+    private static final int TAG_POSITIVE_BIGNUM = 2;
+
+    private static final int TAG_NEGATIVE_BIGNUM = 3;
+
+    private static final int TAG_DECIMAL = 4;
+
+    private static final int FALSE = 0xF4;
+
+    private static final int TRUE = 0xF5;
+
+    private static final int NULL = 0xF6;
+
+    private static final int FLOAT = 0xFA;
+
+    private static final int DOUBLE = 0xFB;
+
+    private static final int BREAK = 0xFF;
+
+    private static final int INDEFINITE = 31;
+
+    @Override
+    public String getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public void encode(Object value, OutputStream out) throws IOException {
+        new Encoder(out).write(value, 0);
+    }
+
+    @Override
+    public Object decode(byte[] buf, int off, int len, Charset charset, Type type) throws IOException {
+        var decoder = new Decoder(buf, off, off + len);
+        var value = decoder.read(0);
+        if (decoder.pos != decoder.end) {
+            throw new IOException("CBOR内容存在多余数据: " + (decoder.end - decoder.pos) + " bytes");
+        }
+
+        if (type == null || type == Object.class) {
+            return value;
+        }
+
+        return TypeUtils.cast(value, type, ParserConfig.getGlobalInstance());
+    }
+
+    private static final class Encoder {
+        private final OutputStream out;
+
+        private Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        private void write(Object value, int depth) throws IOException {
+            if (depth > MAX_DEPTH) {
+                throw new IOException("CBOR嵌套层级超过限制: " + MAX_DEPTH);
+            }
+
+            if (value == null) {
+                out.write(NULL);
+            } else if (value instanceof String) {
+                text((String) value);
+            } else if (value instanceof Boolean) {
+                out.write((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                    || value instanceof Byte || value instanceof AtomicInteger || value instanceof AtomicLong) {
+                integer(((Number) value).longValue());
+            } else if (value instanceof Double) {
+                out.write(DOUBLE);
+                long8(Double.doubleToLongBits((Double) value));
+            } else if (value instanceof Float) {
+                out.write(FLOAT);
+                int4(Float.floatToIntBits((Float) value));
+            } else if (value instanceof BigInteger) {
+                bigInteger((BigInteger) value);
+            } else if (value instanceof BigDecimal) {
+                var decimal = (BigDecimal) value;
+                head(TAG, TAG_DECIMAL);
+                head(ARRAY, 2);
+                integer(-(long) decimal.scale());
+                bigInteger(decimal.unscaledValue());
+            } else if (value instanceof Number) {
+                var number = (Number) value;
+                out.write(DOUBLE);
+                long8(Double.doubleToLongBits(number.doubleValue()));
+            } else if (value instanceof byte[]) {
+                var bytes = (byte[]) value;
+                head(BYTES, bytes.length);
+                out.write(bytes);
+            } else if (value instanceof Character || value instanceof Enum) {
+                text(value instanceof Enum ? ((Enum<?>) value).name() : value.toString());
+            } else if (value instanceof Date) {
+                integer(((Date) value).getTime());
+            } else if (value instanceof Map) {
+                var map = (Map<?, ?>) value;
+                head(MAP, map.size());
+                for (var entry : map.entrySet()) {
+                    text(String.valueOf(entry.getKey()));
+                    write(entry.getValue(), depth + 1);
+                }
+            } else if (value instanceof Collection) {
+                var collection = (Collection<?>) value;
+                head(ARRAY, collection.size());
+                for (var item : collection) {
+                    write(item, depth + 1);
+                }
+            } else if (value.getClass().isArray()) {
+                var length = Array.getLength(value);
+                head(ARRAY, length);
+                for (var idx = 0; idx < length; idx++) {
+                    write(Array.get(value, idx), depth + 1);
+                }
+            } else {
+                // JavaBean等其它对象按FastJSON的规则转换为通用结构
+                var json = JSON.toJSON(value);
+                if (json == value) {
+                    text(value.toString());
+                } else {
+                    write(json, depth);
+                }
+            }
+        }
+
+        private void text(String value) throws IOException {
+            var bytes = value.getBytes(StandardCharsets.UTF_8);
+            head(TEXT, bytes.length);
+            out.write(bytes);
+        }
+
+        private void integer(long value) throws IOException {
+            if (value >= 0) {
+                head(UNSIGNED, value);
+            } else {
+                head(NEGATIVE, -1 - value);
+            }
+        }
+
+        private void bigInteger(BigInteger value) throws IOException {
+            if (value.bitLength() < Long.SIZE) {
+                integer(value.longValue());
+                return;
+            }
+
+            var negative = value.signum() < 0;
+            var magnitude = (negative ? BigInteger.ONE.negate().subtract(value) : value).toByteArray();
+            var off = magnitude[0] == 0 ? 1 : 0;
+            head(TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+            head(BYTES, magnitude.length - off);
+            out.write(magnitude, off, magnitude.length - off);
+        }
+
+        private void head(int major, long value) throws IOException {
+            var type = major << 5;
+            if (value < 24) {
+                out.write(type | (int) value);
+            } else if (value < 0x100) {
+                out.write(type | 24);
+                out.write((int) value);
+            } else if (value < 0x10000) {
+                out.write(type | 25);
+                out.write((int) (value >>> 8));
+                out.write((int) value);
+            } else if (value < 0x100000000L) {
+                out.write(type | 26);
+                int4((int) value);
+            } else {
+                out.write(type | 27);
+                long8(value);
+            }
+        }
+
+        private void int4(int value) throws IOException {
+            out.write(value >>> 24);
+            out.write(value >>> 16);
+            out.write(value >>> 8);
+            out.write(value);
+        }
+
+        private void long8(long value) throws IOException {
+            int4((int) (value >>> 32));
+            int4((int) value);
+        }
+    }
+
+    private static final class Decoder {
+        private final byte[] buf;
+
+        private final int end;
+
+        private int pos;
+
+        private Decoder(byte[] buf, int pos, int end) {
+            this.buf = buf;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        private Object read(int depth) throws IOException {
+            if (depth > MAX_DEPTH) {
+                throw new IOException("CBOR嵌套层级超过限制: " + MAX_DEPTH);
+            }
+
+            var initial = u8();
+            var major = initial >>> 5;
+            var info = initial & 0x1F;
+            switch (major) {
+                case UNSIGNED:
+                    return unsigned(argument(info));
+                case NEGATIVE:
+                    return negative(argument(info));
+                case BYTES:
+                    return bytes(major, info);
+                case TEXT:
+                    return new String(bytes(major, info), StandardCharsets.UTF_8);
+                case ARRAY:
+                    return array(info, depth);
+                case MAP:
+                    return map(info, depth);
+                case TAG:
+                    return tag(argument(info), depth);
+                default:
+                    return simple(initial, info);
+            }
+        }
+
+        private Object unsigned(long value) {
+            if (value < 0) {
+                return new BigInteger(Long.toUnsignedString(value));
+            }
+
+            return value <= Integer.MAX_VALUE ? (Object) (int) value : (Object) value;
+        }
+
+        private Object negative(long value) {
+            if (value < 0) {
+                return new BigInteger(Long.toUnsignedString(value)).add(BigInteger.ONE).negate();
+            }
+
+            var number = -1 - value;
+            return number >= Integer.MIN_VALUE ? (Object) (int) number : (Object) number;
+        }
+
+        private byte[] bytes(int major, int info) throws IOException {
+            if (info != INDEFINITE) {
+                var length = length(argument(info));
+                var bytes = new byte[length];
+                System.arraycopy(buf, pos, bytes, 0, length);
+                pos += length;
+                return bytes;
+            }
+
+            var chunks = new ByteArrayOutputStream();
+            while (peek() != BREAK) {
+                var initial = u8();
+                if (initial >>> 5 != major || (initial & 0x1F) == INDEFINITE) {
+                    throw new IOException("CBOR分段字符串格式错误");
+                }
+
+                var length = length(argument(initial & 0x1F));
+                chunks.write(buf, pos, length);
+                pos += length;
+            }
+
+            pos++;
+            return chunks.toByteArray();
+        }
+
+        private JSONArray array(int info, int depth) throws IOException {
+            if (info == INDEFINITE) {
+                var array = new JSONArray();
+                while (peek() != BREAK) {
+                    array.add(read(depth + 1));
+                }
+
+                pos++;
+                return array;
+            }
+
+            // 每个元素至少占用1个字节，长度超过剩余字节数时内容必然不完整
+            var size = length(argument(info));
+            var array = new JSONArray(size);
+            for (var idx = 0; idx < size; idx++) {
+                array.add(read(depth + 1));
+            }
+
+            return array;
+        }
+
+        private JSONObject map(int info, int depth) throws IOException {
+            var map = new JSONObject(true);
+            if (info == INDEFINITE) {
+                while (peek() != BREAK) {
+                    map.put(key(depth), read(depth + 1));
+                }
+
+                pos++;
+                return map;
+            }
+
+            var size = length(argument(info));
+            for (var idx = 0; idx < size; idx++) {
+                map.put(key(depth), read(depth + 1));
+            }
+
+            return map;
+        }
+
+        private String key(int depth) throws IOException {
+            var key = read(depth + 1);
+            return key instanceof String ? (String) key : String.valueOf(key);
+        }
+
+        private Object tag(long tag, int depth) throws IOException {
+            var value = read(depth + 1);
+            if (tag == TAG_POSITIVE_BIGNUM && value instanceof byte[]) {
+                return new BigInteger(1, (byte[]) value);
+            } else if (tag == TAG_NEGATIVE_BIGNUM && value instanceof byte[]) {
+                return BigInteger.ONE.negate().subtract(new BigInteger(1, (byte[]) value));
+            } else if (tag == TAG_DECIMAL && value instanceof JSONArray && ((JSONArray) value).size() == 2) {
+                var decimal = (JSONArray) value;
+                var exponent = decimal.getIntValue(0);
+                return new BigDecimal(decimal.getBigInteger(1), -exponent);
+            } else if (tag == TAG_EPOCH && value instanceof Number) {
+                return new Date((long) (((Number) value).doubleValue() * 1000));
+            }
+
+            return value;
+        }
+
+        private Object simple(int initial, int info) throws IOException {
+            switch (initial) {
+                case FALSE:
+                    return Boolean.FALSE;
+                case TRUE:
+                    return Boolean.TRUE;
+                case NULL:
+                case NULL + 1:
+                    return null;
+                case FLOAT:
+                    return Float.intBitsToFloat((int) uint(4));
+                case DOUBLE:
+                    return Double.longBitsToDouble(uint(8));
+                default:
+                    if (info == 25) {
+                        return half((int) uint(2));
+                    }
+
+                    throw new IOException(String.format("不支持的CBOR数据类型: 0x%02X", initial));
+            }
+        }
+
+        private static float half(int bits) {
+            var exponent = (bits >>> 10) & 0x1F;
+            var mantissa = bits & 0x3FF;
+            float value;
+            if (exponent == 0) {
+                value = mantissa * (float) Math.pow(2, -24);
+            } else if (exponent == 0x1F) {
+                value = mantissa == 0 ? Float.POSITIVE_INFINITY : Float.NaN;
+            } else {
+                value = (mantissa + 1024) * (float) Math.pow(2, exponent - 25);
+            }
+
+            return (bits & 0x8000) == 0 ? value : -value;
+        }
+
+        private long argument(int info) throws IOException {
+            if (info < 24) {
+                return info;
+            }
+
+            switch (info) {
+                case 24:
+                    return uint(1);
+                case 25:
+                    return uint(2);
+                case 26:
+                    return uint(4);
+                case 27:
+                    return uint(8);
+                default:
+                    throw new IOException("CBOR长度格式错误: " + info);
+            }
+        }
+
+        private int length(long length) throws IOException {
+            if (length < 0 || length > end - pos) {
+                throw new IOException("CBOR内容不完整");
+            }
+
+            return (int) length;
+        }
+
+        private long uint(int size) throws IOException {
+            if (end - pos < size) {
+                throw new IOException("CBOR内容不完整");
+            }
+
+            var value = 0L;
+            for (var idx = 0; idx < size; idx++) {
+                value = (value << 8) | (buf[pos++] & 0xFF);
+            }
+
+            return value;
+        }
+
+        private int u8() throws IOException {
+            if (pos >= end) {
+                throw new IOException("CBOR内容不完整");
+            }
+
+            return buf[pos++] & 0xFF;
+        }
+
+        private int peek() throws IOException {
+            if (pos >= end) {
+                throw new IOException("CBOR内容不完整");
+            }
+
+            return buf[pos] & 0xFF;
+        }
+    }
+}
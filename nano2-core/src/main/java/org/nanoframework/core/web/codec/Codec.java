@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+
+/**
+ * 响应内容编码及请求体解码扩展组件. <br>
+ * 通过META-INF/nano/spi/org.nanoframework.core.web.codec.Codec注册，响应根据请求头Accept选择，
+ * 请求体(@Body)根据请求头Content-Type选择，未匹配时使用JSON. <br>
+ * 同一个Codec实例会被所有请求共享，实现类必须是线程安全的.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public interface Codec {
+
+    /**
+     * @return 媒体类型，如application/json
+     */
+    String getMediaType();
+
+    /**
+     * @param value 响应对象
+     * @param out 输出流，由调用方关闭
+     * @throws IOException if I/O error occur
+     */
+    void encode(Object value, OutputStream out) throws IOException;
+
+    /**
+     * @param buf 请求体缓冲区
+     * @param off 起始位置
+     * @param len 长度
+     * @param charset 请求字符集，文本格式使用
+     * @param type 反序列化类型，支持泛型
+     * @return 反序列化结果
+     * @throws IOException 内容格式错误
+     */
+    Object decode(byte[] buf, int off, int len, Charset charset, Type type) throws IOException;
+}
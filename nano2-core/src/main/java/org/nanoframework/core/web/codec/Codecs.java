@@ -0,0 +1,225 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.codec;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.nanoframework.beans.Globals;
+import org.nanoframework.spi.support.SPILoader;
+import org.nanoframework.toolkit.lang.CollectionUtils;
+
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+
+/**
+ * 编解码组件注册表，按媒体类型索引通过SPI注册的{@link Codec}. <br>
+ * 响应根据Accept选择q值最高且已注册的编解码组件，未匹配时使用JSON；同一个Accept的选择结果会被缓存. <br>
+ * 按Accept选择格式的响应需要输出Vary: Accept，避免共享缓存将一种格式的响应返回给要求其它格式的客户端.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class Codecs {
+    /** 请求头: Accept. */
+    public static final String ACCEPT = "Accept";
+
+    /** 响应头: Vary. */
+    public static final String VARY = "Vary";
+
+    private static final String JSON_TYPE = "application/json";
+
+    private static final String WILDCARD = "*/*";
+
+    private static final String APPLICATION_WILDCARD = "application/*";
+
+    private static final int MAX_NEGOTIATED = 256;
+
+    private static final Codec JSON = new JsonCodec();
+
+    private static final Map<String, Codec> DEFAULTS = Map.of(JSON_TYPE, JSON, CborCodec.MEDIA_TYPE, new CborCodec());
+
+    private static final Map<String, Codec> NEGOTIATED = new ConcurrentHashMap<>();
+
+    private static volatile Map<String, Codec> codecs;
+
+    private Codecs() {
+
+    }
+
+    /**
+     * @return JSON编解码组件
+     */
+    public static Codec json() {
+        var json = codecs().get(JSON_TYPE);
+        return json == null ? JSON : json;
+    }
+
+    /**
+     * @param accept 请求头Accept
+     * @return 响应使用的编解码组件，未匹配时返回JSON编解码组件
+     */
+    public static Codec accept(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return json();
+        }
+
+        var codec = NEGOTIATED.get(accept);
+        if (codec == null) {
+            codec = negotiate(accept);
+            if (codecs != null && NEGOTIATED.size() < MAX_NEGOTIATED) {
+                NEGOTIATED.put(accept, codec);
+            }
+        }
+
+        return codec;
+    }
+
+    /**
+     * 在响应头Vary中追加Accept，保留已设置的其它值.
+     * @param response HttpServletResponse
+     */
+    public static void vary(HttpServletResponse response) {
+        var vary = response.getHeader(VARY);
+        if (vary == null || vary.isEmpty()) {
+            response.setHeader(VARY, ACCEPT);
+            return;
+        }
+
+        for (var value : vary.split(",")) {
+            value = value.trim();
+            if ("*".equals(value) || ACCEPT.equalsIgnoreCase(value)) {
+                return;
+            }
+        }
+
+        response.setHeader(VARY, vary + ", " + ACCEPT);
+    }
+
+    /**
+     * @param contentType 请求头Content-Type
+     * @return 请求体使用的编解码组件，未匹配时返回JSON编解码组件
+     */
+    public static Codec contentType(String contentType) {
+        if (contentType == null || contentType.isEmpty()) {
+            return json();
+        }
+
+        var codec = codecs().get(mediaType(contentType));
+        return codec == null ? json() : codec;
+    }
+
+    /**
+     * @param codec 编解码组件
+     * @return 是否为JSON编解码组件
+     */
+    public static boolean isJson(Codec codec) {
+        return codec instanceof JsonCodec;
+    }
+
+    /**
+     * 清除已加载的编解码组件，下次使用时重新从SPI加载.
+     */
+    public static void clear() {
+        codecs = null;
+        NEGOTIATED.clear();
+    }
+
+    private static Codec negotiate(String accept) {
+        var codecs = codecs();
+        Codec selected = null;
+        var quality = 0D;
+        for (var range : accept.split(",")) {
+            var params = range.split(";");
+            var type = mediaType(params[0]);
+            var q = quality(params);
+            if (q <= quality) {
+                continue;
+            }
+
+            var codec = codecs.get(type);
+            if (codec == null && (WILDCARD.equals(type) || APPLICATION_WILDCARD.equals(type))) {
+                codec = json();
+            }
+
+            if (codec != null) {
+                selected = codec;
+                quality = q;
+            }
+        }
+
+        return selected == null ? json() : selected;
+    }
+
+    private static double quality(String[] params) {
+        for (var idx = 1; idx < params.length; idx++) {
+            var param = params[idx].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+
+        return 1;
+    }
+
+    private static String mediaType(String value) {
+        var idx = value.indexOf(';');
+        return (idx > -1 ? value.substring(0, idx) : value).trim().toLowerCase();
+    }
+
+    private static Map<String, Codec> codecs() {
+        var codecs = Codecs.codecs;
+        if (codecs == null) {
+            var injector = Globals.get(Injector.class);
+            if (injector == null) {
+                // 未启动时使用内置的编解码组件
+                return DEFAULTS;
+            }
+
+            synchronized (Codecs.class) {
+                codecs = Codecs.codecs;
+                if (codecs == null) {
+                    Codecs.codecs = codecs = load(injector);
+                }
+            }
+        }
+
+        return codecs;
+    }
+
+    private static Map<String, Codec> load(Injector injector) {
+        var names = SPILoader.spiNames(Codec.class);
+        if (CollectionUtils.isEmpty(names)) {
+            return DEFAULTS;
+        }
+
+        var codecs = new LinkedHashMap<String, Codec>();
+        names.forEach(name -> {
+            var codec = injector.getInstance(Key.get(Codec.class, Names.named(name)));
+            codecs.putIfAbsent(mediaType(codec.getMediaType()), codec);
+        });
+
+        codecs.putIfAbsent(JSON_TYPE, JSON);
+        return Map.copyOf(codecs);
+    }
+}
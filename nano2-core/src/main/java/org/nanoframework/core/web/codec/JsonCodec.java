@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+
+import org.nanoframework.toolkit.consts.ContentType;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+/**
+ * 基于FastJSON的JSON编解码，为默认的编解码组件.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public class JsonCodec implements Codec {
+    static final SerializerFeature[] FEATURES = {SerializerFeature.WriteDateUseDateFormat };
+
+    @Override
+    public String getMediaType() {
+        return ContentType.APPLICATION_JSON;
+    }
+
+    @Override
+    public void encode(Object value, OutputStream out) throws IOException {
+        JSON.writeJSONString(out, value, FEATURES);
+    }
+
+    @Override
+    public Object decode(byte[] buf, int off, int len, Charset charset, Type type) throws IOException {
+        return JSON.parseObject(buf, off, len, charset, type);
+    }
+}
@@ -18,7 +18,7 @@ package org.nanoframework.core.web.filter;
 import java.io.IOException;
 import java.io.Writer;
 import java.net.URLDecoder;
-import java.util.HashMap;
+import java.util.concurrent.TimeoutException;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -31,20 +31,23 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.nanoframework.core.rest.RouteMapper;
 import org.nanoframework.core.rest.enums.HttpType;
+import org.nanoframework.core.rest.exception.LimitExceededException;
 import org.nanoframework.core.rest.exception.RouteException;
+import org.nanoframework.core.rest.exception.RouteTimeoutException;
+import org.nanoframework.core.web.codec.Codecs;
 import org.nanoframework.core.web.http.HttpStatus;
+import org.nanoframework.core.web.http.ParameterMap;
+import org.nanoframework.core.web.http.ResponseAbortedException;
+import org.nanoframework.core.web.http.ResponseWriter;
 import org.nanoframework.core.web.http.ResultMap;
+import org.nanoframework.core.web.http.StreamResponse;
 import org.nanoframework.core.web.http.URLContext;
 import org.nanoframework.core.web.mvc.Model;
 import org.nanoframework.core.web.mvc.View;
 import org.nanoframework.toolkit.consts.Charsets;
-import org.nanoframework.toolkit.consts.ContentType;
 import org.nanoframework.toolkit.lang.ObjectUtils;
 import org.nanoframework.toolkit.lang.StringUtils;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.serializer.SerializerFeature;
-
 /**
  * @author yanghe
  * @since 1.2
@@ -78,10 +81,9 @@ public abstract class AbstractFilter implements Filter {
     protected boolean validHttpType(ServletResponse response, Writer out, RouteMapper mapper, String type)
             throws IOException {
         if (!mapper.hasType(HttpType.valueOf(type))) {
-            response.setContentType(ContentType.APPLICATION_JSON);
-            out = response.getWriter();
-            out.write(JSON.toJSONString(HttpStatus.BAD_REQUEST.to(
-                    String.format("不支持此请求类型(%s)，仅支持类型(%s)", type, StringUtils.join(mapper.getTypeValues(), " / ")))));
+            ResponseWriter.json(response, HttpStatus.BAD_REQUEST.to(
+                    String.format("不支持此请求类型(%s)，仅支持类型(%s)", type, StringUtils.join(mapper.getTypeValues(), " / "))),
+                    null);
             return false;
         }
 
@@ -93,56 +95,94 @@ public abstract class AbstractFilter implements Filter {
         if (ret instanceof View) {
             ((View) ret).redirect(model.get(), (HttpServletRequest) request, (HttpServletResponse) response);
         } else if (ret instanceof String) {
-            response.setContentType(ContentType.APPLICATION_JSON);
-            out = response.getWriter();
-            out.write((String) ret);
+            ResponseWriter.write(response, (String) ret);
         } else if (ret == Void.TYPE) {
             return;
+        } else if (StreamResponse.isStream(ret)) {
+            StreamResponse.write((HttpServletRequest) request, response, ret);
         } else if (ret != null) {
-            response.setContentType(ContentType.APPLICATION_JSON);
-            out = response.getWriter();
             /** 跨域JSONP的Ajax请求支持 */
             var callback = urlContext.getParameter().get("callback");
-            var value = JSON.toJSONString(ret, SerializerFeature.WriteDateUseDateFormat);
-            if (ObjectUtils.isNotEmpty(callback)) {
-                out.write(String.format("%s(%s)", callback, value));
-            } else {
-                out.write(value);
-            }
+            write(request, response, ret, ObjectUtils.isNotEmpty(callback) ? String.valueOf(callback) : null);
         } else {
-            response.setContentType(ContentType.APPLICATION_JSON);
-            out = response.getWriter();
-            out.write(HttpStatus.BAD_REQUEST.to().toString());
+            ResponseWriter.write(response, HttpStatus.BAD_REQUEST.to().toString());
         }
     }
 
-    protected URLContext create(final HttpServletRequest request) throws IOException {
-        var parameter = new HashMap<String, Object>();
-        request.getParameterMap().forEach((key, value) -> {
-            if (value.length > 0) {
-                if (key.endsWith("[]")) {
-                    parameter.put(key.toLowerCase(), value);
-                } else {
-                    parameter.put(key.toLowerCase(), value[0]);
-                }
-            }
-        });
+    /**
+     * 根据请求头Accept选择编解码组件输出响应对象，JSONP请求始终输出JSON.
+     * @param request ServletRequest
+     * @param response ServletResponse
+     * @param value 响应对象
+     * @param callback JSONP回调函数名称
+     * @throws IOException if I/O error occur
+     * @since 2.0.0
+     */
+    protected void write(ServletRequest request, ServletResponse response, Object value, String callback)
+            throws IOException {
+        var codec = Codecs.accept(((HttpServletRequest) request).getHeader(Codecs.ACCEPT));
+        if (response instanceof HttpServletResponse) {
+            Codecs.vary((HttpServletResponse) response);
+        }
+
+        if (callback == null && !Codecs.isJson(codec)) {
+            ResponseWriter.write(response, codec, value);
+        } else {
+            ResponseWriter.json(response, value, callback);
+        }
+    }
+
+    /**
+     * 输出异常信息. 响应已部分输出时无法再追加异常信息，抛出{@link ResponseAbortedException}由容器中止响应.
+     * @param request ServletRequest
+     * @param response ServletResponse
+     * @param e 异常
+     * @throws IOException if I/O error occur
+     * @since 2.0.0
+     */
+    protected void writeError(ServletRequest request, ServletResponse response, Throwable e) throws IOException {
+        if (e instanceof ResponseAbortedException) {
+            throw (ResponseAbortedException) e;
+        }
+
+        if (response.isCommitted()) {
+            throw new ResponseAbortedException(e);
+        }
 
-        var uri = URLDecoder.decode(((HttpServletRequest) request).getRequestURI(), Charsets.UTF_8.name());
+        write(request, response, error(e), null);
+    }
+
+    protected URLContext create(final HttpServletRequest request) throws IOException {
+        var parameter = new ParameterMap(request.getParameterMap());
+        var uri = decode(request.getRequestURI());
         var urlContext = URLContext.builder().context(uri).parameter(parameter).build();
-        var uris = uri.split(";");
-        if (uris.length > 1) {
-            urlContext.setContext(uris[0]);
-            var specials = new String[uris.length - 1];
-            System.arraycopy(uris, 1, specials, 0, specials.length);
-            urlContext.setSpecial(specials);
+        if (uri.indexOf(';') > -1) {
+            var uris = uri.split(";");
+            if (uris.length > 1) {
+                urlContext.setContext(uris[0]);
+                var specials = new String[uris.length - 1];
+                System.arraycopy(uris, 1, specials, 0, specials.length);
+                urlContext.setSpecial(specials);
+            }
         }
 
         return urlContext;
     }
 
+    private static String decode(String uri) throws IOException {
+        if (uri.indexOf('%') < 0 && uri.indexOf('+') < 0) {
+            return uri;
+        }
+
+        return URLDecoder.decode(uri, Charsets.UTF_8.name());
+    }
+
     protected ResultMap error(Throwable e) {
-        if (e instanceof RouteException) {
+        if (e instanceof LimitExceededException) {
+            return HttpStatus.SERVICE_UNAVAILABLE.to(e.getMessage());
+        } else if (e instanceof TimeoutException || e instanceof RouteTimeoutException) {
+            return HttpStatus.GATEWAY_TIMEOUT.to(e.getMessage());
+        } else if (e instanceof RouteException) {
             return HttpStatus.BAD_REQUEST.to(e.getMessage());
         } else {
             return HttpStatus.INTERNAL_SERVER_ERROR.to(e.getMessage());
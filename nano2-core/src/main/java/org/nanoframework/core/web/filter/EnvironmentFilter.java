@@ -16,13 +16,13 @@
 package org.nanoframework.core.web.filter;
 
 import java.io.IOException;
-import java.util.Map;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.nanoframework.core.web.filter.RouteFilter.HttpContext;
+import org.nanoframework.core.web.http.RequestContext;
 
 /**
  * @author yanghe
@@ -33,7 +33,7 @@ public class EnvironmentFilter extends AbstractFilter {
     @Override
     protected boolean invoke(HttpServletRequest request, HttpServletResponse response)
             throws IOException, ServletException {
-        HttpContext.set(Map.of(HttpServletRequest.class, request, HttpServletResponse.class, response));
+        HttpContext.set(RequestContext.builder().request(request).response(response).build());
         return true;
     }
 
@@ -16,25 +16,39 @@
 package org.nanoframework.core.web.filter;
 
 import java.io.IOException;
-import java.io.Writer;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.nanoframework.core.concurrent.PriorityLanes;
+import org.nanoframework.core.concurrent.PriorityLanes.Permit;
 import org.nanoframework.core.rest.Routes;
+import org.nanoframework.core.rest.annotation.Route;
+import org.nanoframework.core.rest.cache.ResponseCache;
 import org.nanoframework.core.rest.enums.HttpType;
 import org.nanoframework.core.rest.exception.RouteException;
+import org.nanoframework.core.rest.metrics.RouteMetrics.Recorder;
+import org.nanoframework.core.web.codec.Codecs;
+import org.nanoframework.core.web.http.HttpStatus;
+import org.nanoframework.core.web.http.RequestContext;
 import org.nanoframework.core.web.http.URLContext;
 import org.nanoframework.core.web.mvc.Model;
 import org.nanoframework.core.web.mvc.support.RedirectModel;
 import org.nanoframework.modules.logging.Logger;
 import org.nanoframework.modules.logging.LoggerFactory;
-import org.nanoframework.toolkit.consts.ContentType;
-
-import com.alibaba.fastjson.JSON;
-import com.google.common.collect.Maps;
 
 import lombok.NonNull;
 
@@ -49,38 +63,74 @@ import lombok.NonNull;
 public class RouteFilter extends AbstractFilter {
     private static final Logger LOGGER = LoggerFactory.getLogger(RouteFilter.class);
 
+    private static final String TIMEOUT_MESSAGE = "服务调用超时";
+
     @Override
     protected boolean invoke(HttpServletRequest request, HttpServletResponse response)
             throws IOException, ServletException {
         var context = create((HttpServletRequest) request);
         var method = ((HttpServletRequest) request).getMethod();
-        var mapper = Routes.route().lookup(context.getNoRootContext(), HttpType.valueOf(method));
+        var type = HttpType.valueOf(method);
+        var match = Routes.route().lookup(context.getNoRootContext(), type);
 
-        Writer out = null;
-        if (mapper != null) {
+        if (match != null) {
+            Recorder recorder = null;
+            Permit permit = null;
+            var start = 0L;
+            var async = false;
+            var error = false;
             try {
-                if (!validHttpType(response, out, mapper, method)) {
+                if (!validHttpType(response, null, match.getMapper(), method)) {
+                    return false;
+                }
+
+                var mapper = match.getMapper();
+                recorder = mapper.getMetrics().recorder(type);
+                start = recorder.start();
+                var codec = Codecs.accept(request.getHeader(Codecs.ACCEPT));
+                Codecs.vary(response);
+                var cache = type == HttpType.GET && Codecs.isJson(codec) ? mapper.getCache() : null;
+                var key = cache == null ? null : cache.key(match, context.getParameter());
+                var entry = key == null ? null : cache.get(key);
+                if (entry != null) {
+                    cache.write(request, response, entry);
+                    return false;
+                }
+
+                var route = mapper.getMethod().getAnnotation(Route.class);
+                permit = PriorityLanes.shared().acquire(route);
+                if (permit == null) {
+                    error = true;
+                    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.code);
+                    write(request, response, HttpStatus.SERVICE_UNAVAILABLE.to("服务繁忙，请稍后重试"), null);
                     return false;
                 }
 
                 var model = new RedirectModel();
-                HttpContext.set(Map.of(HttpServletRequest.class, request, HttpServletResponse.class, response,
-                        Model.class, model, URLContext.class, context));
+                var requestContext = RequestContext.builder().request(request).response(response).model(model)
+                        .urlContext(context).deadline(deadline(route)).build();
+                HttpContext.set(requestContext);
 
-                var value = Routes.route().invoke(mapper, context.getParameter(), request, response, model, context);
-                process(request, response, out, context, value, model);
+                var value = Routes.route().invoke(match, context.getParameter(), request, response, model, context);
+                if (value instanceof CompletionStage) {
+                    async = async(requestContext, route, (CompletionStage<?>) value, recorder, start, permit);
+                } else if (key != null && ResponseCache.isCacheable(value)) {
+                    cache.write(request, response, cache.put(key, value));
+                } else {
+                    process(request, response, null, context, value, model);
+                }
             } catch (Throwable e) {
+                error = true;
                 LOGGER.error(e.getMessage(), e);
-                response.setContentType(ContentType.APPLICATION_JSON);
-                if (out == null) {
-                    out = response.getWriter();
+                writeError(request, response, e);
+            } finally {
+                if (recorder != null && !async) {
+                    recorder.stop(start, error);
                 }
 
-                out.write(JSON.toJSONString(error(e)));
-            } finally {
-                if (out != null) {
-                    out.flush();
-                    out.close();
+                // 异步执行的路由在CompletionStage完成或超时时释放
+                if (permit != null && !async) {
+                    permit.release();
                 }
 
                 HttpContext.clear();
@@ -92,38 +142,273 @@ public class RouteFilter extends AbstractFilter {
         return true;
     }
 
+    private static long deadline(Route route) {
+        if (route != null && route.timeout() > 0) {
+            var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(route.timeout());
+            return deadline == 0 ? 1 : deadline;
+        }
+
+        return 0;
+    }
+
+    /**
+     * 路由返回CompletionStage时，开启Servlet异步处理并释放当前容器线程，在CompletionStage完成后输出结果. <br>
+     * 容器不支持异步处理时，阻塞等待结果，等待时间不超过路由的timeout，超时时取消CompletionStage并抛出{@link TimeoutException}.
+     * @return 开启异步处理返回true，此时执行通道的许可由异步处理完成时释放
+     */
+    boolean async(RequestContext context, Route route, CompletionStage<?> stage, Recorder recorder, long start,
+            Permit permit) throws Throwable {
+        var request = context.getRequest();
+        if (!request.isAsyncSupported()) {
+            var future = stage.toCompletableFuture();
+            Object value;
+            try {
+                if (route != null && route.timeout() > 0) {
+                    value = future.get(route.timeout(), TimeUnit.MILLISECONDS);
+                } else {
+                    value = future.get();
+                }
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                throw new TimeoutException(TIMEOUT_MESSAGE);
+            }
+
+            process(request, context.getResponse(), null, context.getUrlContext(), value, context.getModel());
+            return false;
+        }
+
+        var asyncContext = request.startAsync(request, context.getResponse());
+        if (route != null && route.timeout() > 0) {
+            asyncContext.setTimeout(route.timeout());
+        }
+
+        var completion = new AsyncCompletion(asyncContext, context, recorder, start, permit);
+        asyncContext.addListener(completion);
+        stage.whenComplete(completion);
+        return true;
+    }
+
+    /**
+     * 异步请求的结果输出，CompletionStage完成与容器超时只会有一方输出结果.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    class AsyncCompletion implements AsyncListener, BiConsumer<Object, Throwable> {
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private final AsyncContext asyncContext;
+
+        private final RequestContext context;
+
+        private final Recorder recorder;
+
+        private final long start;
+
+        private final Permit permit;
+
+        AsyncCompletion(AsyncContext asyncContext, RequestContext context, Recorder recorder, long start,
+                Permit permit) {
+            this.asyncContext = asyncContext;
+            this.context = context;
+            this.recorder = recorder;
+            this.start = start;
+            this.permit = permit;
+        }
+
+        private void finish(boolean failed) {
+            try {
+                recorder.stop(start, failed);
+            } finally {
+                if (permit != null) {
+                    permit.release();
+                }
+            }
+        }
+
+        @Override
+        public void accept(Object value, Throwable error) {
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+
+            var request = asyncContext.getRequest();
+            var response = asyncContext.getResponse();
+            var previous = HttpContext.attach(context);
+            var failed = error != null;
+            try {
+                if (error == null) {
+                    process(request, response, null, context.getUrlContext(), value, context.getModel());
+                } else {
+                    var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+                            : error;
+                    LOGGER.error(cause.getMessage(), cause);
+                    writeError(request, response, cause);
+                }
+            } catch (Throwable e) {
+                failed = true;
+                LOGGER.error(e.getMessage(), e);
+            } finally {
+                HttpContext.detach(previous);
+                finish(failed);
+                asyncContext.complete();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    writeError(asyncContext.getRequest(), asyncContext.getResponse(),
+                            new TimeoutException(TIMEOUT_MESSAGE));
+                } finally {
+                    finish(true);
+                    asyncContext.complete();
+                }
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) throws IOException {
+            if (completed.compareAndSet(false, true)) {
+                finish(true);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            if (completed.compareAndSet(false, true)) {
+                finish(false);
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) throws IOException {
+
+        }
+    }
+
     /**
+     * 请求上下文，在请求线程中设置，通过{@link #wrap(Runnable)}、{@link #wrap(Callable)}或
+     * {@link org.nanoframework.core.concurrent.ContextExecutor}传递到其它线程.
      * @author yanghe
      * @since 1.3.5
      */
     public static class HttpContext {
-        private static ThreadLocal<Map<Class<?>, Object>> CONTEXT = new ThreadLocal<>();
+        private static final ThreadLocal<RequestContext> CONTEXT = new ThreadLocal<>();
+
+        protected static void set(RequestContext context) {
+            CONTEXT.set(context);
+        }
 
         protected static void set(Map<Class<?>, Object> context) {
-            clear();
-            CONTEXT.set(Maps.newLinkedHashMap(context));
+            if (context == null) {
+                clear();
+                return;
+            }
+
+            CONTEXT.set(RequestContext.builder().request((HttpServletRequest) context.get(HttpServletRequest.class))
+                    .response((HttpServletResponse) context.get(HttpServletResponse.class))
+                    .model((Model) context.get(Model.class)).urlContext((URLContext) context.get(URLContext.class))
+                    .build());
         }
 
         protected static void clear() {
-            var ctx = CONTEXT.get();
-            if (ctx != null) {
-                ctx.clear();
-                CONTEXT.remove();
-            }
+            CONTEXT.remove();
+        }
+
+        /**
+         * @return 当前线程的请求上下文，不存在时返回null
+         * @since 2.0.0
+         */
+        public static RequestContext current() {
+            return CONTEXT.get();
         }
 
-        @SuppressWarnings("unchecked")
         public static <T> T get(@NonNull Class<T> type) {
             var context = CONTEXT.get();
             if (context != null) {
-                return (T) context.get(type);
+                return context.get(type);
             }
 
             throw new NullPointerException("未设置Class: " + type.getName());
         }
 
+        /**
+         * @param task 任务
+         * @return 在执行线程中使用当前请求上下文的任务，当前线程不存在请求上下文时返回原任务
+         * @since 2.0.0
+         */
+        public static Runnable wrap(@NonNull Runnable task) {
+            var context = CONTEXT.get();
+            if (context == null) {
+                return task;
+            }
+
+            return () -> {
+                var previous = attach(context);
+                try {
+                    task.run();
+                } finally {
+                    detach(previous);
+                }
+            };
+        }
+
+        /**
+         * @param <V> 返回值类型
+         * @param task 任务
+         * @return 在执行线程中使用当前请求上下文的任务，当前线程不存在请求上下文时返回原任务
+         * @since 2.0.0
+         */
+        public static <V> Callable<V> wrap(@NonNull Callable<V> task) {
+            var context = CONTEXT.get();
+            if (context == null) {
+                return task;
+            }
+
+            return wrap(context, task);
+        }
+
+        /**
+         * @param <V> 返回值类型
+         * @param context 执行任务时使用的请求上下文
+         * @param task 任务
+         * @return 在执行线程中使用指定请求上下文的任务
+         * @since 2.0.0
+         */
+        public static <V> Callable<V> wrap(@NonNull RequestContext context, @NonNull Callable<V> task) {
+            return () -> {
+                var previous = attach(context);
+                try {
+                    return task.call();
+                } finally {
+                    detach(previous);
+                }
+            };
+        }
+
+        static RequestContext attach(RequestContext context) {
+            var previous = CONTEXT.get();
+            CONTEXT.set(context);
+            return previous;
+        }
+
+        static void detach(RequestContext previous) {
+            if (previous == null) {
+                CONTEXT.remove();
+            } else {
+                CONTEXT.set(previous);
+            }
+        }
+
+        /**
+         * @deprecated 使用{@link HttpContext#wrap(Callable)}或{@link org.nanoframework.core.concurrent.ContextExecutor}
+         */
+        @Deprecated
         public static class HttpContextCopies {
-            private final Map<Class<?>, Object> context;
+            private final RequestContext context;
 
             private final Thread parent;
 
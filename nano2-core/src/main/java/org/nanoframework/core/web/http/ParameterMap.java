@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.http;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 请求参数视图，按需从容器的参数表中取值，参数名称忽略大小写. <br>
+ * 参数名称以'[]'结尾时取值为数组，否则取第一个值，与原有的参数列表保持一致.
+ * 只有在遍历或修改时才会复制为参数名称小写的HashMap.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class ParameterMap extends AbstractMap<String, Object> {
+    private static final String ARRAY_SUFFIX = "[]";
+
+    private final Map<String, String[]> source;
+
+    private Map<String, Object> copy;
+
+    /**
+     * @param source 容器的参数表
+     */
+    public ParameterMap(Map<String, String[]> source) {
+        this.source = source == null ? Collections.emptyMap() : source;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+
+        if (copy != null) {
+            return copy.get(((String) key).toLowerCase());
+        }
+
+        var name = (String) key;
+        var values = source.get(name);
+        if (values == null) {
+            for (var entry : source.entrySet()) {
+                if (name.equalsIgnoreCase(entry.getKey())) {
+                    return value(name, entry.getValue());
+                }
+            }
+
+            return null;
+        }
+
+        return value(name, values);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return copy == null ? source.isEmpty() : copy.isEmpty();
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return copy().put(key == null ? null : key.toLowerCase(), value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return copy().remove(key instanceof String ? ((String) key).toLowerCase() : key);
+    }
+
+    @Override
+    public void clear() {
+        copy().clear();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return copy().entrySet();
+    }
+
+    private static Object value(String name, String[] values) {
+        if (values.length == 0) {
+            return null;
+        }
+
+        return name.endsWith(ARRAY_SUFFIX) ? values : values[0];
+    }
+
+    private Map<String, Object> copy() {
+        if (copy == null) {
+            var copy = new HashMap<String, Object>(source.size() << 1);
+            source.forEach((key, values) -> {
+                var value = value(key, values);
+                if (value != null) {
+                    copy.put(key.toLowerCase(), value);
+                }
+            });
+
+            this.copy = copy;
+        }
+
+        return copy;
+    }
+}
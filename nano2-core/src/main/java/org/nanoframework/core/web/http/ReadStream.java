@@ -16,35 +16,46 @@
 package org.nanoframework.core.web.http;
 
 import java.io.IOException;
-import java.util.Scanner;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.nanoframework.core.web.codec.Codec;
+import org.nanoframework.core.web.codec.Codecs;
 import org.nanoframework.core.web.filter.RouteFilter.HttpContext;
+import org.nanoframework.toolkit.consts.Charsets;
 
-import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.TypeReference;
 
 /**
- * 读取HttpServletRequest中的流.
+ * 读取HttpServletRequest中的流. <br>
+ * 请求体读取到线程复用的字节缓冲区中，对象由Content-Type对应的{@link Codec}直接从字节解析，不再构造中间字符串.
+ * 可通过context.request.body.max.size设置请求体最大长度，默认为10MB.
  * @author yanghe
  * @since 1.3.10
  */
 public class ReadStream {
+    /** 请求体最大长度. */
+    public static final String MAX_BODY_SIZE = "context.request.body.max.size";
+
+    private static final int DEFAULT_MAX_BODY_SIZE = 10 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /** 超过此长度的缓冲区在使用后不再复用. */
+    private static final int MAX_POOLED_BUFFER_SIZE = 256 * 1024;
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
     /**
      * @return Request input stream
      * @throws IOException if I/O error occur
      */
     public static String read() throws IOException {
         var request = HttpContext.get(HttpServletRequest.class);
-        try (var scanner = new Scanner(request.getInputStream())) {
-            var buf = new StringBuilder();
-            while (scanner.hasNextLine()) {
-                buf.append(scanner.nextLine());
-            }
-
-            return buf.toString();
-        }
+        return read(request, (buf, len) -> new String(buf, 0, len, charset(request)));
     }
 
     /**
@@ -54,6 +65,96 @@ public class ReadStream {
      * @throws IOException if I/O error occur
      */
     public static <T> T read(final TypeReference<T> type) throws IOException {
-        return JSON.parseObject(read(), type);
+        return read(type.getType());
+    }
+
+    /**
+     * @param <T> Type类型
+     * @param type 反序列化类型，支持泛型
+     * @return 请求体为空时返回null
+     * @throws IOException if I/O error occur
+     * @since 2.0.0
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T read(final Type type) throws IOException {
+        var request = HttpContext.get(HttpServletRequest.class);
+        var codec = Codecs.contentType(request.getContentType());
+        return read(request, (buf, len) -> len == 0 ? null : (T) codec.decode(buf, 0, len, charset(request), type));
+    }
+
+    /**
+     * @return 当前请求Content-Type对应的编解码组件
+     * @since 2.0.0
+     */
+    public static Codec codec() {
+        return Codecs.contentType(HttpContext.get(HttpServletRequest.class).getContentType());
+    }
+
+    private static <T> T read(HttpServletRequest request, BodyParser<T> parser) throws IOException {
+        var maxSize = Integer.parseInt(
+                System.getProperty(MAX_BODY_SIZE, String.valueOf(DEFAULT_MAX_BODY_SIZE)).trim());
+        var contentLength = request.getContentLengthLong();
+        if (contentLength > maxSize) {
+            throw exceeded(contentLength, maxSize);
+        }
+
+        var buf = BUFFER.get();
+        if (contentLength > buf.length) {
+            buf = new byte[(int) contentLength];
+        }
+
+        var len = 0;
+        try (var input = request.getInputStream()) {
+            while (true) {
+                if (len == buf.length) {
+                    // 缓冲区已满时读取一个字节判断是否已到达流末尾
+                    var next = input.read();
+                    if (next == -1) {
+                        break;
+                    }
+
+                    if (len >= maxSize) {
+                        throw exceeded(len + 1L, maxSize);
+                    }
+
+                    buf = Arrays.copyOf(buf, (int) Math.min(maxSize, (long) len << 1));
+                    buf[len++] = (byte) next;
+                    continue;
+                }
+
+                var read = input.read(buf, len, buf.length - len);
+                if (read == -1) {
+                    break;
+                }
+
+                len += read;
+                if (len > maxSize) {
+                    throw exceeded(len, maxSize);
+                }
+            }
+        }
+
+        if (buf.length <= MAX_POOLED_BUFFER_SIZE) {
+            BUFFER.set(buf);
+        }
+
+        return parser.parse(buf, len);
+    }
+
+    private static IOException exceeded(long length, int maxSize) {
+        return new IOException(String.format("请求体长度超过限制: %d > %d", length, maxSize));
+    }
+
+    private static Charset charset(HttpServletRequest request) {
+        var encoding = request.getCharacterEncoding();
+        return encoding == null ? Charsets.UTF_8 : Charset.forName(encoding);
+    }
+
+    /**
+     * @author yanghe
+     * @since 2.0.0
+     */
+    private interface BodyParser<T> {
+        T parse(byte[] buf, int len) throws IOException;
     }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.http;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.nanoframework.core.web.mvc.Model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 单次请求的上下文，请求处理过程中不可修改，可在线程间直接传递.
+ * @author yanghe
+ * @since 2.0.0
+ */
+@Getter
+public final class RequestContext {
+    /** 请求标识的请求头名称. */
+    public static final String CORRELATION_ID_HEADER = "context.request.id.header";
+
+    private static final String DEFAULT_CORRELATION_ID_HEADER = "X-Request-Id";
+
+    private static final String ID_PREFIX = Long.toHexString(ThreadLocalRandom.current().nextLong()) + '-';
+
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+
+    private final HttpServletRequest request;
+
+    private final HttpServletResponse response;
+
+    private final Model model;
+
+    private final URLContext urlContext;
+
+    /** 请求截止时间，基于{@link System#nanoTime()}，为0时表示不限制. */
+    private final long deadline;
+
+    private volatile String correlationId;
+
+    @Builder
+    private RequestContext(HttpServletRequest request, HttpServletResponse response, Model model,
+            URLContext urlContext, long deadline, String correlationId) {
+        this.request = request;
+        this.response = response;
+        this.model = model;
+        this.urlContext = urlContext;
+        this.deadline = deadline;
+        this.correlationId = correlationId;
+    }
+
+    /**
+     * @return 请求标识，优先使用请求头中的标识，不存在时生成进程内唯一的标识
+     */
+    public String getCorrelationId() {
+        var correlationId = this.correlationId;
+        if (correlationId == null) {
+            if (request != null) {
+                correlationId = request.getHeader(
+                        System.getProperty(CORRELATION_ID_HEADER, DEFAULT_CORRELATION_ID_HEADER));
+            }
+
+            if (correlationId == null || correlationId.isEmpty()) {
+                correlationId = ID_PREFIX + Long.toHexString(ID_SEQUENCE.incrementAndGet());
+            }
+
+            this.correlationId = correlationId;
+        }
+
+        return correlationId;
+    }
+
+    /**
+     * @param unit 时间单位
+     * @return 距离截止时间的剩余时间，不限制时返回{@link Long#MAX_VALUE}
+     */
+    public long remaining(TimeUnit unit) {
+        if (deadline == 0) {
+            return Long.MAX_VALUE;
+        }
+
+        return unit.convert(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return 是否已超过截止时间
+     */
+    public boolean isExpired() {
+        return deadline != 0 && deadline - System.nanoTime() <= 0;
+    }
+
+    /**
+     * @param <T> 对象类型
+     * @param type 对象类型
+     * @return 上下文中对应类型的对象，不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Class<T> type) {
+        if (type == HttpServletRequest.class || type == ServletRequest.class) {
+            return (T) request;
+        } else if (type == HttpServletResponse.class || type == ServletResponse.class) {
+            return (T) response;
+        } else if (type == Model.class) {
+            return (T) model;
+        } else if (type == URLContext.class) {
+            return (T) urlContext;
+        } else if (type == RequestContext.class) {
+            return (T) this;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.http;
+
+import java.io.IOException;
+
+/**
+ * 响应内容已部分输出后出现异常，响应无法再修正为有效内容，需要由容器中止响应.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public class ResponseAbortedException extends IOException {
+    private static final long serialVersionUID = -3618409537216170931L;
+
+    public ResponseAbortedException(Throwable cause) {
+        super("响应已部分输出，中止响应: " + cause.getMessage(), cause);
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import javax.servlet.ServletResponse;
+
+import org.nanoframework.core.web.codec.Codec;
+import org.nanoframework.toolkit.consts.ContentType;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+/**
+ * 将响应内容以UTF-8编码直接写入ServletOutputStream. <br>
+ * 编码使用线程复用的字节缓冲区，内容未超过缓冲区时设置Content-Length一次性输出，超过时按缓冲区大小分块输出.
+ * 可通过context.response.buffer.size设置缓冲区大小，默认为64KB.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class ResponseWriter extends Writer {
+    /** 响应缓冲区大小. */
+    public static final String BUFFER_SIZE = "context.response.buffer.size";
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final int MIN_BUFFER_SIZE = 1024;
+
+    private static final SerializerFeature[] FEATURES = {SerializerFeature.WriteDateUseDateFormat };
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[bufferSize()]);
+
+    private final ServletResponse response;
+
+    private final byte[] buf;
+
+    private int count;
+
+    private long drained;
+
+    private char highSurrogate;
+
+    private OutputStream out;
+
+    ResponseWriter(ServletResponse response, OutputStream out) {
+        this.response = response;
+        this.out = out;
+        this.buf = BUFFER.get();
+    }
+
+    private static int bufferSize() {
+        var size = Integer.parseInt(System.getProperty(BUFFER_SIZE, String.valueOf(DEFAULT_BUFFER_SIZE)).trim());
+        return Math.max(size, MIN_BUFFER_SIZE);
+    }
+
+    /**
+     * 以JSON格式输出响应内容.
+     * @param response ServletResponse
+     * @param value 响应对象
+     * @param callback JSONP回调函数名称，为空时直接输出JSON
+     * @throws IOException if I/O error occur
+     */
+    public static void json(ServletResponse response, Object value, String callback) throws IOException {
+        response.setContentType(ContentType.APPLICATION_JSON);
+        var writer = new ResponseWriter(response, null);
+        try {
+            if (callback != null && !callback.isEmpty()) {
+                writer.write(callback);
+                writer.write('(');
+                JSON.writeJSONString(writer, value, FEATURES);
+                writer.write(')');
+            } else {
+                JSON.writeJSONString(writer, value, FEATURES);
+            }
+        } catch (RuntimeException | IOException e) {
+            writer.abort(e);
+            throw e;
+        }
+
+        writer.close();
+    }
+
+    /**
+     * 以JSON的Content-Type输出已序列化的响应内容.
+     * @param response ServletResponse
+     * @param value 响应内容
+     * @throws IOException if I/O error occur
+     */
+    public static void write(ServletResponse response, String value) throws IOException {
+        response.setContentType(ContentType.APPLICATION_JSON);
+        var writer = new ResponseWriter(response, null);
+        writer.write(value);
+        writer.close();
+    }
+
+    /**
+     * 以JSON的Content-Type输出已编码的响应内容.
+     * @param response ServletResponse
+     * @param value 响应内容
+     * @throws IOException if I/O error occur
+     * @since 2.0.0
+     */
+    public static void write(ServletResponse response, byte[] value) throws IOException {
+        response.setContentType(ContentType.APPLICATION_JSON);
+        response.setContentLength(value.length);
+        var out = response.getOutputStream();
+        out.write(value);
+        out.flush();
+    }
+
+    /**
+     * 使用指定的编解码组件输出响应内容，Content-Type为编解码组件的媒体类型.
+     * @param response ServletResponse
+     * @param codec 编解码组件
+     * @param value 响应对象
+     * @throws IOException if I/O error occur
+     * @since 2.0.0
+     */
+    public static void write(ServletResponse response, Codec codec, Object value) throws IOException {
+        response.setContentType(codec.getMediaType());
+        var writer = new ResponseWriter(response, null);
+        try {
+            codec.encode(value, writer.new BufferStream());
+        } catch (RuntimeException | IOException e) {
+            writer.abort(e);
+            throw e;
+        }
+
+        writer.close();
+    }
+
+    /**
+     * 按{@link #write(ServletResponse, String)}及{@link #json(ServletResponse, Object, String)}的规则编码响应内容，
+     * 字符串直接编码，其它对象序列化为JSON.
+     * @param value 响应对象
+     * @return UTF-8编码的响应内容
+     * @throws IOException if I/O error occur
+     * @since 2.0.0
+     */
+    public static byte[] encode(Object value) throws IOException {
+        var out = new ByteArrayOutputStream();
+        var writer = new ResponseWriter(null, out);
+        if (value instanceof String) {
+            writer.write((String) value);
+        } else {
+            JSON.writeJSONString(writer, value, FEATURES);
+        }
+
+        writer.close();
+        return out.toByteArray();
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        for (var idx = off; idx < off + len; idx++) {
+            encode(cbuf[idx]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        for (var idx = off; idx < off + len; idx++) {
+            encode(str.charAt(idx));
+        }
+    }
+
+    private void encode(char c) throws IOException {
+        if (highSurrogate != 0) {
+            var high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                var codePoint = Character.toCodePoint(high, c);
+                ensure(4);
+                buf[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+
+            // 不成对的代理字符
+            ensure(1);
+            buf[count++] = '?';
+        }
+
+        if (c < 0x80) {
+            ensure(1);
+            buf[count++] = (byte) c;
+        } else if (c < 0x800) {
+            ensure(2);
+            buf[count++] = (byte) (0xC0 | (c >> 6));
+            buf[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            ensure(1);
+            buf[count++] = '?';
+        } else {
+            ensure(3);
+            buf[count++] = (byte) (0xE0 | (c >> 12));
+            buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    /**
+     * 以JSON格式写入响应缓冲区.
+     * @param value 响应对象
+     */
+    void writeJson(Object value) {
+        JSON.writeJSONString(this, value, FEATURES);
+    }
+
+    /**
+     * 输出缓冲区内容并刷新输出流，用于分块输出流式响应.
+     * @throws IOException if I/O error occur
+     */
+    void push() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * @return 已写入的字节数，包括已输出和缓冲区中的内容
+     */
+    long position() {
+        return drained + count;
+    }
+
+    /**
+     * 丢弃指定位置之后仍在缓冲区中的内容，用于撤销输出失败的流式响应元素.
+     * @param position {@link #position()}返回的位置
+     * @return 该位置之后的内容已部分输出时返回false
+     */
+    boolean truncate(long position) {
+        if (position < drained) {
+            return false;
+        }
+
+        count = (int) (position - drained);
+        highSurrogate = 0;
+        return true;
+    }
+
+    /**
+     * 序列化异常时调用. 缓冲区内容尚未输出时丢弃缓冲区，以便调用方输出异常信息；
+     * 已有内容输出到响应时无法再追加有效内容，抛出{@link ResponseAbortedException}.
+     * @param e 序列化异常
+     * @throws ResponseAbortedException 响应已部分输出
+     */
+    private void abort(Exception e) throws ResponseAbortedException {
+        if (out != null) {
+            throw new ResponseAbortedException(e);
+        }
+
+        count = 0;
+        highSurrogate = 0;
+        if (!response.isCommitted()) {
+            response.resetBuffer();
+        }
+    }
+
+    private void write(byte[] bytes, int off, int len) throws IOException {
+        while (len > 0) {
+            if (count == buf.length) {
+                drain();
+            }
+
+            var size = Math.min(len, buf.length - count);
+            System.arraycopy(bytes, off, buf, count, size);
+            count += size;
+            off += size;
+            len -= size;
+        }
+    }
+
+    private void ensure(int size) throws IOException {
+        if (count + size > buf.length) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (out == null) {
+            out = response.getOutputStream();
+        }
+
+        out.write(buf, 0, count);
+        drained += count;
+        count = 0;
+    }
+
+    /**
+     * 缓冲区内容只在{@link #close()}或缓冲区已满时输出，以便确定Content-Length.
+     */
+    @Override
+    public void flush() {
+
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            ensure(1);
+            buf[count++] = '?';
+        }
+
+        if (out == null) {
+            response.setContentLength(count);
+        }
+
+        drain();
+        out.flush();
+    }
+
+    /**
+     * 以字节流的方式写入响应缓冲区，供二进制编解码组件使用.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    private class BufferStream extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            ensure(1);
+            buf[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ResponseWriter.this.write(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.http;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.BaseStream;
+
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.nanoframework.core.web.codec.Codecs;
+import org.nanoframework.modules.logging.Logger;
+import org.nanoframework.modules.logging.LoggerFactory;
+import org.nanoframework.toolkit.consts.ContentType;
+
+/**
+ * 流式响应，路由返回{@link java.util.stream.Stream}、{@link Iterator}或{@link Flow.Publisher}时逐个输出元素. <br>
+ * 根据请求头Accept选择输出格式: text/event-stream输出Server-Sent Events，application/x-ndjson或application/stream+json
+ * 输出NDJSON，其它输出JSON数组；元素按JSON格式编码，不使用Content-Length，每输出context.response.stream.flush.size个元素
+ * (默认64)或Publisher暂无可用元素时刷新一次. <br>
+ * 等待Publisher的下一个元素超过context.response.stream.timeout毫秒(默认30000，0为不限制)时取消订阅并结束输出，
+ * 该时间针对单个元素的等待，不受路由timeout限制. <br>
+ * 输出结束、异常或客户端断开连接时关闭Stream、取消Publisher的订阅，实现了{@link AutoCloseable}的Iterator同样会被关闭.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class StreamResponse {
+    /** 每次刷新输出的元素数量. */
+    public static final String FLUSH_SIZE = "context.response.stream.flush.size";
+
+    /** 等待Publisher下一个元素的超时时间，单位毫秒. */
+    public static final String TIMEOUT = "context.response.stream.timeout";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamResponse.class);
+
+    private static final String DEFAULT_FLUSH_SIZE = "64";
+
+    private static final String DEFAULT_TIMEOUT = "30000";
+
+    private StreamResponse() {
+
+    }
+
+    /**
+     * @param value 路由返回值
+     * @return 是否需要流式输出
+     */
+    public static boolean isStream(Object value) {
+        return value instanceof BaseStream || value instanceof Iterator || value instanceof Flow.Publisher;
+    }
+
+    /**
+     * @param type 路由返回值类型
+     * @return 是否需要流式输出
+     */
+    public static boolean isStream(Class<?> type) {
+        return BaseStream.class.isAssignableFrom(type) || Iterator.class.isAssignableFrom(type)
+                || Flow.Publisher.class.isAssignableFrom(type);
+    }
+
+    /**
+     * 关闭未输出的流式返回值.
+     * @param value 路由返回值
+     */
+    public static void close(Object value) {
+        if (value instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) value).close();
+            } catch (Exception e) {
+                LOGGER.warn("关闭流式响应异常: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param request HttpServletRequest
+     * @param response ServletResponse
+     * @param value 路由返回值
+     * @throws IOException 响应尚未输出时元素读取异常
+     */
+    public static void write(HttpServletRequest request, ServletResponse response, Object value) throws IOException {
+        var flushSize = Math.max(Integer.parseInt(System.getProperty(FLUSH_SIZE, DEFAULT_FLUSH_SIZE).trim()), 1);
+        var timeout = Long.parseLong(System.getProperty(TIMEOUT, DEFAULT_TIMEOUT).trim());
+        var elements = iterator(value, flushSize, timeout);
+        try {
+            var format = Format.of(request.getHeader(Codecs.ACCEPT));
+            response.setContentType(format.contentType);
+            if (format == Format.SSE && response instanceof HttpServletResponse) {
+                ((HttpServletResponse) response).setHeader("Cache-Control", "no-cache");
+            }
+
+            write(response, elements, format, flushSize);
+        } finally {
+            close(value);
+            if (elements != value) {
+                close(elements);
+            }
+        }
+    }
+
+    private static void write(ServletResponse response, Iterator<?> elements, Format format, int flushSize)
+            throws IOException {
+        var writer = new ResponseWriter(response, response.getOutputStream());
+        var publisher = elements instanceof PublisherIterator ? (PublisherIterator) elements : null;
+        var count = 0L;
+        var pending = 0;
+        try {
+            format.begin(writer);
+            while (true) {
+                var position = writer.position();
+                try {
+                    if (!elements.hasNext()) {
+                        break;
+                    }
+
+                    format.element(writer, elements.next(), count);
+                } catch (RuntimeException e) {
+                    if (!response.isCommitted()) {
+                        throw e;
+                    }
+
+                    // 响应已经开始输出，无法再修改状态码，丢弃未完成的元素并记录日志后结束输出
+                    if (!writer.truncate(position)) {
+                        LOGGER.warn("流式响应元素已部分输出，无法撤销");
+                    }
+
+                    LOGGER.error("流式响应元素输出异常: " + e.getMessage(), e);
+                    format.error(writer, HttpStatus.INTERNAL_SERVER_ERROR.to(e.getMessage()));
+                    writer.push();
+                    return;
+                }
+
+                count++;
+                if (++pending >= flushSize || (publisher != null && !publisher.hasBuffered())) {
+                    writer.push();
+                    pending = 0;
+                }
+            }
+
+            format.end(writer);
+            writer.close();
+        } catch (IOException e) {
+            LOGGER.debug("客户端断开连接，停止流式响应: {}", e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Iterator<?> iterator(Object value, int batch, long timeout) {
+        if (value instanceof BaseStream) {
+            return ((BaseStream<?, ?>) value).iterator();
+        } else if (value instanceof Flow.Publisher) {
+            return new PublisherIterator((Flow.Publisher<Object>) value, batch, timeout);
+        }
+
+        return (Iterator<?>) value;
+    }
+
+    /**
+     * 流式响应的输出格式.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    private enum Format {
+        JSON_ARRAY(ContentType.APPLICATION_JSON) {
+            @Override
+            void begin(ResponseWriter writer) throws IOException {
+                writer.write('[');
+            }
+
+            @Override
+            void element(ResponseWriter writer, Object element, long index) throws IOException {
+                if (index > 0) {
+                    writer.write(',');
+                }
+
+                writer.writeJson(element);
+            }
+
+            @Override
+            void end(ResponseWriter writer) throws IOException {
+                writer.write(']');
+            }
+        },
+        NDJSON("application/x-ndjson; charset=UTF-8") {
+            @Override
+            void element(ResponseWriter writer, Object element, long index) throws IOException {
+                writer.writeJson(element);
+                writer.write('\n');
+            }
+        },
+        SSE("text/event-stream; charset=UTF-8") {
+            @Override
+            void element(ResponseWriter writer, Object element, long index) throws IOException {
+                writer.write("data: ");
+                writer.writeJson(element);
+                writer.write("\n\n");
+            }
+
+            @Override
+            void error(ResponseWriter writer, Object error) throws IOException {
+                writer.write("event: error\ndata: ");
+                writer.writeJson(error);
+                writer.write("\n\n");
+            }
+        };
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        static Format of(String accept) {
+            if (accept != null) {
+                if (accept.contains("text/event-stream")) {
+                    return SSE;
+                }
+
+                if (accept.contains("application/x-ndjson") || accept.contains("application/stream+json")) {
+                    return NDJSON;
+                }
+            }
+
+            return JSON_ARRAY;
+        }
+
+        void begin(ResponseWriter writer) throws IOException {
+
+        }
+
+        abstract void element(ResponseWriter writer, Object element, long index) throws IOException;
+
+        void end(ResponseWriter writer) throws IOException {
+
+        }
+
+        /**
+         * 响应已开始输出后的异常，JSON数组及NDJSON不输出结束符，由客户端根据不完整的内容判断异常.
+         */
+        void error(ResponseWriter writer, Object error) throws IOException {
+
+        }
+    }
+
+    /**
+     * 将{@link Flow.Publisher}转换为阻塞的Iterator，每消费batch个元素再向Publisher请求batch个元素.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    private static final class PublisherIterator implements Iterator<Object>, Flow.Subscriber<Object>, AutoCloseable {
+        private static final Object COMPLETE = new Object();
+
+        private final LinkedBlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+
+        private final int batch;
+
+        private final long timeout;
+
+        private volatile Flow.Subscription subscription;
+
+        private volatile boolean closed;
+
+        private Object next;
+
+        private int consumed;
+
+        private PublisherIterator(Flow.Publisher<Object> publisher, int batch, long timeout) {
+            this.batch = batch;
+            this.timeout = timeout;
+            publisher.subscribe(this);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null || closed) {
+                subscription.cancel();
+                return;
+            }
+
+            this.subscription = subscription;
+            subscription.request(batch);
+        }
+
+        @Override
+        public void onNext(Object item) {
+            queue.add(item);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            queue.add(new Failure(error));
+        }
+
+        @Override
+        public void onComplete() {
+            queue.add(COMPLETE);
+        }
+
+        boolean hasBuffered() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = timeout > 0 ? queue.poll(timeout, TimeUnit.MILLISECONDS) : queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    close();
+                    throw new IllegalStateException("流式响应被中断", e);
+                }
+
+                if (next == null) {
+                    close();
+                    throw new IllegalStateException("流式响应等待元素超时",
+                            new TimeoutException(String.format("%dms内未收到新的元素", timeout)));
+                }
+            }
+
+            if (next instanceof Failure) {
+                var error = ((Failure) next).error;
+                throw error instanceof RuntimeException ? (RuntimeException) error
+                        : new IllegalStateException(error.getMessage(), error);
+            }
+
+            return next != COMPLETE;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            var value = next;
+            next = null;
+            if (++consumed == batch) {
+                consumed = 0;
+                subscription.request(batch);
+            }
+
+            return value;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            var subscription = this.subscription;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+
+    /**
+     * Publisher的异常信号.
+     */
+    private static final class Failure {
+        private final Throwable error;
+
+        private Failure(Throwable error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class AdaptiveLimiterTest {
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private long now = System.nanoTime();
+
+    private void window(AdaptiveLimiter limiter, long rttMillis) {
+        now += WINDOW;
+        for (var idx = 0; idx < 20; idx++) {
+            limiter.sample(TimeUnit.MILLISECONDS.toNanos(rttMillis), now);
+        }
+    }
+
+    @Test
+    void acquireTest() {
+        var limiter = AdaptiveLimiter.builder().initialLimit(2).minLimit(1).maxLimit(10).window(100).build();
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getRejectedCount());
+
+        limiter.release(System.nanoTime());
+        assertEquals(1, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void gradientTest() {
+        var limiter = AdaptiveLimiter.builder().initialLimit(20).minLimit(1).maxLimit(100).window(100).build();
+        for (var idx = 0; idx < 10; idx++) {
+            window(limiter, 1);
+        }
+
+        // 低负载时不增加限制
+        assertEquals(20, limiter.getLimit());
+
+        for (var idx = 0; idx < 10; idx++) {
+            window(limiter, 10);
+        }
+
+        var decreased = limiter.getLimit();
+        assertTrue(decreased < 20, "limit: " + decreased);
+
+        for (var idx = 0; idx < decreased; idx++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        for (var idx = 0; idx < 10; idx++) {
+            window(limiter, 1);
+        }
+
+        assertTrue(limiter.getLimit() > decreased, "limit: " + limiter.getLimit());
+    }
+}
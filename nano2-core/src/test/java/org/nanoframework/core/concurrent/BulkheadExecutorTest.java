@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class BulkheadExecutorTest {
+
+    @Test
+    void rejectTest() throws InterruptedException {
+        var executor = BulkheadExecutor.builder().name("test").coreSize(1).maxSize(1).queueSize(1)
+                .keepAlive(1000).rejection(BulkheadExecutor.Rejection.ABORT).build();
+        var latch = new CountDownLatch(1);
+        var running = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                running.countDown();
+                await(latch);
+            });
+            running.await(1, TimeUnit.SECONDS);
+            executor.execute(() -> await(latch));
+
+            assertEquals(1, executor.getActiveCount());
+            assertEquals(1, executor.getQueueSize());
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+            assertEquals(1, executor.getRejectedCount());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void discardTest() throws InterruptedException {
+        var executor = BulkheadExecutor.builder().name("test").coreSize(1).maxSize(1).queueSize(1)
+                .keepAlive(1000).rejection(BulkheadExecutor.Rejection.DISCARD_OLDEST).build();
+        var latch = new CountDownLatch(1);
+        var running = new CountDownLatch(1);
+        try {
+            executor.execute(() -> {
+                running.countDown();
+                await(latch);
+            });
+            running.await(1, TimeUnit.SECONDS);
+            var oldest = executor.submit(() -> 1);
+            var latest = executor.submit(() -> 2);
+
+            assertTrue(oldest.isCancelled());
+            assertFalse(latest.isDone());
+            assertEquals(1, executor.getRejectedCount());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
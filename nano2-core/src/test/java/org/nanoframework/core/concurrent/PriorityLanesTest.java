@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.nanoframework.core.rest.annotation.Route;
+import org.nanoframework.core.rest.enums.Priority;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class PriorityLanesTest {
+
+    @Route(value = "/critical", priority = Priority.CRITICAL, timeout = 0)
+    public void critical() {
+
+    }
+
+    @Route(value = "/low", priority = Priority.LOW, timeout = 0)
+    public void low() {
+
+    }
+
+    private static Route route(String name) throws NoSuchMethodException {
+        return PriorityLanesTest.class.getMethod(name).getAnnotation(Route.class);
+    }
+
+    @AfterEach
+    void clear() {
+        QueueTime.clear();
+    }
+
+    @Test
+    void shedTest() throws Exception {
+        var lanes = new PriorityLanes(Map.of(Priority.LOW, new PriorityLanes.Lane(0, 100)));
+        QueueTime.mark(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(200));
+        assertNull(lanes.acquire(route("low")));
+        assertNotNull(lanes.acquire(route("critical")));
+        assertEquals(1, lanes.getShedCount(Priority.LOW));
+
+        QueueTime.clear();
+        assertNotNull(lanes.acquire(route("low")));
+    }
+
+    @Test
+    void permitTest() throws Exception {
+        var lanes = new PriorityLanes(Map.of(Priority.LOW, new PriorityLanes.Lane(1, 50)));
+        var permit = lanes.acquire(route("low"));
+        assertNotNull(permit);
+        assertNull(lanes.acquire(route("low")));
+        assertNotNull(lanes.acquire(route("critical")));
+
+        permit.release();
+        assertNotNull(lanes.acquire(route("low")));
+    }
+
+    @Test
+    void unboundedTest() throws Exception {
+        var lanes = new PriorityLanes(Map.of(Priority.CRITICAL, new PriorityLanes.Lane(1, 0)));
+        var permit = lanes.acquire(route("critical"));
+        assertNotNull(permit);
+
+        var start = System.nanoTime();
+        assertNull(lanes.acquire(route("critical")));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, lanes.getShedCount(Priority.CRITICAL));
+
+        permit.release();
+        assertNotNull(lanes.acquire(route("critical")));
+    }
+}
@@ -17,14 +17,26 @@ package org.nanoframework.core.rest;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
-import org.nanoframework.core.boot.BootLoader;
+import org.nanoframework.core.rest.batch.BatchComponent;
+import org.nanoframework.core.rest.batch.BatchRequest;
 import org.nanoframework.core.rest.enums.HttpType;
+import org.nanoframework.core.rest.exception.RouteTimeoutException;
+import org.nanoframework.core.rest.tests.Boot;
+import org.nanoframework.core.rest.tests.RouteService;
 import org.nanoframework.core.web.http.URLContext;
-import org.nanoframework.toolkit.scan.ClassScanner;
 
 /**
  * @author yanghe
@@ -34,8 +46,7 @@ class RestfulTest {
 
     @BeforeAll
     static void setup() {
-        ClassScanner.scan(RestfulTest.class);
-        new BootLoader();
+        Boot.boot();
     }
 
     @Test
@@ -57,7 +68,111 @@ class RestfulTest {
         var context1 = URLContext.of("/test/say/123?name=abc");
         var mapper3 = route.lookup(context1.getContext(), HttpType.GET);
         assertNotNull(mapper3);
+        assertEquals("123", mapper3.getVariable("id"));
         assertEquals("say 123abc", route.invoke(mapper3, context1.getParameter()));
 
     }
+
+    @Test
+    void timeoutTest() {
+        var route = Routes.route();
+        var mapper = route.lookup("/test/sleep", HttpType.GET);
+        assertNotNull(mapper);
+
+        var time = System.currentTimeMillis();
+        assertThrows(RouteTimeoutException.class, () -> route.invoke(mapper));
+        assertTrue(System.currentTimeMillis() - time < 2000);
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void coalesceTest() throws InterruptedException {
+        var route = Routes.route();
+        var mapper = route.lookup("/test/coalesce", HttpType.GET);
+        assertNotNull(mapper);
+
+        RouteService.COALESCE_CALLS.set(0);
+        var release = new CountDownLatch(1);
+        RouteService.COALESCE_LATCH.set(release);
+        try {
+            var threads = new ArrayList<Thread>();
+            var futures = new ArrayList<CompletableFuture<Object>>();
+            for (var idx = 0; idx < 8; idx++) {
+                var future = new CompletableFuture<Object>();
+                futures.add(future);
+                threads.add(new Thread(() -> {
+                    try {
+                        future.complete(route.invoke(mapper, Map.of("name", "abc")));
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                }));
+            }
+
+            threads.forEach(Thread::start);
+
+            // 第一个调用阻塞在路由中，其余调用都在等待其结果后再释放
+            var deadline = System.currentTimeMillis() + 10000;
+            while (RouteService.COALESCE_CALLS.get() == 0 || !threads.stream().allMatch(RestfulTest::waiting)) {
+                assertTrue(System.currentTimeMillis() < deadline, "callers are not waiting");
+                Thread.sleep(10);
+            }
+
+            release.countDown();
+            futures.forEach(future -> assertEquals("coalesce abc", future.join()));
+            assertEquals(1, RouteService.COALESCE_CALLS.get());
+        } finally {
+            release.countDown();
+            RouteService.COALESCE_LATCH.set(new CountDownLatch(0));
+        }
+
+        assertEquals("coalesce def", route.invoke(mapper, Map.of("name", "def")));
+        assertEquals(2, RouteService.COALESCE_CALLS.get());
+    }
+
+    private static boolean waiting(Thread thread) {
+        var state = thread.getState();
+        return state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING;
+    }
+
+    @Test
+    void batchTest() {
+        System.setProperty(BatchComponent.ALLOW, "/test/hello, /test/say,/test/say/*,/test/none");
+        var batch = new BatchComponent();
+        try {
+            var results = batch.batch(List.of(request(null, "/test/hello", null),
+                    request("GET", "/test/say", Map.of("Name", "abc")), request("GET", "/test/say/123?name=abc", null),
+                    request("GET", "/test/none", null), request("POST", "/test/hello", null),
+                    request("PATCHES", "/test/hello", null), request("GET", "/test/sleep", null)));
+
+            assertEquals(7, results.size());
+            assertEquals(200, results.get(0).get("status"));
+            assertEquals("world", results.get(0).get("body"));
+            assertEquals("say abc", results.get(1).get("body"));
+            assertEquals("say 123abc", results.get(2).get("body"));
+            assertEquals(404, results.get(3).get("status"));
+            assertEquals(404, results.get(4).get("status"));
+            assertEquals(400, results.get(5).get("status"));
+            assertEquals(403, results.get(6).get("status"));
+            assertTrue(batch.batch(List.of()).isEmpty());
+        } finally {
+            batch.destroy();
+            System.clearProperty(BatchComponent.ALLOW);
+        }
+
+        var denied = new BatchComponent();
+        try {
+            assertEquals(403, denied.batch(List.of(request(null, "/test/hello", null))).get(0).get("status"));
+        } finally {
+            denied.destroy();
+        }
+    }
+
+    private static BatchRequest request(String method, String path, Map<String, Object> params) {
+        var request = new BatchRequest();
+        request.setMethod(method);
+        request.setPath(path);
+        request.setParams(params);
+        return request;
+    }
 }
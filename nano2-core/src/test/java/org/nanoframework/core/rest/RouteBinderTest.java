@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.nanoframework.core.rest.annotation.Body;
+import org.nanoframework.core.rest.exception.BindParamException;
+import org.nanoframework.core.web.filter.RouteFilter.HttpContext;
+import org.nanoframework.core.web.http.ReadStream;
+import org.nanoframework.core.web.http.RequestContext;
+import org.nanoframework.core.web.http.Servlets;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class RouteBinderTest {
+
+    @AfterEach
+    void clear() {
+        System.clearProperty(ReadStream.MAX_BODY_SIZE);
+    }
+
+    private static Object bind(String name, Class<?> type, byte[] body, long contentLength) throws Exception {
+        var binder = RouteBinder.compile(Service.class.getMethod(name, type));
+        var context = RequestContext.builder().request(Servlets.request(body, contentLength, "application/json"))
+                .build();
+        return HttpContext.wrap(context, () -> binder.bind(Map.of(), null)[0]).call();
+    }
+
+    private static Object bind(String name, Class<?> type, String body) throws Exception {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        return bind(name, type, bytes, bytes.length);
+    }
+
+    private static byte[] body(int size) {
+        var body = new byte[size];
+        Arrays.fill(body, (byte) '1');
+        return body;
+    }
+
+    @Test
+    void scalarTest() throws Exception {
+        assertEquals(123, bind("scalar", Integer.class, "123"));
+        assertEquals("中文", bind("text", String.class, "中文"));
+        assertThrows(BindParamException.class, () -> bind("scalar", Integer.class, "abc"));
+    }
+
+    @Test
+    void entityTest() throws Exception {
+        var entity = (Entity) bind("entity", Entity.class, "{\"name\":\"中文\",\"age\":3}");
+        assertEquals("中文", entity.getName());
+        assertEquals(3, entity.getAge());
+        assertNull(bind("entity", Entity.class, ""));
+
+        var e = assertThrows(BindParamException.class, () -> bind("entity", Entity.class, "{\"age\":\"abc\"}"));
+        assertTrue(e.getMessage().contains(Entity.class.getName()));
+    }
+
+    @Test
+    void contentLengthTest() {
+        System.setProperty(ReadStream.MAX_BODY_SIZE, "1024");
+        var e = assertThrows(BindParamException.class, () -> bind("text", String.class, body(10), 1025));
+        assertTrue(e.getMessage().contains("1025 > 1024"));
+    }
+
+    @Test
+    void chunkedTest() throws Exception {
+        System.setProperty(ReadStream.MAX_BODY_SIZE, String.valueOf(16 * 1024));
+        var body = body(12 * 1024);
+        assertEquals(new String(body, StandardCharsets.UTF_8), bind("text", String.class, body, -1));
+
+        var e = assertThrows(BindParamException.class, () -> bind("text", String.class, body(20 * 1024), -1));
+        assertTrue(e.getMessage().contains("> 16384"));
+
+        e = assertThrows(BindParamException.class, () -> bind("text", String.class, body(16 * 1024 + 1), -1));
+        assertTrue(e.getMessage().contains("16385 > 16384"));
+
+        assertEquals(16 * 1024, ((String) bind("text", String.class, body(16 * 1024), -1)).length());
+    }
+
+    @Test
+    void pooledBufferTest() throws Exception {
+        // 扩容后复用的缓冲区及超过复用上限的缓冲区都不能影响后续请求
+        assertEquals(12 * 1024, ((String) bind("text", String.class, body(12 * 1024), -1)).length());
+        assertEquals("abc", bind("text", String.class, "abc".getBytes(StandardCharsets.UTF_8), -1));
+        assertEquals(300 * 1024, ((String) bind("text", String.class, body(300 * 1024), -1)).length());
+        assertEquals(123, bind("scalar", Integer.class, "123"));
+        assertEquals(123, bind("scalar", Integer.class, "123".getBytes(StandardCharsets.UTF_8), -1));
+    }
+
+    public static class Service {
+        public void scalar(@Body Integer value) {
+
+        }
+
+        public void text(@Body String value) {
+
+        }
+
+        public void entity(@Body Entity entity) {
+
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Entity {
+        private String name;
+
+        private int age;
+    }
+}
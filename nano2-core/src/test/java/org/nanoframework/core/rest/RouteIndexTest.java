@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.nanoframework.core.rest.enums.HttpType;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class RouteIndexTest {
+
+    private static Map<HttpType, RouteMapper> get() {
+        return Map.of(HttpType.GET, RouteMapper.builder().types(new HttpType[] {HttpType.GET }).build());
+    }
+
+    @Test
+    void precedenceTest() {
+        var mappers = new LinkedHashMap<String, Map<HttpType, RouteMapper>>();
+        mappers.put("/files/**", get());
+        mappers.put("/users/{id}", get());
+        mappers.put("/users/{id:\\d+}", get());
+        mappers.put("/users/me", get());
+        mappers.put("/users/{id}/orders/{no}", get());
+        var index = RouteIndex.compile(mappers);
+
+        assertEquals("/users/me", index.lookup("/users/me", HttpType.GET).getLeaf().getPattern());
+        assertEquals("/users/me", index.lookup("/Users/ME/", HttpType.GET).getLeaf().getPattern());
+
+        var regex = index.lookup("/users/123", HttpType.GET);
+        assertEquals("/users/{id:\\d+}", regex.getLeaf().getPattern());
+        assertEquals("123", regex.getValues()[0]);
+
+        var variable = index.lookup("/users/Abc", HttpType.GET);
+        assertEquals("/users/{id}", variable.getLeaf().getPattern());
+        assertEquals("Abc", variable.getValues()[0]);
+
+        var nested = index.lookup("/users/abc/orders/42", HttpType.GET);
+        assertArrayEquals(new String[] {"id", "no" }, nested.getLeaf().getNames());
+        assertEquals("abc", nested.getValues()[0]);
+        assertEquals("42", nested.getValues()[1]);
+
+        assertEquals("/files/**", index.lookup("/files/a/b/c.txt", HttpType.GET).getLeaf().getPattern());
+        assertEquals("/files/**", index.lookup("/files", HttpType.GET).getLeaf().getPattern());
+        assertNull(index.lookup("/users/me", HttpType.POST));
+        assertNull(index.lookup("/orders", HttpType.GET));
+    }
+
+    @Test
+    void wildcardTest() {
+        var mappers = new LinkedHashMap<String, Map<HttpType, RouteMapper>>();
+        mappers.put("/a/*", get());
+        mappers.put("/a/{id}", get());
+        mappers.put("/a/{id}/b", get());
+        mappers.put("/a/*/c", get());
+        var index = RouteIndex.compile(mappers);
+
+        var variable = index.lookup("/a/1", HttpType.GET);
+        assertEquals("/a/{id}", variable.getLeaf().getPattern());
+        assertEquals("1", variable.getValues()[0]);
+        assertEquals("/a/{id}/b", index.lookup("/a/1/b", HttpType.GET).getLeaf().getPattern());
+        assertEquals("/a/*/c", index.lookup("/a/1/c", HttpType.GET).getLeaf().getPattern());
+    }
+
+    @Test
+    void shapeTest() {
+        assertEquals(RouteIndex.shape("/users/{id}"), RouteIndex.shape("/users/{name}"));
+        assertEquals("/users/{:\\d+}", RouteIndex.shape("/users/{id:\\d+}"));
+    }
+}
@@ -17,7 +17,11 @@ package org.nanoframework.core.rest;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
+import org.nanoframework.core.rest.exception.BindParamException;
+import org.nanoframework.core.rest.tests.RouteService;
 
 /**
  * @author yanghe
@@ -33,4 +37,17 @@ class RouteMapperTest {
         assertEquals(types, RouteMapper.DEFAULT_TYPES);
     }
 
+    @Test
+    void bindTest() throws Throwable {
+        var service = new RouteService();
+        var method = RouteService.class.getMethod("say", String.class, String.class);
+        var mapper = RouteMapper.builder().instance(service).cls(RouteService.class).method(method).build();
+        var match = new RouteMatch(mapper, "/test/say/{id}", new String[] {"id" }, new String[] {"123" });
+
+        var args = mapper.bind(Map.of("NAME", "abc"), match);
+        assertArrayEquals(new Object[] {"123", "abc" }, args);
+        assertEquals("say 123abc", mapper.invoke(args));
+        assertThrows(BindParamException.class, () -> mapper.bind(Map.of(), match));
+    }
+
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.nanoframework.core.rest.RouteMapper;
+import org.nanoframework.core.rest.RouteMatch;
+import org.nanoframework.core.rest.annotation.Cacheable;
+import org.nanoframework.core.rest.annotation.Param;
+import org.nanoframework.toolkit.consts.Charsets;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class ResponseCacheTest {
+
+    @Cacheable(ttl = 60000)
+    public String all(@Param("name") String name, @Param("size") int size) {
+        return name;
+    }
+
+    @Cacheable(ttl = 60000, params = "name")
+    public String selected(@Param("name") String name, @Param("size") int size) {
+        return name;
+    }
+
+    public String none() {
+        return null;
+    }
+
+    private static ResponseCache cache(String name) throws NoSuchMethodException {
+        var method = ResponseCacheTest.class.getMethod(name, String.class, int.class);
+        return ResponseCache.of(method);
+    }
+
+    private static RouteMatch match() {
+        return RouteMatch.of(RouteMapper.builder().build());
+    }
+
+    @Test
+    void keyTest() throws NoSuchMethodException {
+        assertNull(ResponseCache.of(ResponseCacheTest.class.getMethod("none")));
+
+        var all = cache("all");
+        var params = new LinkedHashMap<String, Object>();
+        params.put("name", "nano");
+        params.put("size", "10");
+        var reversed = new LinkedHashMap<String, Object>();
+        reversed.put("SIZE", "10");
+        reversed.put("name", "nano");
+        assertEquals(all.key(match(), params), all.key(match(), reversed));
+        assertNotEquals(all.key(match(), params), all.key(match(), Map.of("name", "nano", "size", "20")));
+        assertNull(all.key(match(), Map.of("name", "nano", "callback", "fn")));
+
+        var selected = cache("selected");
+        assertEquals(selected.key(match(), params), selected.key(match(), Map.of("name", "nano", "size", "20")));
+        assertNotEquals(selected.key(match(), params), selected.key(match(), Map.of("name", "other")));
+    }
+
+    @Test
+    void entryTest() throws NoSuchMethodException, IOException {
+        var cache = cache("all");
+        var key = cache.key(match(), Map.of("name", "nano"));
+        assertNull(cache.get(key));
+
+        var entry = cache.put(key, Map.of("value", "缓存"));
+        assertSame(entry, cache.get(key));
+        assertArrayEquals("{\"value\":\"缓存\"}".getBytes(Charsets.UTF_8), entry.getBytes());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        var etag = entry.getEtag();
+        assertEquals(etag, cache.put(key, Map.of("value", "缓存")).getEtag());
+        assertTrue(ResponseCache.matches(etag, etag));
+        assertTrue(ResponseCache.matches("\"other\", W/" + etag, etag));
+        assertTrue(ResponseCache.matches("*", etag));
+        assertFalse(ResponseCache.matches("\"other\"", etag));
+        assertFalse(ResponseCache.matches(null, etag));
+
+        cache.invalidateAll();
+        assertNull(cache.get(key));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.nanoframework.core.concurrent.AdaptiveLimiter;
+import org.nanoframework.core.rest.Routes;
+import org.nanoframework.core.rest.enums.HttpType;
+import org.nanoframework.core.rest.exception.LimitExceededException;
+import org.nanoframework.core.rest.tests.Boot;
+import org.nanoframework.core.rest.tests.RouteService;
+import org.nanoframework.core.web.filter.RouteFilter;
+import org.nanoframework.core.web.http.ResultMap;
+import org.nanoframework.core.web.http.Servlets;
+
+import com.alibaba.fastjson.JSON;
+
+/**
+ * 通过启动后的路由验证{@link LimitFilter}，每个限流路由只允许2个并发调用.
+ * @author yanghe
+ * @since 2.0.0
+ */
+class LimitFilterTest {
+    private static final int LIMIT = 2;
+
+    @BeforeAll
+    static void setup() {
+        Boot.boot();
+        // 限流器在路由方法首次调用时创建，此后修改属性不再生效
+        System.setProperty(AdaptiveLimiter.INITIAL, String.valueOf(LIMIT));
+        System.setProperty(AdaptiveLimiter.MIN, String.valueOf(LIMIT));
+        System.setProperty(AdaptiveLimiter.MAX, String.valueOf(LIMIT));
+    }
+
+    @AfterAll
+    static void clear() {
+        System.clearProperty(AdaptiveLimiter.INITIAL);
+        System.clearProperty(AdaptiveLimiter.MIN);
+        System.clearProperty(AdaptiveLimiter.MAX);
+        RouteService.LIMIT_RESULT.set(CompletableFuture.completedFuture("limit"));
+    }
+
+    @Test
+    void limitTest() throws Throwable {
+        var route = Routes.route();
+        var mapper = route.lookup("/test/limit", HttpType.GET);
+        var pending = new CompletableFuture<String>();
+        RouteService.LIMIT_RESULT.set(pending);
+        for (var idx = 0; idx < LIMIT; idx++) {
+            assertSame(pending, route.invoke(mapper));
+        }
+
+        // 返回的CompletionStage未完成前不释放并发数
+        assertThrows(LimitExceededException.class, () -> route.invoke(mapper));
+        assertThrows(LimitExceededException.class, () -> route.invoke(mapper));
+
+        var response = Servlets.response();
+        var request = Servlets.request(Map.of(), Map.of("getRequestURI", args -> "/test/limit", "getMethod",
+                args -> "GET", "getParameterMap", args -> Map.of()));
+        new RouteFilter().doFilter(request, response.servlet(), (req, res) -> {
+            throw new AssertionError("路由请求不应继续执行过滤器链");
+        });
+
+        assertEquals(503, JSON.parseObject(response.body()).getIntValue(ResultMap.STATUS));
+
+        pending.complete("limit");
+        var done = CompletableFuture.completedFuture("done");
+        RouteService.LIMIT_RESULT.set(done);
+        for (var idx = 0; idx < LIMIT + 1; idx++) {
+            assertSame(done, route.invoke(mapper));
+        }
+    }
+
+    @Test
+    void mockTest() {
+        var route = Routes.route();
+        var mapper = route.lookup("/test/limit/mock", HttpType.GET);
+        var pending = new CompletableFuture<String>();
+        RouteService.LIMIT_RESULT.set(pending);
+        try {
+            for (var idx = 0; idx < LIMIT; idx++) {
+                assertSame(pending, route.invoke(mapper));
+            }
+
+            var mock = route.invoke(mapper);
+            assertFalse(mock instanceof CompletableFuture);
+            assertEquals(502, JSON.parseObject((String) mock).getJSONObject("error").getIntValue("code"));
+        } finally {
+            pending.complete("limit");
+        }
+    }
+}
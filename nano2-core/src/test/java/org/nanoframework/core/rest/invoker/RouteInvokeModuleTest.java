@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.invoker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nanoframework.core.rest.annotation.Route;
+import org.nanoframework.core.rest.exception.NotFoundMockException;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class RouteInvokeModuleTest {
+    private static final List<String> CALLS = new ArrayList<>();
+
+    private Injector injector;
+
+    @BeforeEach
+    void setup() {
+        CALLS.clear();
+        injector = Guice.createInjector(new RouteInvokeModule(List.of(Map.entry("first", new NamedFilter("first")),
+                Map.entry("legacy", new LegacyFilter()), Map.entry("last", new NamedFilter("last")))));
+    }
+
+    @Test
+    void orderTest() {
+        var service = injector.getInstance(Outer.class);
+        assertEquals("outer inner", service.outer());
+        assertEquals(List.of("first:Outer.outer", "legacy:outer", "last:Outer.outer", "first:Inner.inner",
+                "legacy:inner", "legacy:outer"), CALLS);
+        assertThrows(IllegalStateException.class, FilterChain.Invocation::current);
+    }
+
+    @Test
+    void excludeFilterTest() {
+        assertEquals("inner", injector.getInstance(Inner.class).inner());
+        assertEquals(List.of("first:Inner.inner", "legacy:inner"), CALLS);
+    }
+
+    @Test
+    void inheritedRouteTest() {
+        assertEquals("name", injector.getInstance(SubA.class).name());
+        assertEquals("name", injector.getInstance(SubB.class).name());
+        assertEquals("name", injector.getInstance(SubA.class).name());
+        assertEquals(List.of("first:SubA.name", "legacy:name", "last:SubA.name", "first:SubB.name", "legacy:name",
+                "last:SubB.name", "first:SubA.name", "legacy:name", "last:SubA.name"), CALLS);
+    }
+
+    @Test
+    void mockTest() {
+        assertThrows(NotFoundMockException.class, () -> injector.getInstance(Inner.class).fallback());
+    }
+
+    public static class Outer {
+        @Inject
+        private Inner inner;
+
+        @Route("/outer")
+        public String outer() {
+            return "outer " + inner.inner();
+        }
+    }
+
+    public static class Inner {
+        @Route(value = "/inner", excludeFilter = "last")
+        public String inner() {
+            return "inner";
+        }
+
+        @Route(value = "/fallback", excludeFilter = "last")
+        public String fallback() {
+            throw new IllegalStateException("fallback");
+        }
+    }
+
+    public static class Base {
+        @Route("/name")
+        public String name() {
+            return "name";
+        }
+    }
+
+    public static class SubA extends Base {
+
+    }
+
+    public static class SubB extends Base {
+
+    }
+
+    private static class NamedFilter extends Filter {
+        private final String name;
+
+        private NamedFilter(String name) {
+            this.name = name;
+        }
+
+        @Override
+        protected Object proceed(Invoker invoker) throws Throwable {
+            CALLS.add(name + ':' + invoker.getType().getSimpleName() + '.' + invoker.getMethod().getName());
+            return doNext(invoker);
+        }
+    }
+
+    /**
+     * 使用已废弃的无参桥接方法，调用完成后再次记录当前调用，用于检查嵌套调用结束后是否恢复.
+     */
+    @SuppressWarnings("deprecation")
+    private static class LegacyFilter extends Filter {
+        @Override
+        protected Object proceed(Invoker invoker) throws Throwable {
+            CALLS.add("legacy:" + FilterChain.Invocation.current().getMethod().getName());
+            try {
+                var result = doNext();
+                if (FilterChain.Invocation.current().getMethod().getName().equals("outer")) {
+                    CALLS.add("legacy:outer");
+                }
+
+                return result;
+            } catch (IllegalStateException e) {
+                return mock0(invoker.getMethod());
+            }
+        }
+    }
+}
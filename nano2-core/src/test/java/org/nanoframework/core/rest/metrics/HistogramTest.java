@@ -0,0 +1,53 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class HistogramTest {
+
+    @Test
+    void bucketTest() {
+        for (var value = 0L; value < 1_000_000; value += 7) {
+            var idx = Histogram.index(value);
+            assertTrue(Histogram.lowerBound(idx) <= value);
+            assertTrue(Histogram.lowerBound(idx + 1) > value);
+        }
+    }
+
+    @Test
+    void percentileTest() {
+        var histogram = new Histogram();
+        for (var value = 1; value <= 10000; value++) {
+            histogram.record(value);
+        }
+
+        var snapshot = histogram.snapshot();
+        assertEquals(10000, snapshot.getCount());
+        assertEquals(10000, snapshot.getMax());
+        assertEquals(5000.5, snapshot.getMean());
+        assertEquals(5000, snapshot.getValue(0.5), 5000 * 0.125);
+        assertEquals(9900, snapshot.getValue(0.99), 9900 * 0.125);
+        assertEquals(10000, snapshot.getValue(1));
+    }
+}
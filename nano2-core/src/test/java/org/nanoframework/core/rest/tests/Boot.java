@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.rest.tests;
+
+import org.nanoframework.core.boot.BootLoader;
+import org.nanoframework.core.concurrent.AdaptiveLimiter;
+import org.nanoframework.toolkit.scan.ClassScanner;
+
+/**
+ * 扫描测试路由并启动，同一JVM中只启动一次，避免重复注册路由. <br>
+ * 启动时开启路由并发限制，由LimitFilterTest验证限流行为.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class Boot {
+    private static boolean booted;
+
+    private Boot() {
+
+    }
+
+    public static synchronized void boot() {
+        if (!booted) {
+            System.setProperty(AdaptiveLimiter.ENABLED, "true");
+            ClassScanner.scan("org.nanoframework.core.rest");
+            new BootLoader();
+            booted = true;
+        }
+    }
+}
@@ -15,6 +15,13 @@
  */
 package org.nanoframework.core.rest.tests;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.nanoframework.core.rest.annotation.Mock;
 import org.nanoframework.core.rest.annotation.Param;
 import org.nanoframework.core.rest.annotation.PathVariable;
 import org.nanoframework.core.rest.annotation.Restful;
@@ -28,6 +35,14 @@ import org.nanoframework.core.rest.enums.HttpType;
 @Restful
 @Route("/test")
 public class RouteService {
+    public static final AtomicInteger COALESCE_CALLS = new AtomicInteger();
+
+    /** 执行合并调用的路由在此等待测试释放. */
+    public static final AtomicReference<CountDownLatch> COALESCE_LATCH = new AtomicReference<>(new CountDownLatch(0));
+
+    /** 限流路由返回的异步结果，由测试控制完成时机. */
+    public static final AtomicReference<CompletableFuture<String>> LIMIT_RESULT = new AtomicReference<>(
+            CompletableFuture.completedFuture("limit"));
 
     @Route(value = "/hello", type = HttpType.GET)
     public String hello() {
@@ -43,4 +58,28 @@ public class RouteService {
     public String say(@PathVariable("id") String id, @Param("name") String name) {
         return "say " + id + name;
     }
+
+    @Route(value = "/sleep", type = HttpType.GET, timeout = 100)
+    public String sleep() throws InterruptedException {
+        Thread.sleep(5000);
+        return "awake";
+    }
+
+    @Route(value = "/coalesce", type = HttpType.GET, timeout = 30000, coalesce = true)
+    public String coalesce(@Param("name") String name) throws InterruptedException {
+        COALESCE_CALLS.incrementAndGet();
+        COALESCE_LATCH.get().await(20, TimeUnit.SECONDS);
+        return "coalesce " + name;
+    }
+
+    @Route(value = "/limit", type = HttpType.GET)
+    public Object limit() {
+        return LIMIT_RESULT.get();
+    }
+
+    @Mock
+    @Route(value = "/limit/mock", type = HttpType.GET)
+    public Object limitMock() {
+        return LIMIT_RESULT.get();
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.codec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.alibaba.fastjson.TypeReference;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class CborCodecTest {
+    private final CborCodec codec = new CborCodec();
+
+    private byte[] encode(Object value) throws IOException {
+        var out = new ByteArrayOutputStream();
+        codec.encode(value, out);
+        return out.toByteArray();
+    }
+
+    private Object decode(byte[] bytes, Type type) throws IOException {
+        return codec.decode(bytes, 0, bytes.length, StandardCharsets.UTF_8, type);
+    }
+
+    @Test
+    void encodeTest() throws IOException {
+        // RFC 7049 Appendix A
+        assertArrayEquals(new byte[] {0x00 }, encode(0));
+        assertArrayEquals(new byte[] {0x18, 0x64 }, encode(100));
+        assertArrayEquals(new byte[] {0x39, 0x03, (byte) 0xE7 }, encode(-1000));
+        assertArrayEquals(new byte[] {0x1B, 0, 0, 0, (byte) 0xE8, (byte) 0xD4, (byte) 0xA5, 0x10, 0x00 },
+                encode(1000000000000L));
+        assertArrayEquals(new byte[] {0x64, 0x49, 0x45, 0x54, 0x46 }, encode("IETF"));
+        assertArrayEquals(new byte[] {(byte) 0xF6 }, encode(null));
+        assertArrayEquals(new byte[] {(byte) 0x83, 0x01, 0x02, 0x03 }, encode(List.of(1, 2, 3)));
+        assertArrayEquals(new byte[] {(byte) 0xC2, 0x49, 0x01, 0, 0, 0, 0, 0, 0, 0, 0 },
+                encode(new BigInteger("18446744073709551616")));
+    }
+
+    @Test
+    void roundTripTest() throws IOException {
+        var item = new Item();
+        item.setName("名称");
+        item.setCount(Long.MAX_VALUE);
+        item.setPrice(new BigDecimal("123.4500"));
+        item.setCreated(new Date(1514736000000L));
+        item.setTags(List.of("a", "b"));
+        item.setData(new byte[] {1, 2, 3 });
+
+        var items = decode(encode(List.of(item, item)), new TypeReference<List<Item>>() { }.getType());
+        assertTrue(items instanceof List);
+        var decoded = (Item) ((List<?>) items).get(1);
+        assertEquals("名称", decoded.getName());
+        assertEquals(Long.MAX_VALUE, decoded.getCount());
+        assertEquals(new BigDecimal("123.4500"), decoded.getPrice());
+        assertEquals(item.getCreated(), decoded.getCreated());
+        assertEquals(List.of("a", "b"), decoded.getTags());
+        assertArrayEquals(new byte[] {1, 2, 3 }, decoded.getData());
+
+        assertEquals(new BigInteger("-18446744073709551617"),
+                decode(encode(new BigInteger("-18446744073709551617")), Object.class));
+        assertEquals(Map.of("k", 1.5D), decode(encode(Map.of("k", 1.5D)), Object.class));
+        assertEquals("abc", decode(encode("abc"), String.class));
+        assertThrows(IOException.class, () -> decode(new byte[] {(byte) 0x83, 0x01 }, Object.class));
+    }
+
+    @Test
+    void negotiateTest() {
+        assertTrue(Codecs.isJson(Codecs.accept(null)));
+        assertTrue(Codecs.isJson(Codecs.accept("text/html, */*;q=0.8")));
+        assertTrue(Codecs.accept("application/cbor") instanceof CborCodec);
+        assertTrue(Codecs.accept("application/json;q=0.5, application/cbor") instanceof CborCodec);
+        assertTrue(Codecs.isJson(Codecs.accept("application/cbor;q=0.2, application/json")));
+        assertTrue(Codecs.contentType("application/cbor; charset=UTF-8") instanceof CborCodec);
+        assertTrue(Codecs.isJson(Codecs.contentType("application/x-www-form-urlencoded")));
+    }
+
+    @Getter
+    @Setter
+    public static class Item {
+        private String name;
+
+        private long count;
+
+        private BigDecimal price;
+
+        private Date created;
+
+        private List<String> tags;
+
+        private byte[] data;
+    }
+}
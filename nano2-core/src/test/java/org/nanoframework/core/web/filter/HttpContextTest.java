@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.nanoframework.core.web.filter.RouteFilter.HttpContext;
+import org.nanoframework.core.web.http.RequestContext;
+import org.nanoframework.core.web.mvc.Model;
+import org.nanoframework.core.web.mvc.support.RedirectModel;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class HttpContextTest {
+
+    @AfterEach
+    void clear() {
+        HttpContext.clear();
+    }
+
+    private static RequestContext context() {
+        return RequestContext.builder().model(new RedirectModel()).build();
+    }
+
+    @Test
+    void wrapRunnableTest() throws Exception {
+        var context = context();
+        var seen = new AtomicReference<RequestContext>();
+        Runnable task = () -> seen.set(HttpContext.current());
+        assertSame(task, HttpContext.wrap(task));
+
+        HttpContext.set(context);
+        var wrapped = HttpContext.wrap(task);
+        HttpContext.clear();
+
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(wrapped).get();
+            assertSame(context, seen.get());
+            assertNull(executor.submit(HttpContext::current).get());
+        } finally {
+            executor.shutdown();
+        }
+
+        var previous = context();
+        HttpContext.set(previous);
+        wrapped.run();
+        assertSame(context, seen.get());
+        assertSame(previous, HttpContext.current());
+    }
+
+    @Test
+    void wrapCallableTest() throws Exception {
+        var context = context();
+        Callable<Model> task = () -> HttpContext.get(Model.class);
+        assertSame(task, HttpContext.wrap(task));
+
+        HttpContext.set(context);
+        var wrapped = HttpContext.wrap(task);
+        HttpContext.clear();
+
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            assertSame(context.getModel(), executor.submit(wrapped).get());
+            var e = assertThrows(ExecutionException.class, () -> executor.submit(task).get());
+            assertEquals(NullPointerException.class, e.getCause().getClass());
+            assertNull(executor.submit(HttpContext::current).get());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertSame(context.getModel(), wrapped.call());
+        assertNull(HttpContext.current());
+    }
+
+    @Test
+    void exceptionTest() {
+        var context = context();
+        var previous = context();
+        HttpContext.set(previous);
+
+        assertThrows(IllegalStateException.class, () -> HttpContext.wrap(context, () -> {
+            assertSame(context, HttpContext.current());
+            throw new IllegalStateException();
+        }).call());
+        assertSame(previous, HttpContext.current());
+
+        HttpContext.set(context);
+        var wrapped = HttpContext.wrap((Runnable) () -> {
+            throw new IllegalStateException();
+        });
+
+        HttpContext.clear();
+        assertThrows(IllegalStateException.class, wrapped::run);
+        assertNull(HttpContext.current());
+    }
+
+    @Test
+    void attachTest() {
+        var outer = context();
+        var inner = context();
+        assertNull(HttpContext.attach(outer));
+        assertSame(outer, HttpContext.attach(inner));
+        assertSame(inner, HttpContext.current());
+
+        HttpContext.detach(outer);
+        assertSame(outer, HttpContext.current());
+        HttpContext.detach(null);
+        assertNull(HttpContext.current());
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nanoframework.core.rest.annotation.Route;
+import org.nanoframework.core.rest.enums.HttpType;
+import org.nanoframework.core.rest.metrics.RouteMetrics;
+import org.nanoframework.core.rest.tests.Boot;
+import org.nanoframework.core.web.http.ParameterMap;
+import org.nanoframework.core.web.http.RequestContext;
+import org.nanoframework.core.web.http.ResultMap;
+import org.nanoframework.core.web.http.Servlets;
+import org.nanoframework.core.web.http.URLContext;
+import org.nanoframework.core.web.mvc.support.RedirectModel;
+
+import com.alibaba.fastjson.JSON;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class RouteFilterTest {
+    private final RouteFilter filter = new RouteFilter();
+
+    private final Servlets.Response response = Servlets.response();
+
+    private final AtomicInteger released = new AtomicInteger();
+
+    private final AtomicInteger completed = new AtomicInteger();
+
+    private final AtomicReference<AsyncListener> listener = new AtomicReference<>();
+
+    private RouteMetrics metrics;
+
+    @Route(value = "/async", timeout = 50)
+    public void async() {
+
+    }
+
+    @BeforeEach
+    void setup() throws NoSuchMethodException {
+        metrics = new RouteMetrics(RouteFilterTest.class.getMethod("async"));
+    }
+
+    private Route route() throws NoSuchMethodException {
+        return RouteFilterTest.class.getMethod("async").getAnnotation(Route.class);
+    }
+
+    private RequestContext context(boolean asyncSupported) {
+        var requestRef = new AtomicReference<HttpServletRequest>();
+        var asyncContext = Servlets.stub(AsyncContext.class, Map.of("getRequest", args -> requestRef.get(),
+                "getResponse", args -> response.servlet(), "addListener", args -> {
+                    listener.set((AsyncListener) args[0]);
+                    return null;
+                }, "complete", args -> completed.incrementAndGet()));
+
+        var request = Servlets.request(Map.of(),
+                Map.of("isAsyncSupported", args -> asyncSupported, "startAsync", args -> asyncContext));
+        requestRef.set(request);
+
+        var urlContext = URLContext.builder().context("/async").parameter(new ParameterMap(Map.of())).build();
+        return RequestContext.builder().request(request).response(response.servlet()).model(new RedirectModel())
+                .urlContext(urlContext).build();
+    }
+
+    private boolean async(RequestContext context, CompletableFuture<Object> future) throws Throwable {
+        var recorder = metrics.recorder(HttpType.GET);
+        return filter.async(context, route(), future, recorder, recorder.start(), released::incrementAndGet);
+    }
+
+    @Test
+    void completeTest() throws Throwable {
+        var future = new CompletableFuture<>();
+        assertTrue(async(context(true), future));
+        assertNotNull(listener.get());
+        assertEquals(0, released.get());
+        assertEquals(1, metrics.getInFlight());
+
+        future.complete("ok");
+        assertEquals("ok", response.body());
+        assertEquals(1, released.get());
+        assertEquals(1, completed.get());
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(0, metrics.getErrorCount());
+
+        listener.get().onComplete(null);
+        listener.get().onTimeout(null);
+        assertEquals("ok", response.body());
+        assertEquals(1, released.get());
+        assertEquals(1, completed.get());
+        assertEquals(1, metrics.getRequestCount());
+    }
+
+    @Test
+    void failureTest() throws Throwable {
+        var future = new CompletableFuture<>();
+        assertTrue(async(context(true), future));
+        future.completeExceptionally(new IllegalStateException("failed"));
+        assertTrue(response.body().contains("failed"));
+        assertEquals(1, released.get());
+        assertEquals(1, completed.get());
+        assertEquals(1, metrics.getErrorCount());
+    }
+
+    @Test
+    void timeoutTest() throws Throwable {
+        var future = new CompletableFuture<>();
+        assertTrue(async(context(true), future));
+        listener.get().onTimeout(null);
+        assertTrue(response.body().contains("504"));
+        assertEquals(1, released.get());
+        assertEquals(1, completed.get());
+
+        var length = response.size();
+        future.complete("late");
+        listener.get().onError(null);
+        listener.get().onComplete(null);
+        assertEquals(length, response.size());
+        assertEquals(1, released.get());
+        assertEquals(1, completed.get());
+        assertEquals(1, metrics.getRequestCount());
+        assertEquals(1, metrics.getErrorCount());
+    }
+
+    @Test
+    void errorTest() throws Throwable {
+        var future = new CompletableFuture<>();
+        assertTrue(async(context(true), future));
+        listener.get().onError(null);
+        assertEquals(1, released.get());
+        assertEquals(0, completed.get());
+        assertEquals(1, metrics.getErrorCount());
+
+        future.complete("late");
+        assertEquals(0, response.size());
+        assertEquals(1, released.get());
+        assertEquals(0, completed.get());
+        assertEquals(1, metrics.getRequestCount());
+    }
+
+    @Test
+    void routeTimeoutTest() throws Throwable {
+        Boot.boot();
+        var request = Servlets.request(Map.of(), Map.of("getRequestURI", args -> "/test/sleep", "getMethod",
+                args -> "GET", "getParameterMap", args -> Map.of()));
+        var start = System.currentTimeMillis();
+        assertFalse(filter.invoke(request, response.servlet()));
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        assertEquals(504, JSON.parseObject(response.body()).getIntValue(ResultMap.STATUS));
+    }
+
+    @Test
+    void syncTest() throws Throwable {
+        var future = CompletableFuture.<Object>completedFuture("ok");
+        assertFalse(async(context(false), future));
+        assertEquals("ok", response.body());
+        assertNull(listener.get());
+
+        var pending = new CompletableFuture<>();
+        var start = System.currentTimeMillis();
+        assertThrows(TimeoutException.class, () -> async(context(false), pending));
+        assertTrue(System.currentTimeMillis() - start < 2000);
+        assertTrue(pending.isCancelled());
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class ParameterMapTest {
+
+    @Test
+    void caseInsensitiveTest() {
+        var params = new ParameterMap(Map.of("userId", new String[] {"1" }, "ids[]", new String[] {"1", "2" }));
+        assertEquals("1", params.get("userId"));
+        assertEquals("1", params.get("USERID"));
+        assertArrayEquals(new String[] {"1", "2" }, (String[]) params.get("ids[]"));
+
+        // 遍历及修改后复制为小写名称的参数表，取值仍然忽略大小写
+        params.forEach((key, value) -> { });
+        assertEquals("1", params.get("userId"));
+        params.put("userName", "nano");
+        assertEquals("nano", params.get("username"));
+        assertEquals("nano", params.get("USERNAME"));
+        params.remove("UserName");
+        assertNull(params.get("userName"));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.nanoframework.core.web.mvc.Model;
+import org.nanoframework.core.web.mvc.support.RedirectModel;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class RequestContextTest {
+
+    private static HttpServletRequest request(String requestId) {
+        return Servlets.request(requestId == null ? Map.of() : Map.of("X-Request-Id", requestId));
+    }
+
+    @Test
+    void getTest() {
+        var request = request(null);
+        var response = Servlets.response().servlet();
+        var model = new RedirectModel();
+        var urlContext = URLContext.builder().context("/test").parameter(new ParameterMap(Map.of())).build();
+        var context = RequestContext.builder().request(request).response(response).model(model)
+                .urlContext(urlContext).build();
+
+        assertSame(request, context.get(HttpServletRequest.class));
+        assertSame(request, context.get(ServletRequest.class));
+        assertSame(response, context.get(HttpServletResponse.class));
+        assertSame(response, context.get(ServletResponse.class));
+        assertSame(model, context.get(Model.class));
+        assertSame(urlContext, context.get(URLContext.class));
+        assertSame(context, context.get(RequestContext.class));
+        assertNull(context.get(String.class));
+    }
+
+    @Test
+    void correlationIdTest() {
+        assertEquals("abc", RequestContext.builder().request(request("abc")).build().getCorrelationId());
+        assertEquals("def", RequestContext.builder().request(request("abc")).correlationId("def").build()
+                .getCorrelationId());
+
+        var context = RequestContext.builder().request(request(null)).build();
+        var id = context.getCorrelationId();
+        assertEquals(id, context.getCorrelationId());
+        assertNotEquals(id, RequestContext.builder().build().getCorrelationId());
+    }
+
+    @Test
+    void deadlineTest() {
+        var unlimited = RequestContext.builder().build();
+        assertFalse(unlimited.isExpired());
+        assertEquals(Long.MAX_VALUE, unlimited.remaining(TimeUnit.MILLISECONDS));
+
+        var context = RequestContext.builder().deadline(System.nanoTime() + TimeUnit.SECONDS.toNanos(10)).build();
+        assertFalse(context.isExpired());
+        var remaining = context.remaining(TimeUnit.MILLISECONDS);
+        assertTrue(remaining > 0 && remaining <= 10000);
+
+        var expired = RequestContext.builder().deadline(System.nanoTime() - 1).build();
+        assertTrue(expired.isExpired());
+        assertEquals(0, expired.remaining(TimeUnit.MILLISECONDS));
+    }
+}
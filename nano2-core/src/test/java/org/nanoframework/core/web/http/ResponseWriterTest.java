@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.http;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class ResponseWriterTest {
+    private static final int BUFFER_SIZE = 1024;
+
+    private final Servlets.Response response = Servlets.response();
+
+    /**
+     * 缓冲区按线程创建，在新线程中执行以使用{@link #BUFFER_SIZE}大小的缓冲区.
+     */
+    private static <V> V withBuffer(Callable<V> task) throws Exception {
+        System.setProperty(ResponseWriter.BUFFER_SIZE, String.valueOf(BUFFER_SIZE));
+        try {
+            var future = new CompletableFuture<V>();
+            var thread = new Thread(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+
+            thread.start();
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                throw (Exception) e.getCause();
+            }
+        } finally {
+            System.clearProperty(ResponseWriter.BUFFER_SIZE);
+        }
+    }
+
+    private static String repeat(char c, int count) {
+        var chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    void encodeTest() throws IOException {
+        assertArrayEquals(new byte[] {'a' }, ResponseWriter.encode("a"));
+        assertArrayEquals(new byte[] {(byte) 0xC3, (byte) 0xA9 }, ResponseWriter.encode("é"));
+        assertArrayEquals(new byte[] {(byte) 0xE4, (byte) 0xB8, (byte) 0xAD }, ResponseWriter.encode("中"));
+        assertArrayEquals(new byte[] {(byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80 },
+                ResponseWriter.encode("😀"));
+        assertArrayEquals(new byte[] {(byte) 0xEF, (byte) 0xBF, (byte) 0xBF }, ResponseWriter.encode("￿"));
+
+        var value = "aé中😀\u007f\u0080߿ࠀ";
+        assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), ResponseWriter.encode(value));
+        assertEquals("[\"aé中😀\"]", new String(ResponseWriter.encode(List.of("aé中😀")), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void surrogateTest() throws IOException {
+        assertEquals("a?b", new String(ResponseWriter.encode("a\uD83Db"), StandardCharsets.UTF_8));
+        assertEquals("a?b", new String(ResponseWriter.encode("a\uDE00b"), StandardCharsets.UTF_8));
+        assertEquals("??", new String(ResponseWriter.encode("\uDE00\uD83D"), StandardCharsets.UTF_8));
+        assertEquals("?é", new String(ResponseWriter.encode("\uD83Dé"), StandardCharsets.UTF_8));
+        assertEquals("a?", new String(ResponseWriter.encode("a\uD83D"), StandardCharsets.UTF_8));
+
+        var out = new ByteArrayOutputStream();
+        var writer = new ResponseWriter(null, out);
+        writer.write('\uD83D');
+        writer.write("\uDE00", 0, 1);
+        writer.write(new char[] {'\uD83D', '\uD83D', '\uDE00' }, 0, 3);
+        writer.close();
+        assertEquals("😀?😀", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void boundaryTest() throws Exception {
+        for (var prefix = BUFFER_SIZE - 4; prefix <= BUFFER_SIZE; prefix++) {
+            for (var value : List.of("é", "中", "😀")) {
+                var content = repeat('a', prefix) + value + value;
+                response.reset();
+                withBuffer(() -> {
+                    ResponseWriter.write(response.servlet(), content);
+                    return null;
+                });
+
+                assertArrayEquals(content.getBytes(StandardCharsets.UTF_8), response.bytes(), content);
+            }
+        }
+
+        response.reset();
+        withBuffer(() -> {
+            var writer = new ResponseWriter(response.servlet(), null);
+            writer.write(repeat('a', BUFFER_SIZE - 1));
+            writer.write('\uD83D');
+            writer.write('\uDE00');
+            writer.close();
+            return null;
+        });
+
+        assertEquals(repeat('a', BUFFER_SIZE - 1) + "😀", response.body());
+    }
+
+    @Test
+    void contentLengthTest() throws Exception {
+        ResponseWriter.write(response.servlet(), "中文");
+        assertEquals(Integer.valueOf(6), response.contentLength());
+        assertEquals("中文", response.body());
+
+        response.reset();
+        withBuffer(() -> {
+            ResponseWriter.write(response.servlet(), repeat('a', BUFFER_SIZE));
+            return null;
+        });
+
+        assertEquals(Integer.valueOf(BUFFER_SIZE), response.contentLength());
+
+        response.reset();
+        withBuffer(() -> {
+            ResponseWriter.write(response.servlet(), repeat('a', BUFFER_SIZE + 1));
+            return null;
+        });
+
+        assertNull(response.contentLength());
+        assertEquals(BUFFER_SIZE + 1, response.size());
+    }
+
+    @Test
+    void abortTest() throws Exception {
+        assertThrows(RuntimeException.class,
+                () -> ResponseWriter.json(response.servlet(), List.of("a", new Failure()), null));
+        assertEquals(0, response.size());
+        assertEquals(1, response.resets());
+        assertNull(response.contentLength());
+
+        var value = List.of(repeat('a', BUFFER_SIZE * 2), new Failure());
+        var e = assertThrows(ResponseAbortedException.class, () -> withBuffer(() -> {
+            ResponseWriter.json(response.servlet(), value, null);
+            return null;
+        }));
+
+        assertTrue(e.getCause() instanceof RuntimeException);
+        assertTrue(response.size() >= BUFFER_SIZE);
+        assertEquals(1, response.resets());
+        assertNull(response.contentLength());
+    }
+
+    public static class Failure {
+        public String getValue() {
+            throw new IllegalStateException("failure");
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 测试使用的Servlet请求及响应，不依赖Servlet容器.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class Servlets {
+
+    private Servlets() {
+
+    }
+
+    /**
+     * 按方法名返回结果.
+     */
+    @FunctionalInterface
+    public interface Answer {
+        Object answer(Object[] args) throws Throwable;
+    }
+
+    /**
+     * @param <T> 接口类型
+     * @param type 接口类型
+     * @param answers 方法名对应的结果，未指定的方法返回类型默认值
+     * @return 接口的桩对象
+     */
+    public static <T> T stub(Class<T> type, Map<String, Answer> answers) {
+        return type.cast(Proxy.newProxyInstance(Servlets.class.getClassLoader(), new Class<?>[] {type },
+                (proxy, method, args) -> {
+                    var answer = answers.get(method.getName());
+                    return answer == null ? defaultValue(method.getReturnType()) : answer.answer(args);
+                }));
+    }
+
+    /**
+     * @param headers 请求头
+     * @return HttpServletRequest
+     */
+    public static HttpServletRequest request(Map<String, String> headers) {
+        return request(headers, Map.of());
+    }
+
+    /**
+     * @param headers 请求头
+     * @param answers 其它方法名对应的结果
+     * @return HttpServletRequest
+     */
+    public static HttpServletRequest request(Map<String, String> headers, Map<String, Answer> answers) {
+        var all = new HashMap<>(answers);
+        all.putIfAbsent("getHeader", args -> headers.get(args[0]));
+        return stub(HttpServletRequest.class, all);
+    }
+
+    /**
+     * @param body 请求体
+     * @param contentLength 请求头Content-Length，-1为分块传输
+     * @param contentType 请求头Content-Type
+     * @return HttpServletRequest
+     */
+    public static HttpServletRequest request(byte[] body, long contentLength, String contentType) {
+        var input = input(body);
+        return stub(HttpServletRequest.class, Map.of("getContentLengthLong", args -> contentLength,
+                "getContentType", args -> contentType, "getInputStream", args -> input));
+    }
+
+    /**
+     * @param body 请求体
+     * @return 模拟分块传输，每次最多返回1000字节的输入流
+     */
+    private static ServletInputStream input(byte[] body) {
+        var input = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return input.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return input.read(b, off, Math.min(len, 1000));
+            }
+
+            @Override
+            public boolean isFinished() {
+                return input.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+
+            }
+        };
+    }
+
+    /**
+     * @return 记录输出内容的响应
+     */
+    public static Response response() {
+        return new Response(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param limit 输出超过该字节数时抛出IOException，模拟客户端断开连接
+     * @return 记录输出内容的响应
+     */
+    public static Response response(int limit) {
+        return new Response(limit);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        }
+
+        return null;
+    }
+
+    /**
+     * 记录输出内容、响应头、状态码及Content-Length的响应，已有内容输出时视为已提交.
+     */
+    public static final class Response {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        private final Map<String, String> headers = new ConcurrentHashMap<>();
+
+        private final AtomicInteger resets = new AtomicInteger();
+
+        private final HttpServletResponse servlet;
+
+        private volatile Integer contentLength;
+
+        private volatile int status = HttpServletResponse.SC_OK;
+
+        private Response(int limit) {
+            var output = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    synchronized (out) {
+                        if (out.size() >= limit) {
+                            throw new IOException("Broken pipe");
+                        }
+
+                        out.write(b);
+                    }
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+
+                }
+            };
+
+            servlet = stub(HttpServletResponse.class, Map.of("getOutputStream", args -> output,
+                    "setContentType", args -> headers.put("Content-Type", (String) args[0]),
+                    "setHeader", args -> headers.put((String) args[0], (String) args[1]),
+                    "setContentLength", args -> contentLength = (Integer) args[0],
+                    "setStatus", args -> status = (Integer) args[0],
+                    "resetBuffer", args -> resets.incrementAndGet(),
+                    "isCommitted", args -> size() > 0));
+        }
+
+        public HttpServletResponse servlet() {
+            return servlet;
+        }
+
+        public String body() {
+            synchronized (out) {
+                return out.toString(StandardCharsets.UTF_8);
+            }
+        }
+
+        public byte[] bytes() {
+            synchronized (out) {
+                return out.toByteArray();
+            }
+        }
+
+        public int size() {
+            synchronized (out) {
+                return out.size();
+            }
+        }
+
+        /**
+         * 清空已记录的输出内容、响应头及Content-Length.
+         */
+        public void reset() {
+            synchronized (out) {
+                out.reset();
+            }
+
+            headers.clear();
+            contentLength = null;
+        }
+
+        public String header(String name) {
+            return headers.get(name);
+        }
+
+        public Integer contentLength() {
+            return contentLength;
+        }
+
+        public int status() {
+            return status;
+        }
+
+        public int resets() {
+            return resets.get();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.core.web.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+import org.nanoframework.core.web.codec.Codecs;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class StreamResponseTest {
+
+    private static HttpServletRequest request(String accept) {
+        return Servlets.request(accept == null ? Map.of() : Map.of(Codecs.ACCEPT, accept));
+    }
+
+    @Test
+    void formatTest() throws IOException {
+        var closed = new AtomicBoolean();
+        var response = Servlets.response();
+        StreamResponse.write(request(null), response.servlet(),
+                IntStream.range(0, 3).boxed().map(idx -> Map.of("id", idx)).onClose(() -> closed.set(true)));
+        assertEquals("[{\"id\":0},{\"id\":1},{\"id\":2}]", response.body());
+        assertTrue(closed.get());
+
+        response.reset();
+        StreamResponse.write(request("application/x-ndjson"), response.servlet(), List.of("a", "b").iterator());
+        assertEquals("\"a\"\n\"b\"\n", response.body());
+        assertTrue(response.header("Content-Type").startsWith("application/x-ndjson"));
+
+        response.reset();
+        try (var publisher = new SubmissionPublisher<Integer>()) {
+            new Thread(() -> {
+                while (publisher.getNumberOfSubscribers() == 0) {
+                    Thread.onSpinWait();
+                }
+
+                IntStream.range(0, 100).forEach(publisher::submit);
+                publisher.close();
+            }).start();
+
+            StreamResponse.write(request("text/event-stream"), response.servlet(), publisher);
+        }
+
+        var events = response.body().split("\n\n");
+        assertEquals(100, events.length);
+        assertEquals("data: 99", events[99]);
+        assertEquals("no-cache", response.header("Cache-Control"));
+    }
+
+    @Test
+    void disconnectTest() throws IOException {
+        var closed = new AtomicBoolean();
+        var response = Servlets.response(1024);
+        StreamResponse.write(request(null), response.servlet(),
+                IntStream.iterate(0, idx -> idx + 1).boxed().onClose(() -> closed.set(true)));
+        assertTrue(closed.get());
+        assertEquals(1024, response.size());
+    }
+
+    @Test
+    void elementFailureTest() throws IOException {
+        System.setProperty(StreamResponse.FLUSH_SIZE, "1");
+        try {
+            var closed = new AtomicBoolean();
+            var response = Servlets.response();
+            StreamResponse.write(request(null), response.servlet(),
+                    Stream.of(Map.of("id", 0), Map.of("id", 1), new Failure()).onClose(() -> closed.set(true)));
+            assertEquals("[{\"id\":0},{\"id\":1}", response.body());
+            assertTrue(closed.get());
+
+            response.reset();
+            StreamResponse.write(request("text/event-stream"), response.servlet(),
+                    List.of(Map.of("id", 0), new Failure()).iterator());
+            var events = response.body().split("\n\n");
+            assertEquals(2, events.length);
+            assertEquals("data: {\"id\":0}", events[0]);
+            assertTrue(events[1].startsWith("event: error\n"));
+            assertTrue(events[1].contains("failure"));
+        } finally {
+            System.clearProperty(StreamResponse.FLUSH_SIZE);
+        }
+    }
+
+    @Test
+    void timeoutTest() {
+        var cancelled = new AtomicBoolean();
+        Flow.Publisher<Object> publisher = subscriber -> subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+
+            }
+
+            @Override
+            public void cancel() {
+                cancelled.set(true);
+            }
+        });
+
+        System.setProperty(StreamResponse.TIMEOUT, "50");
+        try {
+            var response = Servlets.response().servlet();
+            assertThrows(IllegalStateException.class, () -> StreamResponse.write(request(null), response, publisher));
+            assertTrue(cancelled.get());
+        } finally {
+            System.clearProperty(StreamResponse.TIMEOUT);
+        }
+    }
+
+    public static class Failure {
+        public String getValue() {
+            throw new IllegalStateException("failure");
+        }
+    }
+}
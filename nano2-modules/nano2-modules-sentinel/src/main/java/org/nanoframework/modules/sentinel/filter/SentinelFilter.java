@@ -15,8 +15,6 @@
  */
 package org.nanoframework.modules.sentinel.filter;
 
-import java.lang.reflect.Method;
-
 import org.nanoframework.core.rest.annotation.Route;
 import org.nanoframework.core.rest.exception.NotFoundMockException;
 import org.nanoframework.core.rest.invoker.Filter;
@@ -35,12 +33,12 @@ public class SentinelFilter extends Filter {
     protected Object proceed(Invoker invoker) throws Throwable {
         if (SphO.entry(route(invoker))) {
             try {
-                return doNext();
+                return doNext(invoker);
             } finally {
                 SphO.exit();
             }
         } else {
-            return mock(invoker.getMethod());
+            return mock(invoker);
         }
     }
 
@@ -54,9 +52,9 @@ public class SentinelFilter extends Filter {
         }
     }
 
-    private Object mock(Method method) {
+    private Object mock(Invoker invoker) {
         try {
-            return mock0(method);
+            return mock0(invoker);
         } catch (Throwable e) {
             if (e instanceof NotFoundMockException) {
                 throw new SentinelBlockException("当前服务已被降级");
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分块批量执行的汇总结果，不保存逐行的更新数量，只保存每个分块的行数、更新数量及耗时.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class BatchResult {
+    private final List<Chunk> chunks = new ArrayList<>();
+
+    private long rows;
+
+    private long updateCount;
+
+    private long unknownCount;
+
+    void add(Chunk chunk) {
+        chunks.add(chunk);
+        rows += chunk.rows;
+        updateCount += chunk.updateCount;
+        unknownCount += chunk.unknownCount;
+    }
+
+    /**
+     * @return 提交的总行数
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return 数据库返回的更新数量合计
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * @return 执行成功但驱动未返回更新数量({@link Statement#SUCCESS_NO_INFO})的行数
+     */
+    public long getUnknownCount() {
+        return unknownCount;
+    }
+
+    public List<Chunk> getChunks() {
+        return Collections.unmodifiableList(chunks);
+    }
+
+    /**
+     * @return 所有分块的执行耗时合计(毫秒)
+     */
+    public long getCostMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(chunks.stream().mapToLong(Chunk::getCostNanos).sum());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult[rows=%d, updateCount=%d, unknownCount=%d, chunks=%d, cost=%dms]", rows,
+                updateCount, unknownCount, chunks.size(), getCostMillis());
+    }
+
+    /**
+     * 单个分块的执行结果.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    public static final class Chunk {
+        private final int index;
+
+        private final int rows;
+
+        private final long updateCount;
+
+        private final int unknownCount;
+
+        private final long costNanos;
+
+        Chunk(int index, int rows, long updateCount, int unknownCount, long costNanos) {
+            this.index = index;
+            this.rows = rows;
+            this.updateCount = updateCount;
+            this.unknownCount = unknownCount;
+            this.costNanos = costNanos;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public long getUpdateCount() {
+            return updateCount;
+        }
+
+        public int getUnknownCount() {
+            return unknownCount;
+        }
+
+        public long getCostNanos() {
+            return costNanos;
+        }
+
+        public long getCostMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(costNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Chunk[%d, rows=%d, updateCount=%d, cost=%dms]", index, rows, updateCount,
+                    getCostMillis());
+        }
+    }
+}
@@ -17,9 +17,12 @@ package org.nanoframework.orm.jdbc;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.nanoframework.orm.jdbc.jstl.Result;
+import org.nanoframework.orm.jdbc.mapper.RowMapper;
 
 /**
  * @author yanghe
@@ -38,8 +41,74 @@ public interface DefaultSqlExecutor {
 
     int executeUpdate(String sql, List<Object> values, Connection conn) throws SQLException;
 
+    /**
+     * 查询并使用行转换器直接将ResultSet的每一行转换为结果对象.
+     * @param <T> 转换结果类型
+     * @param sql SQL
+     * @param values 参数列表
+     * @param mapper 行转换器，如{@link org.nanoframework.orm.jdbc.mapper.BeanRowMapper}
+     * @param conn Connection
+     * @return 查询结果列表
+     * @throws SQLException 执行查询异常
+     * @since 2.0.0
+     */
+    <T> List<T> executeQuery(String sql, List<Object> values, RowMapper<T> mapper, Connection conn)
+            throws SQLException;
+
+    /**
+     * 批量执行，所有行作为一个JDBC批处理提交给数据库.
+     * @param sql SQL
+     * @param batchValues 每行的参数列表
+     * @param conn Connection
+     * @return 每行的更新数量
+     * @throws SQLException 执行异常
+     */
     int[] executeBatchUpdate(String sql, List<List<Object>> batchValues, Connection conn) throws SQLException;
 
+    /**
+     * 批量执行，每batchSize行调用一次executeBatch. 某个分块失败时之前的分块已执行(自动提交时已生效)，
+     * BatchUpdateException的更新数量包含之前分块的结果及失败分块中驱动返回的结果，需要原子性时在事务中调用.
+     * @param sql SQL
+     * @param batchValues 每行的参数列表
+     * @param batchSize 每个分块的行数
+     * @param conn Connection
+     * @return 每行的更新数量
+     * @throws SQLException 执行异常
+     * @since 2.0.0
+     */
+    int[] executeBatchUpdate(String sql, List<List<Object>> batchValues, int batchSize, Connection conn)
+            throws SQLException;
+
     boolean execute(String sql, final Connection conn) throws SQLException;
 
+    /**
+     * 分块批量执行，每次从数据源读取chunkSize行提交给数据库，内存占用与总行数无关.
+     * @param sql SQL
+     * @param values 每行的参数列表
+     * @param chunkSize 每个分块的行数
+     * @param rewrite 是否将单行的INSERT ... VALUES (?)改写为多行VALUES语句执行，SQL不是此形式时按JDBC批处理执行
+     * @param conn Connection
+     * @return 汇总的更新数量及每个分块的耗时
+     * @throws SQLException 执行异常，之前的分块已提交给数据库
+     * @since 2.0.0
+     */
+    BatchResult executeBatch(String sql, Iterator<? extends List<Object>> values, int chunkSize, boolean rewrite,
+            Connection conn) throws SQLException;
+
+    /**
+     * 流式查询，逐行读取ResultSet并转换，不缓存查询结果. <br>
+     * 返回的Stream必须关闭，关闭时释放ResultSet及Statement，Connection由调用方管理.
+     * @param <T> 转换结果类型
+     * @param sql SQL
+     * @param values 参数列表
+     * @param fetchSize 每次从数据库读取的行数
+     * @param mapper 行转换器
+     * @param conn Connection
+     * @return 查询结果流
+     * @throws SQLException 执行查询异常
+     * @since 2.0.0
+     */
+    <T> Stream<T> stream(String sql, List<Object> values, int fetchSize, RowMapper<T> mapper, Connection conn)
+            throws SQLException;
+
 }
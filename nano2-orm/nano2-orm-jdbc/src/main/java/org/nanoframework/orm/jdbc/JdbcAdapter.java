@@ -16,6 +16,7 @@
 package org.nanoframework.orm.jdbc;
 
 import java.beans.PropertyVetoException;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -23,9 +24,19 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.nanoframework.modules.logging.Logger;
 import org.nanoframework.modules.logging.LoggerFactory;
@@ -33,6 +44,7 @@ import org.nanoframework.orm.PoolType;
 import org.nanoframework.orm.jdbc.config.JdbcConfig;
 import org.nanoframework.orm.jdbc.jstl.Result;
 import org.nanoframework.orm.jdbc.jstl.ResultSupport;
+import org.nanoframework.orm.jdbc.mapper.RowMapper;
 import org.nanoframework.orm.jdbc.pool.DruidPool;
 import org.nanoframework.orm.jdbc.pool.Pool;
 import org.nanoframework.orm.jdbc.pool.TomcatJdbcPool;
@@ -59,12 +71,25 @@ public class JdbcAdapter implements DefaultSqlExecutor {
 
     private Pool pool;
 
+    /** 数据源对应的每个连接的Statement缓存数量. */
+    private final Map<String, Integer> statementCacheSizes = new ConcurrentHashMap<>();
+
+    /** 以物理连接为键的Statement缓存，连接池每次借出的连接代理不同，但物理连接不变；Statement仍通过借出的连接代理创建. */
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+
     private JdbcAdapter(Collection<JdbcConfig> configs, @NonNull PoolType poolType)
             throws PropertyVetoException, SQLException {
         if (INIT.get()) {
             throw new SQLException("数据源已经加载");
         }
 
+        configs.forEach(config -> {
+            var size = config.getStatementCacheSize();
+            if (size != null && size > 0) {
+                statementCacheSizes.put(config.getEnvironmentId(), size);
+            }
+        });
+
         switch (poolType) {
             case DRUID:
                 pool = new DruidPool(configs);
@@ -102,7 +127,7 @@ public class JdbcAdapter implements DefaultSqlExecutor {
 
     public Connection getConnection(String dataSource) throws SQLException {
         try {
-            return pool.getPool(dataSource).getConnection();
+            return attach(dataSource, pool.getPool(dataSource).getConnection());
         } catch (Exception e) {
             LOGGER.error(e.getMessage(), e);
         }
@@ -110,6 +135,84 @@ public class JdbcAdapter implements DefaultSqlExecutor {
         return null;
     }
 
+    /**
+     * 为连接池借出的连接关联其物理连接的PreparedStatement缓存，未关联缓存的连接每次执行都会创建新的PreparedStatement.
+     * @param dataSource 数据源名称
+     * @param conn 连接池借出的连接
+     * @return 传入的连接
+     * @since 2.0.0
+     */
+    public Connection attach(String dataSource, Connection conn) {
+        var size = statementCacheSizes.get(dataSource);
+        if (conn == null || size == null) {
+            return conn;
+        }
+
+        var physical = physical(conn);
+        if (!statementCaches.containsKey(physical)) {
+            // 新的物理连接出现时清理已被连接池关闭的物理连接的缓存
+            statementCaches.entrySet().removeIf(entry -> {
+                if (entry.getValue().isConnectionClosed()) {
+                    entry.getValue().close();
+                    return true;
+                }
+
+                return false;
+            });
+
+            statementCaches.putIfAbsent(physical, new StatementCache(dataSource, size, physical));
+        }
+
+        return conn;
+    }
+
+    /**
+     * @return 当前所有物理连接的PreparedStatement缓存，用于查看各连接的缓存数量及命中统计
+     * @since 2.0.0
+     */
+    public Collection<StatementCache> getStatementCaches() {
+        return List.copyOf(statementCaches.values());
+    }
+
+    private static Connection physical(Connection conn) {
+        try {
+            var physical = conn.unwrap(Connection.class);
+            return physical == null ? conn : physical;
+        } catch (SQLException | RuntimeException e) {
+            return conn;
+        }
+    }
+
+    private StatementCache statementCache(Connection conn) {
+        return statementCaches.isEmpty() ? null : statementCaches.get(physical(conn));
+    }
+
+    private PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        var cache = statementCache(conn);
+        return cache == null ? conn.prepareStatement(sql) : cache.borrow(conn, sql);
+    }
+
+    /**
+     * 归还由{@link #getPreparedStmt(Connection, String, List)}或{@link #getPreparedStmtForBatch(Connection, String, List)}
+     * 获取的PreparedStatement，连接未关联缓存时关闭.
+     * @param conn 连接
+     * @param sql SQL
+     * @param pstmt PreparedStatement
+     * @since 2.0.0
+     */
+    public void release(Connection conn, String sql, PreparedStatement pstmt) {
+        if (pstmt == null) {
+            return;
+        }
+
+        var cache = statementCache(conn);
+        if (cache == null) {
+            close(pstmt);
+        } else {
+            cache.release(sql, pstmt);
+        }
+    }
+
     public void commit(@NonNull Connection conn) throws SQLException {
         if (isTxInit(conn)) {
             conn.commit();
@@ -132,19 +235,30 @@ public class JdbcAdapter implements DefaultSqlExecutor {
 
     public PreparedStatement getPreparedStmt(@NonNull Connection conn, String sql, List<Object> values)
             throws SQLException {
-        var pstmt = conn.prepareStatement(sql);
-        setValues(pstmt, values);
+        var pstmt = prepare(conn, sql);
+        try {
+            setValues(pstmt, values);
+        } catch (SQLException | RuntimeException e) {
+            close(pstmt);
+            throw e;
+        }
+
         return pstmt;
     }
 
     public PreparedStatement getPreparedStmtForBatch(@NonNull Connection conn, String sql,
             List<List<Object>> batchValues) throws SQLException {
-        var pstmt = conn.prepareStatement(sql);
-        if (batchValues != null && batchValues.size() > 0) {
-            for (var values : batchValues) {
-                setValues(pstmt, values);
-                pstmt.addBatch();
+        var pstmt = prepare(conn, sql);
+        try {
+            if (batchValues != null && batchValues.size() > 0) {
+                for (var values : batchValues) {
+                    setValues(pstmt, values);
+                    pstmt.addBatch();
+                }
             }
+        } catch (SQLException | RuntimeException e) {
+            close(pstmt);
+            throw e;
         }
 
         return pstmt;
@@ -160,7 +274,6 @@ public class JdbcAdapter implements DefaultSqlExecutor {
             stmt = getStatement(conn);
             stmt.setQueryTimeout(60);
             rs = stmt.executeQuery(sql);
-            rs.setFetchSize(rs.getRow());
             result = ResultSupport.toResult(rs);
         } finally {
             close(rs, stmt);
@@ -199,10 +312,10 @@ public class JdbcAdapter implements DefaultSqlExecutor {
             pstmt = getPreparedStmt(conn, sql, values);
             pstmt.setQueryTimeout(60);
             rs = pstmt.executeQuery();
-            rs.setFetchSize(rs.getRow());
             result = ResultSupport.toResult(rs);
         } finally {
-            close(rs, pstmt);
+            close(rs);
+            release(conn, sql, pstmt);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("[ Execute Query SQL ]: {} [cost {}ms ]", sql, System.currentTimeMillis() - start);
                 LOGGER.debug("[ Execute Parameter ]: {}",
@@ -213,6 +326,35 @@ public class JdbcAdapter implements DefaultSqlExecutor {
         return result;
     }
 
+    @Override
+    public <T> List<T> executeQuery(String sql, List<Object> values, @NonNull RowMapper<T> mapper,
+            @NonNull Connection conn) throws SQLException {
+        var start = System.currentTimeMillis();
+        ResultSet rs = null;
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = getPreparedStmt(conn, sql, values);
+            pstmt.setQueryTimeout(60);
+            rs = pstmt.executeQuery();
+            var rowMapper = mapper.prepare(rs);
+            var result = new ArrayList<T>();
+            var rowNum = 0;
+            while (rs.next()) {
+                result.add(rowMapper.map(rs, ++rowNum));
+            }
+
+            return result;
+        } finally {
+            close(rs);
+            release(conn, sql, pstmt);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("[ Execute Query SQL ]: {} [cost {}ms ]", sql, System.currentTimeMillis() - start);
+                LOGGER.debug("[ Execute Parameter ]: {}",
+                        JSON.toJSONString(values, SerializerFeature.WriteDateUseDateFormat));
+            }
+        }
+    }
+
     public int executeUpdate(String sql, List<Object> values, @NonNull Connection conn) throws SQLException {
         var start = System.currentTimeMillis();
         PreparedStatement pstmt = null;
@@ -222,7 +364,7 @@ public class JdbcAdapter implements DefaultSqlExecutor {
             pstmt.setQueryTimeout(60);
             return pstmt.executeUpdate();
         } finally {
-            close(pstmt);
+            release(conn, sql, pstmt);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("[ Execute Update/Insert SQL ]: {} [cost {}ms ]", sql, System.currentTimeMillis() - start);
                 LOGGER.debug("[ Execute Parameter ]: {}",
@@ -232,6 +374,7 @@ public class JdbcAdapter implements DefaultSqlExecutor {
 
     }
 
+    @Override
     public int[] executeBatchUpdate(String sql, List<List<Object>> batchValues, @NonNull Connection conn)
             throws SQLException {
         if (CollectionUtils.isEmpty(batchValues)) {
@@ -245,7 +388,56 @@ public class JdbcAdapter implements DefaultSqlExecutor {
             pstmt.setQueryTimeout(60);
             return pstmt.executeBatch();
         } finally {
-            close(pstmt);
+            release(conn, sql, pstmt);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("[ Execute Update/Insert SQL ] : {} [cost {}ms ]", sql,
+                        System.currentTimeMillis() - start);
+                LOGGER.debug("[ Execute Parameter ]: {}",
+                        JSON.toJSONString(batchValues, SerializerFeature.WriteDateUseDateFormat));
+            }
+        }
+    }
+
+    /**
+     * 分块失败时的行为见{@link DefaultSqlExecutor#executeBatchUpdate(String, List, int, Connection)}.
+     */
+    @Override
+    public int[] executeBatchUpdate(String sql, List<List<Object>> batchValues, int batchSize,
+            @NonNull Connection conn) throws SQLException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("无效的分块大小: " + batchSize);
+        }
+
+        if (CollectionUtils.isEmpty(batchValues)) {
+            return new int[0];
+        }
+
+        var start = System.currentTimeMillis();
+        var size = batchValues.size();
+        var counts = new int[size];
+        PreparedStatement pstmt = null;
+        try {
+            pstmt = prepare(conn, sql);
+            pstmt.setQueryTimeout(60);
+            for (var from = 0; from < size; from += batchSize) {
+                for (var values : batchValues.subList(from, Math.min(from + batchSize, size))) {
+                    setValues(pstmt, values);
+                    pstmt.addBatch();
+                }
+
+                int[] chunk;
+                try {
+                    chunk = pstmt.executeBatch();
+                } catch (BatchUpdateException e) {
+                    throw merge(e, counts, from);
+                }
+
+                System.arraycopy(chunk, 0, counts, from, Math.min(chunk.length, size - from));
+            }
+
+            return counts;
+        } finally {
+            release(conn, sql, pstmt);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("[ Execute Update/Insert SQL ] : {} [cost {}ms ]", sql,
                         System.currentTimeMillis() - start);
@@ -255,6 +447,121 @@ public class JdbcAdapter implements DefaultSqlExecutor {
         }
     }
 
+    /**
+     * @return 更新数量包含之前分块结果的BatchUpdateException
+     */
+    private static BatchUpdateException merge(BatchUpdateException e, int[] counts, int executed) {
+        if (executed == 0) {
+            return e;
+        }
+
+        var chunk = e.getUpdateCounts();
+        var merged = new int[executed + (chunk == null ? 0 : chunk.length)];
+        System.arraycopy(counts, 0, merged, 0, executed);
+        if (chunk != null) {
+            System.arraycopy(chunk, 0, merged, executed, chunk.length);
+        }
+
+        var exception = new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), merged, e);
+        exception.setNextException(e.getNextException());
+        return exception;
+    }
+
+    @Override
+    public BatchResult executeBatch(String sql, @NonNull Iterator<? extends List<Object>> values, int chunkSize,
+            boolean rewrite, @NonNull Connection conn) throws SQLException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("无效的分块大小: " + chunkSize);
+        }
+
+        var insert = rewrite ? MultiRowInsert.parse(sql) : null;
+        if (rewrite && insert == null) {
+            LOGGER.warn("不是单行的INSERT ... VALUES语句，按JDBC批处理执行: {}", sql);
+        }
+
+        var start = System.currentTimeMillis();
+        var rowsPerChunk = insert == null ? chunkSize : insert.rows(chunkSize);
+        var result = new BatchResult();
+        var chunk = new ArrayList<List<Object>>();
+        PreparedStatement pstmt = null;
+        String pstmtSql = null;
+        var pstmtRows = 0;
+        try {
+            while (values.hasNext()) {
+                chunk.add(values.next());
+                if (chunk.size() < rowsPerChunk && values.hasNext()) {
+                    continue;
+                }
+
+                // 多行INSERT的SQL随行数变化，只有最后一个分块的行数可能不同
+                if (pstmt == null || (insert != null && pstmtRows != chunk.size())) {
+                    release(conn, pstmtSql, pstmt);
+                    pstmt = null;
+                    pstmtSql = insert == null ? sql : insert.sql(chunk.size());
+                    pstmt = prepare(conn, pstmtSql);
+                    pstmt.setQueryTimeout(60);
+                    pstmtRows = chunk.size();
+                }
+
+                var index = result.getChunks().size();
+                var executed = insert == null ? executeChunk(pstmt, chunk, index)
+                        : executeChunk(pstmt, chunk, insert.parameters, index);
+                result.add(executed);
+                chunk.clear();
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("[ Execute Batch Chunk ]: {} [cost {}ms ]", executed, executed.getCostMillis());
+                }
+            }
+
+            return result;
+        } finally {
+            release(conn, pstmtSql, pstmt);
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("[ Execute Batch SQL ]: {} {} [cost {}ms ]", sql, result,
+                        System.currentTimeMillis() - start);
+            }
+        }
+    }
+
+    private BatchResult.Chunk executeChunk(PreparedStatement pstmt, List<List<Object>> rows, int index)
+            throws SQLException {
+        var start = System.nanoTime();
+        for (var values : rows) {
+            setValues(pstmt, values);
+            pstmt.addBatch();
+        }
+
+        var updateCount = 0L;
+        var unknownCount = 0;
+        for (var count : pstmt.executeBatch()) {
+            if (count >= 0) {
+                updateCount += count;
+            } else if (count == Statement.SUCCESS_NO_INFO) {
+                unknownCount++;
+            }
+        }
+
+        return new BatchResult.Chunk(index, rows.size(), updateCount, unknownCount, System.nanoTime() - start);
+    }
+
+    private BatchResult.Chunk executeChunk(PreparedStatement pstmt, List<List<Object>> rows, int parameters,
+            int index) throws SQLException {
+        var start = System.nanoTime();
+        var offset = 0;
+        for (var values : rows) {
+            if (values == null || values.size() != parameters) {
+                throw new SQLException(String.format("参数数量与占位符数量不一致: 需要 %d 个, 实际 %d 个", parameters,
+                        values == null ? 0 : values.size()));
+            }
+
+            setValues(pstmt, values, offset);
+            offset += parameters;
+        }
+
+        var updateCount = pstmt.executeUpdate();
+        return new BatchResult.Chunk(index, rows.size(), updateCount, 0, System.nanoTime() - start);
+    }
+
     @Override
     public boolean execute(String sql, @NonNull Connection conn) throws SQLException {
         var start = System.currentTimeMillis();
@@ -270,29 +577,203 @@ public class JdbcAdapter implements DefaultSqlExecutor {
         }
     }
 
+    @Override
+    public <T> Stream<T> stream(String sql, List<Object> values, int fetchSize, @NonNull RowMapper<T> mapper,
+            @NonNull Connection conn) throws SQLException {
+        var start = System.currentTimeMillis();
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        RowMapper<T> rowMapper;
+        try {
+            pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(fetchSize(conn, fetchSize));
+            setValues(pstmt, values);
+            rs = pstmt.executeQuery();
+            rowMapper = mapper.prepare(rs);
+        } catch (SQLException | RuntimeException e) {
+            close(rs, pstmt);
+            throw e;
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("[ Execute Stream Query SQL ]: {} [cost {}ms ]", sql, System.currentTimeMillis() - start);
+            LOGGER.debug("[ Execute Parameter ]: {}",
+                    JSON.toJSONString(values, SerializerFeature.WriteDateUseDateFormat));
+        }
+
+        var cursor = new Cursor<>(rs, rowMapper);
+        var statement = pstmt;
+        var resultSet = rs;
+        return StreamSupport.stream(cursor, false).onClose(() -> close(resultSet, statement));
+    }
+
+    /**
+     * MySQL Connector/J在未开启useCursorFetch时，只有fetchSize为Integer.MIN_VALUE才会逐行读取，否则会在客户端缓存全部结果.
+     */
+    private static int fetchSize(Connection conn, int fetchSize) throws SQLException {
+        var metaData = conn.getMetaData();
+        var product = metaData.getDatabaseProductName();
+        if (product != null && product.toLowerCase().contains("mysql")) {
+            var url = metaData.getURL();
+            if (url == null || !url.contains("useCursorFetch=true")) {
+                return Integer.MIN_VALUE;
+            }
+        }
+
+        return Math.max(fetchSize, 0);
+    }
+
+    /**
+     * 按行读取ResultSet的游标.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final ResultSet rs;
+
+        private final RowMapper<T> mapper;
+
+        private int rowNum;
+
+        private Cursor(ResultSet rs, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.rs = rs;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                if (!rs.next()) {
+                    return false;
+                }
+
+                action.accept(mapper.map(rs, ++rowNum));
+                return true;
+            } catch (SQLException e) {
+                throw new DataSourceException("读取查询结果异常: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 单行INSERT ... VALUES (?, ...)语句，改写为一条语句插入多行的VALUES (?, ...), (?, ...).
+     * @author yanghe
+     * @since 2.0.0
+     */
+    static final class MultiRowInsert {
+        private static final Pattern VALUES = Pattern.compile("^\\s*insert\\s.+?\\bvalues\\s*\\(",
+                Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+        /** 单条语句的参数数量上限，部分数据库(如PostgreSQL)的协议限制为32767. */
+        private static final int MAX_PARAMETERS = Short.MAX_VALUE;
+
+        private final String prefix;
+
+        private final String tuple;
+
+        private final int parameters;
+
+        private MultiRowInsert(String prefix, String tuple, int parameters) {
+            this.prefix = prefix;
+            this.tuple = tuple;
+            this.parameters = parameters;
+        }
+
+        /**
+         * @param sql SQL
+         * @return 不是单行INSERT ... VALUES语句(如INSERT ... SELECT或VALUES后还有其它子句)时返回null
+         */
+        static MultiRowInsert parse(String sql) {
+            var matcher = VALUES.matcher(sql);
+            if (!matcher.find()) {
+                return null;
+            }
+
+            var open = matcher.end() - 1;
+            var prefix = sql.substring(0, open);
+            if (prefix.indexOf('?') >= 0) {
+                return null;
+            }
+
+            var depth = 0;
+            var parameters = 0;
+            var close = -1;
+            char quote = 0;
+            for (var idx = open; idx < sql.length() && close < 0; idx++) {
+                var ch = sql.charAt(idx);
+                if (quote != 0) {
+                    if (ch == quote) {
+                        quote = 0;
+                    }
+                } else if (ch == '\'' || ch == '"' || ch == '`') {
+                    quote = ch;
+                } else if (ch == '(') {
+                    depth++;
+                } else if (ch == ')' && --depth == 0) {
+                    close = idx;
+                } else if (ch == '?') {
+                    parameters++;
+                }
+            }
+
+            if (close < 0 || parameters == 0) {
+                return null;
+            }
+
+            var rest = sql.substring(close + 1).trim();
+            if (!rest.isEmpty() && !";".equals(rest)) {
+                return null;
+            }
+
+            return new MultiRowInsert(prefix, sql.substring(open, close + 1), parameters);
+        }
+
+        int rows(int chunkSize) {
+            return Math.max(1, Math.min(chunkSize, MAX_PARAMETERS / parameters));
+        }
+
+        String sql(int rows) {
+            var builder = new StringBuilder(prefix.length() + (tuple.length() + 2) * rows).append(prefix);
+            for (var idx = 0; idx < rows; idx++) {
+                if (idx > 0) {
+                    builder.append(", ");
+                }
+
+                builder.append(tuple);
+            }
+
+            return builder.toString();
+        }
+    }
+
     private void setValues(PreparedStatement pstmt, List<Object> values) throws SQLException {
+        setValues(pstmt, values, 0);
+    }
+
+    private void setValues(PreparedStatement pstmt, List<Object> values, int offset) throws SQLException {
         if (CollectionUtils.isEmpty(values)) {
             return;
         }
 
         for (var i = 0; i < values.size(); i++) {
             if (values.get(i) instanceof Integer) {
-                pstmt.setInt(i + 1, (Integer) values.get(i));
+                pstmt.setInt(offset + i + 1, (Integer) values.get(i));
             } else if (values.get(i) instanceof Long) {
-                pstmt.setLong(i + 1, (Long) values.get(i));
+                pstmt.setLong(offset + i + 1, (Long) values.get(i));
             } else if (values.get(i) instanceof String) {
-                pstmt.setString(i + 1, (String) values.get(i));
+                pstmt.setString(offset + i + 1, (String) values.get(i));
             } else if (values.get(i) instanceof Double) {
-                pstmt.setDouble(i + 1, (Double) values.get(i));
+                pstmt.setDouble(offset + i + 1, (Double) values.get(i));
             } else if (values.get(i) instanceof Float) {
-                pstmt.setFloat(i + 1, (Float) values.get(i));
+                pstmt.setFloat(offset + i + 1, (Float) values.get(i));
             } else if (values.get(i) instanceof Timestamp) {
-                pstmt.setTimestamp(i + 1, (Timestamp) values.get(i));
+                pstmt.setTimestamp(offset + i + 1, (Timestamp) values.get(i));
             } else if (values.get(i) instanceof java.util.Date) {
                 java.util.Date tempDate = (java.util.Date) values.get(i);
-                pstmt.setDate(i + 1, new Date(tempDate.getTime()));
+                pstmt.setDate(offset + i + 1, new Date(tempDate.getTime()));
             } else {
-                pstmt.setObject(i + 1, values.get(i));
+                pstmt.setObject(offset + i + 1, values.get(i));
             }
         }
     }
@@ -324,6 +805,8 @@ public class JdbcAdapter implements DefaultSqlExecutor {
     }
 
     public void shutdown() {
+        statementCaches.values().forEach(StatementCache::close);
+        statementCaches.clear();
         pool.closeAndClear();
         pool = null;
         INIT.set(false);
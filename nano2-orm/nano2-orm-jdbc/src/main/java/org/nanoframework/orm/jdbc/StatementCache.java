@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.nanoframework.modules.logging.Logger;
+import org.nanoframework.modules.logging.LoggerFactory;
+
+/**
+ * 单个物理连接的PreparedStatement缓存，以SQL为键，按最近使用顺序淘汰. <br>
+ * Statement通过连接池借出的连接创建，连接池的Filter及拦截器对其生效；连接池在连接归还时关闭的Statement(如Druid、
+ * tomcat-jdbc的StatementFinalizer)在下次借出时检测到已关闭并重新创建. <br>
+ * Statement借出时从缓存中移除，归还时放回，同一SQL在结果集未关闭时被再次使用(如嵌套查询)会创建新的Statement，
+ * 归还时缓存中已存在相同SQL的Statement则直接关闭.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class StatementCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementCache.class);
+
+    private final String environmentId;
+
+    private final int maxSize;
+
+    private final Connection conn;
+
+    /** 插入顺序即归还顺序，表头为最久未使用的Statement. */
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private volatile boolean closed;
+
+    StatementCache(String environmentId, int maxSize, Connection conn) {
+        this.environmentId = environmentId;
+        this.maxSize = maxSize;
+        this.conn = conn;
+    }
+
+    /**
+     * @param pooled 连接池借出的连接
+     * @param sql SQL
+     * @return 缓存的Statement，不存在或已关闭时通过借出的连接创建
+     * @throws SQLException 创建Statement异常
+     */
+    PreparedStatement borrow(Connection pooled, String sql) throws SQLException {
+        PreparedStatement pstmt;
+        synchronized (statements) {
+            pstmt = statements.remove(sql);
+        }
+
+        if (pstmt != null && !pstmt.isClosed()) {
+            hits.incrementAndGet();
+            return pstmt;
+        }
+
+        misses.incrementAndGet();
+        return pooled.prepareStatement(sql);
+    }
+
+    /**
+     * @param sql SQL
+     * @param pstmt 使用完成的Statement
+     */
+    void release(String sql, PreparedStatement pstmt) {
+        if (closed) {
+            close(pstmt);
+            return;
+        }
+
+        try {
+            pstmt.clearParameters();
+        } catch (SQLException e) {
+            close(pstmt);
+            return;
+        }
+
+        try {
+            pstmt.clearBatch();
+        } catch (SQLException e) {
+            // 部分驱动不支持批处理
+        }
+
+        PreparedStatement evicted = null;
+        synchronized (statements) {
+            if (statements.putIfAbsent(sql, pstmt) != null) {
+                evicted = pstmt;
+            } else if (statements.size() > maxSize) {
+                var eldest = statements.entrySet().iterator();
+                evicted = eldest.next().getValue();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+
+        if (evicted != null) {
+            close(evicted);
+        }
+    }
+
+    /**
+     * @return 物理连接已关闭时返回true
+     */
+    boolean isConnectionClosed() {
+        try {
+            return conn.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    /**
+     * 关闭所有缓存的Statement，之后归还的Statement直接关闭.
+     */
+    void close() {
+        closed = true;
+        synchronized (statements) {
+            statements.values().forEach(StatementCache::close);
+            statements.clear();
+        }
+    }
+
+    private static void close(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException e) {
+            LOGGER.warn("关闭Statement异常: {}", e.getMessage());
+        }
+    }
+
+    public String getEnvironmentId() {
+        return environmentId;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int size() {
+        synchronized (statements) {
+            return statements.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * @return 命中率，未使用过时返回0
+     */
+    public double getHitRatio() {
+        var hits = this.hits.get();
+        var total = hits + misses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StatementCache[%s, size=%d/%d, hits=%d, misses=%d, evictions=%d]", environmentId, size(),
+                maxSize, getHits(), getMisses(), getEvictions());
+    }
+}
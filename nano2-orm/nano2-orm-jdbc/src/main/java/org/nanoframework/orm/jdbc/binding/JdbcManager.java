@@ -18,36 +18,61 @@ package org.nanoframework.orm.jdbc.binding;
 import static org.nanoframework.orm.jdbc.JdbcAdapter.adapter;
 
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
+import org.nanoframework.modules.logging.Logger;
+import org.nanoframework.modules.logging.LoggerFactory;
+import org.nanoframework.orm.jdbc.BatchResult;
 import org.nanoframework.orm.jdbc.DataSourceException;
 import org.nanoframework.orm.jdbc.DefaultSqlExecutor;
 import org.nanoframework.orm.jdbc.config.JdbcConfig;
 import org.nanoframework.orm.jdbc.jstl.Result;
+import org.nanoframework.orm.jdbc.mapper.RowMapper;
 
 /**
  * @author yanghe
  * @since 1.2
  */
 public class JdbcManager implements SqlExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(JdbcManager.class);
 
     private final DataSource dataSource;
 
     private final String envId;
 
+    private final int fetchSize;
+
+    private final int batchSize;
+
+    private final int updateBatchSize;
+
+    private final boolean rewriteBatchInsert;
+
     private final DefaultSqlExecutor sqlExecutorProxy;
 
     private final ThreadLocal<Connection> localConnection = new ThreadLocal<Connection>();
 
+    private final ThreadLocal<Set<Stream<?>>> localCursors = new ThreadLocal<>();
+
     private JdbcManager(final JdbcConfig config, final DataSource dataSource) {
         this.dataSource = dataSource;
         this.envId = config.getEnvironmentId();
+        this.fetchSize = config.getFetchSize() == null ? 0 : config.getFetchSize();
+        this.updateBatchSize = config.getBatchSize() == null || config.getBatchSize() <= 0 ? 0 : config.getBatchSize();
+        this.batchSize = updateBatchSize == 0 ? 1000 : updateBatchSize;
+        this.rewriteBatchInsert = Boolean.TRUE.equals(config.getRewriteBatchInsert());
         this.sqlExecutorProxy = (DefaultSqlExecutor) Proxy.newProxyInstance(JdbcManager.class.getClassLoader(),
                 new Class[] {DefaultSqlExecutor.class }, new SqlExecutorInterceptor());
     }
@@ -57,11 +82,11 @@ public class JdbcManager implements SqlExecutor {
     }
 
     public void startManagedSession() throws SQLException {
-        this.localConnection.set(dataSource.getConnection());
+        this.localConnection.set(adapter().attach(envId, dataSource.getConnection()));
     }
 
     public void startManagedSession(final boolean autoCommit) throws SQLException {
-        var conn = dataSource.getConnection();
+        var conn = adapter().attach(envId, dataSource.getConnection());
         if (conn == null) {
             throw new NullPointerException("无法获取Connection");
         }
@@ -96,9 +121,36 @@ public class JdbcManager implements SqlExecutor {
     @Override
     public void close() {
         try {
+            closeCursors();
             adapter().close(this.localConnection.get());
         } finally {
             this.localConnection.set(null);
+            this.localCursors.remove();
+        }
+    }
+
+    /**
+     * @return 当前事务中是否存在未关闭的流式查询结果
+     * @since 2.0.0
+     */
+    public boolean hasOpenCursors() {
+        var cursors = this.localCursors.get();
+        return cursors != null && !cursors.isEmpty();
+    }
+
+    private void closeCursors() {
+        var cursors = this.localCursors.get();
+        if (cursors == null || cursors.isEmpty()) {
+            return;
+        }
+
+        LOGGER.warn("事务结束时存在{}个未关闭的流式查询结果，已强制关闭", cursors.size());
+        for (var cursor : new ArrayList<>(cursors)) {
+            try {
+                cursor.close();
+            } catch (RuntimeException e) {
+                LOGGER.error(e.getMessage(), e);
+            }
         }
     }
 
@@ -117,14 +169,78 @@ public class JdbcManager implements SqlExecutor {
         return sqlExecutorProxy.executeQuery(sql, values, this.localConnection.get());
     }
 
+    /**
+     * @param <T> 转换结果类型
+     * @param sql SQL
+     * @param values 参数列表
+     * @param mapper 行转换器，如{@link org.nanoframework.orm.jdbc.mapper.BeanRowMapper}
+     * @return 查询结果列表
+     * @throws SQLException 执行查询异常
+     * @since 2.0.0
+     */
+    @Override
+    public <T> List<T> executeQuery(final String sql, final List<Object> values, final RowMapper<T> mapper)
+            throws SQLException {
+        return sqlExecutorProxy.executeQuery(sql, values, mapper, this.localConnection.get());
+    }
+
     @Override
     public int executeUpdate(final String sql, final List<Object> values) throws SQLException {
         return sqlExecutorProxy.executeUpdate(sql, values, this.localConnection.get());
     }
 
+    /**
+     * 批量执行. 未配置JDBC.batchSize时所有行作为一个JDBC批处理执行；
+     * 配置后每JDBC.batchSize行提交一次给数据库，分块失败时的行为见
+     * {@link DefaultSqlExecutor#executeBatchUpdate(String, List, int, Connection)}.
+     * @param sql SQL
+     * @param batchValues 每行的参数列表
+     * @return 每行的更新数量
+     * @throws SQLException 执行异常
+     */
     @Override
     public int[] executeBatchUpdate(final String sql, final List<List<Object>> batchValues) throws SQLException {
-        return sqlExecutorProxy.executeBatchUpdate(sql, batchValues, this.localConnection.get());
+        if (updateBatchSize == 0) {
+            return sqlExecutorProxy.executeBatchUpdate(sql, batchValues, this.localConnection.get());
+        }
+
+        return sqlExecutorProxy.executeBatchUpdate(sql, batchValues, updateBatchSize, this.localConnection.get());
+    }
+
+    @Override
+    public BatchResult executeBatch(final String sql, final Iterator<? extends List<Object>> values)
+            throws SQLException {
+        return executeBatch(sql, values, batchSize, rewriteBatchInsert);
+    }
+
+    /**
+     * 分块批量执行，Stream由调用方关闭.
+     * @param sql SQL
+     * @param values 每行的参数列表
+     * @return 汇总的更新数量及每个分块的耗时
+     * @throws SQLException 执行异常
+     * @since 2.0.0
+     */
+    @Override
+    public BatchResult executeBatch(final String sql, final Stream<? extends List<Object>> values)
+            throws SQLException {
+        return executeBatch(sql, values.iterator(), batchSize, rewriteBatchInsert);
+    }
+
+    /**
+     * 分块批量执行，每次从数据源读取chunkSize行提交给数据库. <br>
+     * 未开启事务时使用的Connection为自动提交，每个分块执行后即提交.
+     * @param sql SQL
+     * @param values 每行的参数列表
+     * @param chunkSize 每个分块的行数
+     * @param rewrite 是否将单行的INSERT ... VALUES (?)改写为多行VALUES语句执行
+     * @return 汇总的更新数量及每个分块的耗时
+     * @throws SQLException 执行异常
+     * @since 2.0.0
+     */
+    public BatchResult executeBatch(final String sql, final Iterator<? extends List<Object>> values,
+            final int chunkSize, final boolean rewrite) throws SQLException {
+        return sqlExecutorProxy.executeBatch(sql, values, chunkSize, rewrite, this.localConnection.get());
     }
 
     @Override
@@ -132,6 +248,74 @@ public class JdbcManager implements SqlExecutor {
         return sqlExecutorProxy.execute(sql, this.localConnection.get());
     }
 
+    @Override
+    public <T> Stream<T> stream(String sql, List<Object> values, RowMapper<T> mapper) throws SQLException {
+        return stream(sql, values, fetchSize, mapper);
+    }
+
+    /**
+     * 流式查询，返回的Stream必须关闭. <br>
+     * 已开启事务时使用事务的Connection，Stream必须在事务结束前消费并关闭: 事务结束时Connection即被释放，
+     * 仍未关闭的Stream会被强制关闭，因此不能作为{@link JdbcTransactional}方法的返回值交给调用方或StreamResponse输出，
+     * 此时{@link JdbcTransactionalMethodInterceptor}抛出IllegalStateException并回滚事务. <br>
+     * 未开启事务时获取独立的Connection并关闭自动提交(部分数据库只在事务中使用游标读取)，Stream关闭时提交并释放Connection，
+     * 需要作为路由返回值流式输出时应在事务外调用.
+     * @param <T> 转换结果类型
+     * @param sql SQL
+     * @param values 参数列表
+     * @param fetchSize 每次从数据库读取的行数
+     * @param mapper 行转换器
+     * @return 查询结果流
+     * @throws SQLException 执行查询异常
+     * @since 2.0.0
+     */
+    public <T> Stream<T> stream(String sql, List<Object> values, int fetchSize, RowMapper<T> mapper)
+            throws SQLException {
+        var conn = this.localConnection.get();
+        if (conn != null) {
+            var cursors = this.localCursors.get();
+            if (cursors == null) {
+                cursors = ConcurrentHashMap.newKeySet();
+                this.localCursors.set(cursors);
+            }
+
+            var stream = adapter().stream(sql, values, fetchSize, mapper, conn);
+            var open = cursors;
+            open.add(stream);
+            return stream.onClose(() -> open.remove(stream));
+        }
+
+        var newConn = adapter().getConnection(envId);
+        if (newConn == null) {
+            throw new DataSourceException("无法获取Connection");
+        }
+
+        try {
+            newConn.setAutoCommit(false);
+            return adapter().stream(sql, values, fetchSize, mapper, newConn).onClose(() -> release(newConn));
+        } catch (SQLException | RuntimeException e) {
+            try {
+                adapter().rollback(newConn);
+                newConn.setAutoCommit(true);
+            } finally {
+                adapter().close(newConn);
+            }
+
+            throw e;
+        }
+    }
+
+    private void release(Connection conn) {
+        try {
+            adapter().commit(conn);
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            LOGGER.error(e.getMessage(), e);
+        } finally {
+            adapter().close(conn);
+        }
+    }
+
     public DataSource getDataSource() {
         return dataSource;
     }
@@ -140,7 +324,7 @@ public class JdbcManager implements SqlExecutor {
         public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
             var conn = JdbcManager.this.localConnection.get();
             if (conn != null) {
-                return method.invoke(adapter(), args);
+                return invoke(method, args);
             } else {
                 var newConn = adapter().getConnection(JdbcManager.this.envId);
                 try {
@@ -155,7 +339,7 @@ public class JdbcManager implements SqlExecutor {
                         idx++;
                     }
 
-                    var result = method.invoke(adapter(), args);
+                    var result = invoke(method, args);
                     adapter().commit(newConn);
                     return result;
                 } catch (final Throwable t) {
@@ -166,6 +350,17 @@ public class JdbcManager implements SqlExecutor {
                 }
             }
         }
+
+        /**
+         * 调用JdbcAdapter并抛出原始异常，避免SQLException被代理包装为UndeclaredThrowableException.
+         */
+        private Object invoke(final Method method, final Object[] args) throws Throwable {
+            try {
+                return method.invoke(adapter(), args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
     }
 
 }
@@ -63,7 +63,14 @@ public final class JdbcTransactionalMethodInterceptor implements MethodIntercept
 
         var needsRollback = transactional.rollbackOnly();
         try {
-            return invocation.proceed();
+            var result = invocation.proceed();
+            if (!isSessionInherited && hasOpenCursors(jdbcManager)) {
+                throw new IllegalStateException(format("事务方法 %s 返回时存在未关闭的流式查询结果，"
+                        + "事务结束后Connection将被释放，请在事务内消费并关闭Stream，或在事务外调用JdbcManager.stream",
+                        interceptedMethod));
+            }
+
+            return result;
         } catch (Throwable t) {
             needsRollback = true;
             throw convertThrowableIfNeeded(invocation, transactional, t);
@@ -87,6 +94,16 @@ public final class JdbcTransactionalMethodInterceptor implements MethodIntercept
         return jdbcManager[0].isManagedSessionStarted();
     }
 
+    private boolean hasOpenCursors(JdbcManager[] jdbcManager) {
+        for (var manager : jdbcManager) {
+            if (manager.hasOpenCursors()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private void startManagedSession(JdbcTransactional transactional, JdbcManager[] jdbcManager) throws SQLException {
         for (var manager : jdbcManager) {
             manager.startManagedSession(false);
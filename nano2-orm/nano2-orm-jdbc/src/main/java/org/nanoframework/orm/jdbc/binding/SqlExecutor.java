@@ -17,9 +17,13 @@ package org.nanoframework.orm.jdbc.binding;
 
 import java.io.Closeable;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.nanoframework.orm.jdbc.BatchResult;
 import org.nanoframework.orm.jdbc.jstl.Result;
+import org.nanoframework.orm.jdbc.mapper.RowMapper;
 
 /**
  * @author yanghe
@@ -38,7 +42,15 @@ interface SqlExecutor extends Closeable {
 
     int executeUpdate(String sql, List<Object> values) throws SQLException;
 
+    <T> List<T> executeQuery(String sql, List<Object> values, RowMapper<T> mapper) throws SQLException;
+
     int[] executeBatchUpdate(String sql, List<List<Object>> batchValues) throws SQLException;
 
+    BatchResult executeBatch(String sql, Iterator<? extends List<Object>> values) throws SQLException;
+
+    BatchResult executeBatch(String sql, Stream<? extends List<Object>> values) throws SQLException;
+
     boolean execute(String sql) throws SQLException;
+
+    <T> Stream<T> stream(String sql, List<Object> values, RowMapper<T> mapper) throws SQLException;
 }
@@ -58,6 +58,28 @@ public abstract class JdbcConfig extends BaseEntity {
     @Property("JDBC.defaultStatementTimeout")
     private Integer defaultStatementTimeout = 30;
 
+    /** 流式查询每次从数据库读取的行数, Default: 1000 */
+    @Property("JDBC.fetchSize")
+    private Integer fetchSize = 1000;
+
+    /**
+     * 每个连接缓存的PreparedStatement数量，0为不缓存, Default: 0 <br>
+     * 连接池在连接归还时关闭Statement时(如Druid)缓存只在同一次借出内生效，此时优先使用连接池自身的Statement缓存.
+     */
+    @Property("JDBC.statementCacheSize")
+    private Integer statementCacheSize = 0;
+
+    /**
+     * 分块批量执行每个分块的行数, Default: 1000 <br>
+     * 显式配置时JdbcManager.executeBatchUpdate同样按此行数分块执行，未配置时所有行作为一个JDBC批处理执行.
+     */
+    @Property("JDBC.batchSize")
+    private Integer batchSize;
+
+    /** 分块批量执行时是否将单行INSERT改写为多行VALUES语句, Default: false */
+    @Property("JDBC.rewriteBatchInsert")
+    private Boolean rewriteBatchInsert = false;
+
     protected void setProperties(final Properties properties) {
         if (CollectionUtils.isNotEmpty(fields)) {
             fields.values().stream().filter(field -> field.isAnnotationPresent(Property.class)).forEach(field -> {
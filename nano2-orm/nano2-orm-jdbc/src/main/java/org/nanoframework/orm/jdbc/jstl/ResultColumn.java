@@ -0,0 +1,231 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc.jstl;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * 查询结果的单列数据. <br>
+ * 整列均为Integer、Long或Double时使用基本类型数组存储，空值记录在BitSet中；出现其它类型时转换为Object数组存储.
+ * @author yanghe
+ * @since 2.0.0
+ */
+final class ResultColumn implements Serializable {
+    private static final long serialVersionUID = 2281447815624531520L;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** 尚未出现非空值. */
+    private static final int UNKNOWN = 0;
+
+    private static final int INT = 1;
+
+    private static final int LONG = 2;
+
+    private static final int DOUBLE = 3;
+
+    private static final int OBJECT = 4;
+
+    private int kind = UNKNOWN;
+
+    private int size;
+
+    private int[] ints;
+
+    private long[] longs;
+
+    private double[] doubles;
+
+    private Object[] objects;
+
+    private BitSet nulls;
+
+    void add(Object value) {
+        if (value == null) {
+            if (kind != UNKNOWN) {
+                ensure(size + 1);
+                if (kind == OBJECT) {
+                    objects[size] = null;
+                } else {
+                    nulls().set(size);
+                }
+            }
+
+            size++;
+            return;
+        }
+
+        var valueKind = kindOf(value);
+        if (kind == UNKNOWN) {
+            init(valueKind);
+        } else if (kind != OBJECT && kind != valueKind) {
+            toObjects();
+        }
+
+        ensure(size + 1);
+        switch (kind) {
+            case INT:
+                ints[size] = (Integer) value;
+                break;
+            case LONG:
+                longs[size] = (Long) value;
+                break;
+            case DOUBLE:
+                doubles[size] = (Double) value;
+                break;
+            default:
+                objects[size] = value;
+                break;
+        }
+
+        size++;
+    }
+
+    Object get(int row) {
+        if (kind == UNKNOWN || (nulls != null && nulls.get(row))) {
+            return null;
+        }
+
+        switch (kind) {
+            case INT:
+                return ints[row];
+            case LONG:
+                return longs[row];
+            case DOUBLE:
+                return doubles[row];
+            default:
+                return objects[row];
+        }
+    }
+
+    /**
+     * 释放数组中未使用的容量.
+     */
+    void trim() {
+        switch (kind) {
+            case INT:
+                ints = Arrays.copyOf(ints, size);
+                break;
+            case LONG:
+                longs = Arrays.copyOf(longs, size);
+                break;
+            case DOUBLE:
+                doubles = Arrays.copyOf(doubles, size);
+                break;
+            case OBJECT:
+                objects = Arrays.copyOf(objects, size);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static int kindOf(Object value) {
+        var type = value.getClass();
+        if (type == Integer.class) {
+            return INT;
+        } else if (type == Long.class) {
+            return LONG;
+        } else if (type == Double.class) {
+            return DOUBLE;
+        }
+
+        return OBJECT;
+    }
+
+    private void init(int valueKind) {
+        kind = valueKind;
+        var capacity = Math.max(INITIAL_CAPACITY, size + 1);
+        switch (kind) {
+            case INT:
+                ints = new int[capacity];
+                break;
+            case LONG:
+                longs = new long[capacity];
+                break;
+            case DOUBLE:
+                doubles = new double[capacity];
+                break;
+            default:
+                objects = new Object[capacity];
+                break;
+        }
+
+        if (size > 0 && kind != OBJECT) {
+            nulls().set(0, size);
+        }
+    }
+
+    private void toObjects() {
+        var values = new Object[capacity()];
+        for (var row = 0; row < size; row++) {
+            values[row] = get(row);
+        }
+
+        kind = OBJECT;
+        objects = values;
+        ints = null;
+        longs = null;
+        doubles = null;
+        nulls = null;
+    }
+
+    private int capacity() {
+        switch (kind) {
+            case INT:
+                return ints.length;
+            case LONG:
+                return longs.length;
+            case DOUBLE:
+                return doubles.length;
+            default:
+                return objects.length;
+        }
+    }
+
+    private void ensure(int minCapacity) {
+        var capacity = capacity();
+        if (minCapacity <= capacity) {
+            return;
+        }
+
+        var newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        switch (kind) {
+            case INT:
+                ints = Arrays.copyOf(ints, newCapacity);
+                break;
+            case LONG:
+                longs = Arrays.copyOf(longs, newCapacity);
+                break;
+            case DOUBLE:
+                doubles = Arrays.copyOf(doubles, newCapacity);
+                break;
+            default:
+                objects = Arrays.copyOf(objects, newCapacity);
+                break;
+        }
+    }
+
+    private BitSet nulls() {
+        if (nulls == null) {
+            nulls = new BitSet();
+        }
+
+        return nulls;
+    }
+}
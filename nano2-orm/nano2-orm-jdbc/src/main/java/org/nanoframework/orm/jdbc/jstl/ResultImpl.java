@@ -18,8 +18,8 @@ package org.nanoframework.orm.jdbc.jstl;
 import java.io.Serializable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -29,23 +29,39 @@ import java.util.TreeMap;
  * capable of returing an array of <tt>Row</tt> objects containing a <tt>Column</tt> instance for each column in the
  * row. It is not part of the JSTL API; it serves merely as a back-end to ResultSupport's static methods. Thus, we scope
  * its access to the package.
+ * </p>
+ * 数据按列存储在{@link ResultColumn}中，每个值只保存一份；列名及列别名到列的索引表由所有行共享，
+ * {@link #getRows()}返回的行数据为按需读取列数据的视图，{@link #getRowsByIndex()}在首次调用时构建.
  * @author Hans Bergsten
  * @author Justyna Horwat
  */
 
 class ResultImpl implements Result, Serializable {
-    private static final long serialVersionUID = -7894642257225247166L;
+    private static final long serialVersionUID = 4021370046520727418L;
 
-    private List<SortedMap<String, Object>> rowMap;
+    private final String[] columnNames;
 
-    private List<Object[]> rowByIndex;
+    private final String[] columnLabels;
 
-    private String[] columnNames;
+    private final ResultColumn[] columns;
 
-    private String[] columnLabels;
+    /** 按comparator排序的列名及列别名. */
+    private final String[] keys;
+
+    /** keys对应的列索引. */
+    private final int[] keyColumns;
+
+    private final Comparator<? super String> comparator;
+
+    private int rowCount;
 
     private boolean isLimited;
 
+    @SuppressWarnings("rawtypes")
+    private transient SortedMap[] rows;
+
+    private transient Object[][] rowsByIndex;
+
     /**
      * This constructor reads the ResultSet and saves a cached copy. It's important to note that this object will be
      * serializable only if the objects returned by the ResultSet are serializable too. <br>
@@ -56,39 +72,54 @@ class ResultImpl implements Result, Serializable {
      * @exception java.sql.SQLException if a database error occurs
      */
     public ResultImpl(ResultSet rs, int startRow, int maxRows) throws SQLException {
-        rowMap = new ArrayList<>();
-        rowByIndex = new ArrayList<>();
+        this(rs, startRow, maxRows, JDBC_JSTL_CASE_INSENSITIVE_ORDER ? String.CASE_INSENSITIVE_ORDER : null);
+    }
 
+    /**
+     * @param rs an open <tt>ResultSet</tt>, positioned before the first row
+     * @param startRow beginning row to be cached
+     * @param maxRows query maximum rows limit
+     * @param comparator 列名的排序规则，为null时区分大小写
+     * @exception java.sql.SQLException if a database error occurs
+     */
+    ResultImpl(ResultSet rs, int startRow, int maxRows, Comparator<? super String> comparator) throws SQLException {
         var rsmd = rs.getMetaData();
         var noOfColumns = rsmd.getColumnCount();
 
         // Create the column name array
         columnNames = new String[noOfColumns];
         columnLabels = new String[noOfColumns];
+        columns = new ResultColumn[noOfColumns];
         for (var i = 1; i <= noOfColumns; i++) {
             columnNames[i - 1] = rsmd.getColumnName(i);
             columnLabels[i - 1] = rsmd.getColumnLabel(i);
+            columns[i - 1] = new ResultColumn();
+        }
+
+        // 与逐行构建TreeMap的顺序一致，同名的列以后出现的列为准
+        this.comparator = comparator;
+        var index = new TreeMap<String, Integer>(comparator);
+        for (var i = 0; i < noOfColumns; i++) {
+            index.put(columnNames[i], i);
+            if (!columnLabels[i].equals(columnNames[i])) {
+                index.put(columnLabels[i], i);
+            }
         }
 
+        keys = index.keySet().toArray(new String[index.size()]);
+        keyColumns = index.values().stream().mapToInt(Integer::intValue).toArray();
+
         // Throw away all rows upto startRow
         for (var i = 0; i < startRow; i++) {
             rs.next();
         }
 
         // Process the remaining rows upto maxRows
-        var processedRows = 0;
         while (rs.next()) {
-            if ((maxRows != -1) && (processedRows == maxRows)) {
+            if ((maxRows != -1) && (rowCount == maxRows)) {
                 isLimited = true;
                 break;
             }
-            var columns = new Object[noOfColumns];
-            SortedMap<String, Object> columnMap;
-            if (JDBC_JSTL_CASE_INSENSITIVE_ORDER) {
-                columnMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-            } else {
-                columnMap = new TreeMap<>();
-            }
 
             // JDBC uses 1 as the lowest index!
             for (var i = 1; i <= noOfColumns; i++) {
@@ -97,17 +128,14 @@ class ResultImpl implements Result, Serializable {
                     value = null;
                 }
 
-                columns[i - 1] = value;
-                columnMap.put(columnNames[i - 1], value);
-                if (!columnLabels[i - 1].equals(columnNames[i - 1])) {
-                    columnMap.put(columnLabels[i - 1], value);
-                }
-
+                columns[i - 1].add(value);
             }
 
-            rowMap.add(columnMap);
-            rowByIndex.add(columns);
-            processedRows++;
+            rowCount++;
+        }
+
+        for (var column : columns) {
+            column.trim();
         }
     }
 
@@ -119,12 +147,17 @@ class ResultImpl implements Result, Serializable {
      */
     @SuppressWarnings("rawtypes")
     public SortedMap[] getRows() {
-        if (rowMap == null) {
-            return null;
+        var rows = this.rows;
+        if (rows == null) {
+            rows = new SortedMap[rowCount];
+            for (var row = 0; row < rowCount; row++) {
+                rows[row] = new ResultRow(this, row);
+            }
+
+            this.rows = rows;
         }
 
-        // should just be able to return SortedMap[] object
-        return rowMap.toArray(new SortedMap[0]);
+        return rows.clone();
     }
 
     /**
@@ -133,12 +166,22 @@ class ResultImpl implements Result, Serializable {
      * @return an array of Object[], or null if there are no rows
      */
     public Object[][] getRowsByIndex() {
-        if (rowByIndex == null) {
-            return null;
+        var rowsByIndex = this.rowsByIndex;
+        if (rowsByIndex == null) {
+            rowsByIndex = new Object[rowCount][];
+            for (var row = 0; row < rowCount; row++) {
+                var values = new Object[columns.length];
+                for (var i = 0; i < columns.length; i++) {
+                    values[i] = columns[i].get(row);
+                }
+
+                rowsByIndex[row] = values;
+            }
+
+            this.rowsByIndex = rowsByIndex;
         }
 
-        // should just be able to return Object[][] object
-        return (Object[][]) rowByIndex.toArray(new Object[0][0]);
+        return rowsByIndex.clone();
     }
 
     /**
@@ -159,10 +202,7 @@ class ResultImpl implements Result, Serializable {
      * @return the number of cached rows, or -1 if the Result could not be initialized due to SQLExceptions
      */
     public int getRowCount() {
-        if (rowMap == null) {
-            return -1;
-        }
-        return rowMap.size();
+        return rowCount;
     }
 
     /**
@@ -173,4 +213,35 @@ class ResultImpl implements Result, Serializable {
         return isLimited;
     }
 
+    String[] keys() {
+        return keys;
+    }
+
+    Comparator<? super String> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @param key 列名或列别名
+     * @return 在{@link #keys()}中的索引，不存在时返回-1
+     */
+    @SuppressWarnings("unchecked")
+    int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+
+        var idx = Arrays.binarySearch(keys, (String) key, (Comparator<String>) comparator);
+        return idx < 0 ? -1 : idx;
+    }
+
+    /**
+     * @param keyIndex 在{@link #keys()}中的索引
+     * @param row 行号，从0开始
+     * @return 列值
+     */
+    Object value(int keyIndex, int row) {
+        return columns[keyColumns[keyIndex]].get(row);
+    }
+
 }
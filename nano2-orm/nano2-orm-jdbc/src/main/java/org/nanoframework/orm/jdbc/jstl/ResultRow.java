@@ -0,0 +1,253 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc.jstl;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * {@link Result#getRows()}中的单行数据视图，按列名及列别名读取{@link ResultImpl}中的列数据，不复制数据. <br>
+ * 修改行数据（包括通过entrySet的Entry.setValue及迭代器删除）或使用subMap、headMap、tailMap时，复制为独立的TreeMap后再进行操作.
+ * @author yanghe
+ * @since 2.0.0
+ */
+final class ResultRow extends AbstractMap<String, Object> implements SortedMap<String, Object>, Serializable {
+    private static final long serialVersionUID = -3411580419916383431L;
+
+    private final ResultImpl result;
+
+    private final int row;
+
+    private SortedMap<String, Object> copy;
+
+    ResultRow(ResultImpl result, int row) {
+        this.result = result;
+        this.row = row;
+    }
+
+    @Override
+    public int size() {
+        return copy != null ? copy.size() : result.keys().length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return copy != null ? copy.containsKey(key) : result.indexOf(key) > -1;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (copy != null) {
+            return copy.get(key);
+        }
+
+        var idx = result.indexOf(key);
+        return idx > -1 ? result.value(idx, row) : null;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ? extends Object> map) {
+        materialize().putAll(map);
+    }
+
+    @Override
+    public void clear() {
+        materialize().clear();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (copy != null) {
+            return copy.entrySet();
+        }
+
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                if (copy != null) {
+                    return copy.entrySet().iterator();
+                }
+
+                var keys = result.keys();
+                return new Iterator<>() {
+                    private int idx;
+
+                    private int last = -1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return idx < keys.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (idx >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+
+                        last = idx++;
+                        return new RowEntry(keys[last], last);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0) {
+                            throw new IllegalStateException();
+                        }
+
+                        ResultRow.this.remove(keys[last]);
+                        last = -1;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ResultRow.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Comparator<? super String> comparator() {
+        return result.comparator();
+    }
+
+    @Override
+    public SortedMap<String, Object> subMap(String fromKey, String toKey) {
+        return materialize().subMap(fromKey, toKey);
+    }
+
+    @Override
+    public SortedMap<String, Object> headMap(String toKey) {
+        return materialize().headMap(toKey);
+    }
+
+    @Override
+    public SortedMap<String, Object> tailMap(String fromKey) {
+        return materialize().tailMap(fromKey);
+    }
+
+    @Override
+    public String firstKey() {
+        if (copy != null) {
+            return copy.firstKey();
+        }
+
+        var keys = result.keys();
+        if (keys.length == 0) {
+            throw new NoSuchElementException();
+        }
+
+        return keys[0];
+    }
+
+    @Override
+    public String lastKey() {
+        if (copy != null) {
+            return copy.lastKey();
+        }
+
+        var keys = result.keys();
+        if (keys.length == 0) {
+            throw new NoSuchElementException();
+        }
+
+        return keys[keys.length - 1];
+    }
+
+    private SortedMap<String, Object> materialize() {
+        if (copy == null) {
+            var map = new TreeMap<String, Object>(result.comparator());
+            var keys = result.keys();
+            for (var idx = 0; idx < keys.length; idx++) {
+                map.put(keys[idx], result.value(idx, row));
+            }
+
+            copy = map;
+        }
+
+        return copy;
+    }
+
+    /**
+     * 未复制前的行数据项，读取列数据，修改时通过{@link #put(String, Object)}复制行数据.
+     */
+    private final class RowEntry implements Entry<String, Object> {
+        private final String key;
+
+        private final int idx;
+
+        private RowEntry(String key, int idx) {
+            this.key = key;
+            this.idx = idx;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return copy != null ? copy.get(key) : result.value(idx, row);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return put(key, value);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Entry)) {
+                return false;
+            }
+
+            var entry = (Entry<?, ?>) obj;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
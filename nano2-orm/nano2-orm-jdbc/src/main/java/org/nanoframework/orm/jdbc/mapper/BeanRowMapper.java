@@ -0,0 +1,418 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc.mapper;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.nanoframework.beans.format.ClassCast;
+
+/**
+ * 将ResultSet的当前行直接转换为JavaBean，不构造中间Map. <br>
+ * 每个(JavaBean类型, 查询列)组合在首次使用时生成一次转换计划并全局缓存: 构造方法及setter通过LambdaMetafactory生成调用，
+ * 列值按setter参数类型使用ResultSet.getInt、getLong、getString等方法读取. <br>
+ * 列与属性按列别名匹配，依次尝试: 完全一致、忽略大小写、忽略大小写及下划线(user_name匹配userName)，未匹配的列被忽略. <br>
+ * setter存在重载时使用参数类型与getter返回类型一致的方法，无法确定时忽略该属性. <br>
+ * JdbcAdapter执行查询时通过{@link #prepare(ResultSet)}每次查询只解析一次列信息；直接调用{@link #map(ResultSet, int)}时每行都会解析.
+ * <pre>
+ * var users = manager.executeQuery(sql, values, BeanRowMapper.of(User.class));
+ * </pre>
+ * @author yanghe
+ * @since 2.0.0
+ * @param <T> JavaBean类型
+ */
+public final class BeanRowMapper<T> implements RowMapper<T> {
+    private static final ConcurrentMap<Class<?>, BeanRowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, ColumnReader> READERS = new HashMap<>();
+
+    static {
+        READERS.put(int.class, (rs, idx) -> {
+            var value = rs.getInt(idx);
+            return rs.wasNull() ? null : value;
+        });
+        READERS.put(long.class, (rs, idx) -> {
+            var value = rs.getLong(idx);
+            return rs.wasNull() ? null : value;
+        });
+        READERS.put(double.class, (rs, idx) -> {
+            var value = rs.getDouble(idx);
+            return rs.wasNull() ? null : value;
+        });
+        READERS.put(float.class, (rs, idx) -> {
+            var value = rs.getFloat(idx);
+            return rs.wasNull() ? null : value;
+        });
+        READERS.put(short.class, (rs, idx) -> {
+            var value = rs.getShort(idx);
+            return rs.wasNull() ? null : value;
+        });
+        READERS.put(byte.class, (rs, idx) -> {
+            var value = rs.getByte(idx);
+            return rs.wasNull() ? null : value;
+        });
+        READERS.put(boolean.class, (rs, idx) -> {
+            var value = rs.getBoolean(idx);
+            return rs.wasNull() ? null : value;
+        });
+        READERS.put(Integer.class, READERS.get(int.class));
+        READERS.put(Long.class, READERS.get(long.class));
+        READERS.put(Double.class, READERS.get(double.class));
+        READERS.put(Float.class, READERS.get(float.class));
+        READERS.put(Short.class, READERS.get(short.class));
+        READERS.put(Byte.class, READERS.get(byte.class));
+        READERS.put(Boolean.class, READERS.get(boolean.class));
+        READERS.put(String.class, ResultSet::getString);
+        READERS.put(BigDecimal.class, ResultSet::getBigDecimal);
+        READERS.put(byte[].class, ResultSet::getBytes);
+        READERS.put(Timestamp.class, ResultSet::getTimestamp);
+        READERS.put(java.util.Date.class, ResultSet::getTimestamp);
+        READERS.put(java.sql.Date.class, ResultSet::getDate);
+        READERS.put(java.sql.Time.class, ResultSet::getTime);
+        // 部分驱动未实现JDBC 4.1的getObject(int, Class)，通过java.sql类型转换
+        READERS.put(LocalDate.class, (rs, idx) -> {
+            var value = rs.getDate(idx);
+            return value == null ? null : value.toLocalDate();
+        });
+        READERS.put(LocalDateTime.class, (rs, idx) -> {
+            var value = rs.getTimestamp(idx);
+            return value == null ? null : value.toLocalDateTime();
+        });
+        READERS.put(LocalTime.class, (rs, idx) -> {
+            var value = rs.getTime(idx);
+            return value == null ? null : value.toLocalTime();
+        });
+    }
+
+    private final Class<T> type;
+
+    private final Supplier<T> constructor;
+
+    private final Map<String, Property> properties;
+
+    private final ConcurrentMap<ColumnsKey, Plan<T>> plans = new ConcurrentHashMap<>();
+
+    private BeanRowMapper(Class<T> type) {
+        this.type = type;
+        this.constructor = constructor(type);
+        this.properties = properties(type);
+    }
+
+    /**
+     * @param <T> JavaBean类型
+     * @param type JavaBean类型，需要有public无参构造方法
+     * @return 全局共享的行转换器
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanRowMapper<T> of(Class<T> type) {
+        var mapper = MAPPERS.get(type);
+        if (mapper == null) {
+            mapper = MAPPERS.computeIfAbsent(type, BeanRowMapper::new);
+        }
+
+        return (BeanRowMapper<T>) mapper;
+    }
+
+    @Override
+    public T map(ResultSet rs, int rowNum) throws SQLException {
+        return plan(rs).map(constructor.get(), rs);
+    }
+
+    @Override
+    public RowMapper<T> prepare(ResultSet rs) throws SQLException {
+        var plan = plan(rs);
+        return (row, rowNum) -> plan.map(constructor.get(), row);
+    }
+
+    private Plan<T> plan(ResultSet rs) throws SQLException {
+        var metaData = rs.getMetaData();
+        var labels = new String[metaData.getColumnCount()];
+        for (var idx = 0; idx < labels.length; idx++) {
+            labels[idx] = metaData.getColumnLabel(idx + 1);
+        }
+
+        var key = new ColumnsKey(labels);
+        var plan = plans.get(key);
+        if (plan == null) {
+            plan = plans.computeIfAbsent(key, this::compile);
+        }
+
+        return plan;
+    }
+
+    private Plan<T> compile(ColumnsKey key) {
+        var labels = key.labels;
+        var columns = new int[labels.length];
+        var setters = new Property[labels.length];
+        var size = 0;
+        for (var idx = 0; idx < labels.length; idx++) {
+            var property = find(labels[idx]);
+            if (property != null) {
+                columns[size] = idx + 1;
+                setters[size] = property;
+                size++;
+            }
+        }
+
+        return new Plan<>(Arrays.copyOf(columns, size), Arrays.copyOf(setters, size));
+    }
+
+    private Property find(String label) {
+        var property = properties.get(label);
+        if (property == null) {
+            property = properties.get(label.toLowerCase());
+        }
+
+        if (property == null) {
+            property = properties.get(normalize(label));
+        }
+
+        return property;
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> constructor(Class<T> type) {
+        try {
+            var lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            var handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+            try {
+                return (Supplier<T>) LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), handle, MethodType.methodType(type)).getTarget()
+                        .invoke();
+            } catch (Throwable e) {
+                return () -> {
+                    try {
+                        return (T) handle.invoke();
+                    } catch (Throwable ex) {
+                        throw new RowMapperException("实例化失败: " + type.getName(), ex);
+                    }
+                };
+            }
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RowMapperException("无法获取无参构造方法: " + type.getName(), e);
+        }
+    }
+
+    private static Map<String, Property> properties(Class<?> type) {
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new RowMapperException("无法访问类型: " + type.getName(), e);
+        }
+
+        var getters = new HashMap<String, Class<?>>();
+        var setters = new HashMap<String, List<Method>>();
+        for (var method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge()) {
+                continue;
+            }
+
+            var name = method.getName();
+            var returnType = method.getReturnType();
+            if (method.getParameterCount() == 1 && name.length() > 3 && name.startsWith("set")) {
+                setters.computeIfAbsent(name.substring(3), k -> new ArrayList<>()).add(method);
+            } else if (method.getParameterCount() == 0 && name.length() > 3 && name.startsWith("get")
+                    && returnType != void.class) {
+                getters.put(name.substring(3), returnType);
+            } else if (method.getParameterCount() == 0 && name.length() > 2 && name.startsWith("is")
+                    && returnType == boolean.class) {
+                getters.putIfAbsent(name.substring(2), returnType);
+            }
+        }
+
+        var properties = new HashMap<String, Property>();
+        setters.forEach((name, methods) -> {
+            var method = select(methods, getters.get(name));
+            if (method != null) {
+                var propertyName = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+                properties.put(propertyName, new Property(method.getParameterTypes()[0], setter(lookup, method)));
+            }
+        });
+
+        // 忽略大小写及下划线后对应多个属性的名称不参与匹配
+        var normalized = new HashMap<String, Property>();
+        var ambiguous = new HashSet<String>();
+        properties.forEach((name, property) -> {
+            for (var key : List.of(name.toLowerCase(), normalize(name))) {
+                var exists = normalized.putIfAbsent(key, property);
+                if (exists != null && exists != property) {
+                    ambiguous.add(key);
+                }
+            }
+        });
+
+        ambiguous.forEach(normalized::remove);
+        normalized.forEach(properties::putIfAbsent);
+        return Map.copyOf(properties);
+    }
+
+    /**
+     * 选择属性的setter. 存在重载的setter时选择参数类型与getter返回类型一致的方法，无法确定时返回null，忽略该属性.
+     * @param methods 同名的setter
+     * @param getterType getter的返回类型，没有getter时为null
+     * @return setter
+     */
+    private static Method select(List<Method> methods, Class<?> getterType) {
+        if (methods.size() == 1) {
+            return methods.get(0);
+        }
+
+        if (getterType != null) {
+            for (var method : methods) {
+                if (method.getParameterTypes()[0] == getterType) {
+                    return method;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(MethodHandles.Lookup lookup, Method method) {
+        MethodHandle handle;
+        try {
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new RowMapperException("无法访问方法: " + method, e);
+        }
+
+        try {
+            // 基本类型参数通过拆箱适配为BiConsumer
+            var parameterType = method.getParameterTypes()[0];
+            var instantiated = MethodType.methodType(void.class, method.getDeclaringClass(),
+                    MethodType.methodType(parameterType).wrap().returnType());
+            return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(lookup, "accept",
+                    MethodType.methodType(BiConsumer.class), MethodType.methodType(void.class, Object.class,
+                            Object.class), handle, instantiated).getTarget().invoke();
+        } catch (Throwable e) {
+            var generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> {
+                try {
+                    generic.invokeExact(bean, value);
+                } catch (Throwable ex) {
+                    throw new RowMapperException("属性设置失败: " + method, ex);
+                }
+            };
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BeanRowMapper[" + type.getName() + "]";
+    }
+
+    /**
+     * 按setter参数类型读取列值.
+     * @author yanghe
+     * @since 2.0.0
+     */
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs, int column) throws SQLException;
+    }
+
+    private static final class Property {
+        private final boolean primitive;
+
+        private final ColumnReader reader;
+
+        private final BiConsumer<Object, Object> setter;
+
+        private Property(Class<?> type, BiConsumer<Object, Object> setter) {
+            this.primitive = type.isPrimitive();
+            this.setter = setter;
+            var reader = READERS.get(type);
+            if (reader == null) {
+                Function<Object, Object> converter = ClassCast.converter(type);
+                reader = (rs, idx) -> converter.apply(rs.getObject(idx));
+            }
+
+            this.reader = reader;
+        }
+    }
+
+    private static final class Plan<T> {
+        private final int[] columns;
+
+        private final Property[] properties;
+
+        private Plan(int[] columns, Property[] properties) {
+            this.columns = columns;
+            this.properties = properties;
+        }
+
+        private T map(T bean, ResultSet rs) throws SQLException {
+            for (var idx = 0; idx < columns.length; idx++) {
+                var property = properties[idx];
+                var value = property.reader.read(rs, columns[idx]);
+                if (value != null || !property.primitive) {
+                    property.setter.accept(bean, value);
+                }
+            }
+
+            return bean;
+        }
+    }
+
+    private static final class ColumnsKey {
+        private final String[] labels;
+
+        private final int hash;
+
+        private ColumnsKey(String[] labels) {
+            this.labels = labels;
+            this.hash = Arrays.hashCode(labels);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ColumnsKey && Arrays.equals(labels, ((ColumnsKey) obj).labels);
+        }
+    }
+}
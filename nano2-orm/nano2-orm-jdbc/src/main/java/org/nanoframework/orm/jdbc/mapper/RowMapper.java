@@ -0,0 +1,48 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 将ResultSet的当前行转换为对象，不应调用ResultSet的next等移动游标的方法. <br>
+ * 执行查询时在读取第一行前调用一次{@link #prepare(ResultSet)}，之后的每一行使用其返回的转换器.
+ * @author yanghe
+ * @since 2.0.0
+ * @param <T> 转换结果类型
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * @param rs 已定位到当前行的ResultSet
+     * @param rowNum 行号，从1开始
+     * @return 转换结果
+     * @throws SQLException 读取列值异常
+     */
+    T map(ResultSet rs, int rowNum) throws SQLException;
+
+    /**
+     * 按本次查询的列信息准备转换器，返回的转换器只用于该ResultSet.
+     * @param rs 尚未读取数据的ResultSet
+     * @return 本次查询使用的转换器，默认为自身
+     * @throws SQLException 读取列信息异常
+     */
+    default RowMapper<T> prepare(ResultSet rs) throws SQLException {
+        return this;
+    }
+}
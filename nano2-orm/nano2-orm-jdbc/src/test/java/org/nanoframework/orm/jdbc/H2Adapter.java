@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nanoframework.orm.PoolType;
+import org.nanoframework.orm.jdbc.binding.GlobalJdbcManager;
+import org.nanoframework.orm.jdbc.binding.JdbcManager;
+import org.nanoframework.orm.jdbc.config.TomcatJdbcConfig;
+
+/**
+ * 使用H2内存数据库创建JdbcAdapter，每次创建使用独立的数据库.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public final class H2Adapter {
+    public static final String ENV = "h2";
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private H2Adapter() {
+
+    }
+
+    /**
+     * @param properties 附加的数据源配置，格式为key=value
+     * @return JdbcAdapter
+     */
+    public static JdbcAdapter start(String... properties) {
+        var config = new Properties();
+        config.setProperty("JDBC.environment.id", ENV);
+        config.setProperty("JDBC.driver", "org.h2.Driver");
+        config.setProperty("JDBC.url", "jdbc:h2:mem:nano" + SEQUENCE.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        config.setProperty("JDBC.username", "sa");
+        config.setProperty("JDBC.password", "sa");
+        for (var property : properties) {
+            var idx = property.indexOf('=');
+            config.setProperty(property.substring(0, idx), property.substring(idx + 1));
+        }
+
+        return JdbcAdapter.newInstance(List.of(new TomcatJdbcConfig(config)), PoolType.TOMCAT_JDBC_POOL,
+                H2Adapter.class);
+    }
+
+    /**
+     * @return 数据源对应的JdbcManager
+     */
+    public static JdbcManager manager() {
+        return GlobalJdbcManager.get(ENV);
+    }
+
+    /**
+     * @param sqls 依次执行的SQL
+     * @throws SQLException 执行异常
+     */
+    public static void execute(String... sqls) throws SQLException {
+        for (var sql : sqls) {
+            manager().execute(sql);
+        }
+    }
+
+    /**
+     * @return 连接池中已借出的连接数量
+     */
+    public static int active() {
+        return ((org.apache.tomcat.jdbc.pool.DataSource) manager().getDataSource()).getNumActive();
+    }
+
+    public static void shutdown() {
+        var adapter = JdbcAdapter.adapter();
+        if (adapter != null) {
+            adapter.shutdown();
+        }
+    }
+}
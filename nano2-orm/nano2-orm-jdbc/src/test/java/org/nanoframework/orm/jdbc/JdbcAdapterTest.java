@@ -0,0 +1,192 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nanoframework.orm.jdbc.JdbcAdapter.MultiRowInsert;
+import org.nanoframework.orm.jdbc.mapper.BeanRowMapper;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class JdbcAdapterTest {
+
+    @BeforeEach
+    void before() throws SQLException {
+        H2Adapter.start();
+        H2Adapter.execute("CREATE TABLE T_ITEM (ID INT PRIMARY KEY, NAME VARCHAR(32))",
+                "INSERT INTO T_ITEM VALUES (1, 'a'), (2, 'b'), (3, NULL)");
+    }
+
+    @AfterEach
+    void after() {
+        H2Adapter.shutdown();
+    }
+
+    @Test
+    void rowMapperTest() throws SQLException {
+        var manager = H2Adapter.manager();
+        var sql = "SELECT ID, NAME FROM T_ITEM ORDER BY ID";
+        assertEquals(List.of(1, 2, 3), manager.executeQuery(sql, List.of(), (rs, rowNum) -> rowNum));
+
+        var items = manager.executeQuery(sql, List.of(), BeanRowMapper.of(Item.class));
+        assertEquals(List.of("1:a", "2:b", "3:null"), items.stream().map(Item::toString).collect(Collectors.toList()));
+        try (var stream = manager.stream("SELECT NAME, ID FROM T_ITEM WHERE ID > ? ORDER BY ID", List.of(1),
+                BeanRowMapper.of(Item.class))) {
+            assertEquals(List.of("2:b", "3:null"), stream.map(Item::toString).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void multiRowInsertTest() {
+        var insert = MultiRowInsert.parse("INSERT INTO T_ITEM (ID, NAME) VALUES (?, ?)");
+        assertEquals("INSERT INTO T_ITEM (ID, NAME) VALUES (?, ?)", insert.sql(1));
+        assertEquals("INSERT INTO T_ITEM (ID, NAME) VALUES (?, ?), (?, ?), (?, ?)", insert.sql(3));
+        assertEquals(1000, insert.rows(1000));
+        assertEquals(Short.MAX_VALUE / 2, insert.rows(100000));
+
+        insert = MultiRowInsert.parse("insert into T_ITEM\nvalues (?, coalesce(?, '(?)'));");
+        assertEquals("insert into T_ITEM\nvalues (?, coalesce(?, '(?)')), (?, coalesce(?, '(?)'))", insert.sql(2));
+        assertEquals(Short.MAX_VALUE / 2, insert.rows(Integer.MAX_VALUE));
+
+        assertNull(MultiRowInsert.parse("INSERT INTO T_ITEM SELECT ID, NAME FROM T_OTHER"));
+        assertNull(MultiRowInsert.parse("INSERT INTO T_ITEM VALUES (?, ?) ON DUPLICATE KEY UPDATE NAME = ?"));
+        assertNull(MultiRowInsert.parse("INSERT INTO T_ITEM VALUES (1, 'a')"));
+        assertNull(MultiRowInsert.parse("INSERT INTO T_ITEM (ID) SELECT ? FROM DUAL WHERE 1 IN (VALUES (1))"));
+        assertNull(MultiRowInsert.parse("UPDATE T_ITEM SET NAME = ? WHERE ID = ?"));
+    }
+
+    @Test
+    void batchUpdateTest() throws SQLException {
+        var manager = H2Adapter.manager();
+        var counts = manager.executeBatchUpdate("INSERT INTO T_ITEM VALUES (?, ?)", rows(10, 2510));
+        assertEquals(2500, counts.length);
+        assertTrue(IntStream.of(counts).allMatch(count -> count == 1));
+        assertEquals(2503, manager.executeQuery("SELECT ID FROM T_ITEM").getRowCount());
+
+        var adapter = JdbcAdapter.adapter();
+        var conn = adapter.getConnection(H2Adapter.ENV);
+        try {
+            counts = adapter.executeBatchUpdate("INSERT INTO T_ITEM VALUES (?, ?)", rows(3000, 3010), conn);
+            assertEquals(10, counts.length);
+        } finally {
+            adapter.close(conn);
+        }
+    }
+
+    @Test
+    void batchUpdateFailureTest() throws SQLException {
+        var adapter = JdbcAdapter.adapter();
+        var values = rows(10, 1510);
+        values.set(1200, List.of(1, "duplicate"));
+        var conn = adapter.getConnection(H2Adapter.ENV);
+        try {
+            var e = assertThrows(BatchUpdateException.class,
+                    () -> adapter.executeBatchUpdate("INSERT INTO T_ITEM VALUES (?, ?)", values, 1000, conn));
+            // 更新数量包含之前已执行的分块
+            var counts = e.getUpdateCounts();
+            assertTrue(counts.length > 1000);
+            assertTrue(IntStream.range(0, 1000).allMatch(idx -> counts[idx] == 1));
+        } finally {
+            adapter.close(conn);
+        }
+
+        // 自动提交时失败分块之前的分块已生效
+        var rows = H2Adapter.manager().executeQuery("SELECT ID FROM T_ITEM").getRowCount();
+        assertTrue(rows >= 1003 && rows < 1503);
+    }
+
+    @Test
+    void batchSizeTest() throws SQLException {
+        H2Adapter.shutdown();
+        H2Adapter.start("JDBC.batchSize=300");
+        H2Adapter.execute("CREATE TABLE T_ITEM (ID INT PRIMARY KEY, NAME VARCHAR(32))",
+                "INSERT INTO T_ITEM VALUES (1, 'a'), (2, 'b'), (3, NULL)");
+
+        var manager = H2Adapter.manager();
+        var values = rows(10, 1510);
+        values.set(700, List.of(1, "duplicate"));
+        var e = assertThrows(BatchUpdateException.class,
+                () -> manager.executeBatchUpdate("INSERT INTO T_ITEM VALUES (?, ?)", values));
+        // 按JDBC.batchSize分块，第3个分块失败后不再执行之后的分块
+        var counts = e.getUpdateCounts();
+        assertTrue(counts.length > 600 && counts.length <= 900);
+        assertTrue(IntStream.range(0, 600).allMatch(idx -> counts[idx] == 1));
+
+        var rows = manager.executeQuery("SELECT ID FROM T_ITEM").getRowCount();
+        assertTrue(rows >= 603 && rows < 903);
+    }
+
+    @Test
+    void batchTest() throws SQLException {
+        var manager = H2Adapter.manager();
+        for (var rewrite : new boolean[] {false, true }) {
+            var from = rewrite ? 10000 : 10;
+            var result = manager.executeBatch("INSERT INTO T_ITEM VALUES (?, ?)", rows(from, from + 2500).iterator(),
+                    1000, rewrite);
+            assertEquals(2500, result.getRows());
+            assertEquals(2500, result.getUpdateCount());
+            assertEquals(List.of(1000, 1000, 500),
+                    result.getChunks().stream().map(BatchResult.Chunk::getRows).collect(Collectors.toList()));
+            if (rewrite) {
+                assertEquals(List.of(1000L, 1000L, 500L), result.getChunks().stream()
+                        .map(BatchResult.Chunk::getUpdateCount).collect(Collectors.toList()));
+            }
+        }
+
+        assertEquals(5003, manager.executeQuery("SELECT ID FROM T_ITEM").getRowCount());
+    }
+
+    private static List<List<Object>> rows(int from, int to) {
+        var rows = new ArrayList<List<Object>>(to - from);
+        for (var id = from; id < to; id++) {
+            rows.add(List.of(id, "name" + id));
+        }
+
+        return rows;
+    }
+
+    @Getter
+    @Setter
+    public static class Item {
+        private int id;
+
+        private String name;
+
+        @Override
+        public String toString() {
+            return id + ":" + name;
+        }
+    }
+}
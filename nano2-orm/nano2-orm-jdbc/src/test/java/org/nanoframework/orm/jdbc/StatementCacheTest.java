@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class StatementCacheTest {
+    private static final String SQL = "SELECT ID FROM T_ITEM WHERE ID = ?";
+
+    private JdbcAdapter start(String... properties) throws SQLException {
+        var adapter = H2Adapter.start(properties);
+        H2Adapter.execute("CREATE TABLE T_ITEM (ID INT PRIMARY KEY)", "INSERT INTO T_ITEM VALUES (1), (2), (3)");
+        return adapter;
+    }
+
+    @AfterEach
+    void after() {
+        H2Adapter.shutdown();
+    }
+
+    @Test
+    void disabledTest() throws SQLException {
+        var adapter = start();
+        var conn = adapter.getConnection(H2Adapter.ENV);
+        try {
+            var pstmt = adapter.getPreparedStmt(conn, SQL, List.of(1));
+            adapter.release(conn, SQL, pstmt);
+            assertTrue(pstmt.isClosed());
+            assertTrue(adapter.getStatementCaches().isEmpty());
+        } finally {
+            adapter.close(conn);
+        }
+    }
+
+    @Test
+    void hitTest() throws SQLException {
+        var adapter = start("JDBC.statementCacheSize=2", "tomcat.jdbc.pool.maxActive=1");
+        var manager = H2Adapter.manager();
+        for (var id = 1; id <= 3; id++) {
+            assertEquals(1, manager.executeQuery(SQL, List.of(id)).getRowCount());
+        }
+
+        var caches = adapter.getStatementCaches();
+        assertEquals(1, caches.size());
+        var cache = caches.iterator().next();
+        assertEquals(H2Adapter.ENV, cache.getEnvironmentId());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void releaseTest() throws SQLException {
+        var adapter = start("JDBC.statementCacheSize=2");
+        var conn = adapter.getConnection(H2Adapter.ENV);
+        try {
+            // 同一SQL的Statement未归还时再次借出创建新的Statement，归还时缓存中已存在则关闭
+            var first = adapter.getPreparedStmt(conn, SQL, List.of(1));
+            var second = adapter.getPreparedStmt(conn, SQL, List.of(2));
+            assertNotSame(first, second);
+            adapter.release(conn, SQL, first);
+            adapter.release(conn, SQL, second);
+            assertFalse(first.isClosed());
+            assertTrue(second.isClosed());
+
+            var cache = adapter.getStatementCaches().iterator().next();
+            assertEquals(1, cache.size());
+            var third = adapter.getPreparedStmt(conn, SQL, List.of(3));
+            assertSame(first, third);
+            assertEquals(1, cache.getHits());
+            adapter.release(conn, SQL, third);
+        } finally {
+            adapter.close(conn);
+        }
+    }
+
+    @Test
+    void evictionTest() throws SQLException {
+        var adapter = start("JDBC.statementCacheSize=2");
+        var conn = adapter.getConnection(H2Adapter.ENV);
+        try {
+            var sqls = List.of("SELECT 1 FROM T_ITEM", "SELECT 2 FROM T_ITEM", "SELECT 3 FROM T_ITEM");
+            var eldest = adapter.getPreparedStmt(conn, sqls.get(0), List.of());
+            adapter.release(conn, sqls.get(0), eldest);
+            for (var sql : sqls.subList(1, 3)) {
+                adapter.release(conn, sql, adapter.getPreparedStmt(conn, sql, List.of()));
+            }
+
+            var cache = adapter.getStatementCaches().iterator().next();
+            assertEquals(2, cache.size());
+            assertEquals(1, cache.getEvictions());
+            assertTrue(eldest.isClosed());
+        } finally {
+            adapter.close(conn);
+        }
+    }
+
+    @Test
+    void interceptorTest() throws SQLException {
+        // StatementFinalizer在连接归还时关闭通过该连接创建的Statement，下次借出时重新创建
+        var adapter = start("JDBC.statementCacheSize=2", "tomcat.jdbc.pool.maxActive=1",
+                "tomcat.jdbc.pool.jdbcInterceptors=StatementFinalizer");
+        var manager = H2Adapter.manager();
+        for (var id = 1; id <= 2; id++) {
+            assertEquals(1, manager.executeQuery(SQL, List.of(id)).getRowCount());
+        }
+
+        var cache = adapter.getStatementCaches().iterator().next();
+        assertEquals(2, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc.binding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.nanoframework.orm.jdbc.H2Adapter;
+import org.nanoframework.orm.jdbc.mapper.RowMapper;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class JdbcManagerTest {
+    private static final RowMapper<Integer> ID = (rs, rowNum) -> rs.getInt(1);
+
+    @BeforeEach
+    void before() throws SQLException {
+        H2Adapter.start();
+        H2Adapter.execute("CREATE TABLE T_ITEM (ID INT PRIMARY KEY, NAME VARCHAR(32))",
+                "INSERT INTO T_ITEM VALUES (1, 'a'), (2, 'b'), (3, 'c')");
+    }
+
+    @AfterEach
+    void after() {
+        H2Adapter.shutdown();
+    }
+
+    @Test
+    void streamTest() throws SQLException {
+        var manager = H2Adapter.manager();
+        var closed = new AtomicBoolean();
+        try (var stream = manager.stream("SELECT ID FROM T_ITEM ORDER BY ID", List.of(), ID)
+                .onClose(() -> closed.set(true))) {
+            assertEquals(1, H2Adapter.active());
+            assertEquals(List.of(1, 2), stream.limit(2).collect(Collectors.toList()));
+        }
+
+        assertTrue(closed.get());
+        assertEquals(0, H2Adapter.active());
+        try (var conn = manager.getDataSource().getConnection()) {
+            assertTrue(conn.getAutoCommit());
+        }
+    }
+
+    @Test
+    void transactionalStreamTest() throws Throwable {
+        var manager = H2Adapter.manager();
+        var values = invoke(() -> {
+            manager.executeUpdate("INSERT INTO T_ITEM VALUES (4, 'd')");
+            try (var stream = manager.stream("SELECT ID FROM T_ITEM ORDER BY ID", List.of(), ID)) {
+                return stream.collect(Collectors.toList());
+            }
+        });
+
+        assertEquals(List.of(1, 2, 3, 4), values);
+        assertFalse(manager.isManagedSessionStarted());
+        assertEquals(0, H2Adapter.active());
+    }
+
+    @Test
+    void transactionalStreamLeakTest() throws SQLException {
+        var manager = H2Adapter.manager();
+        var closed = new AtomicBoolean();
+        assertThrows(IllegalStateException.class, () -> invoke(() -> {
+            manager.executeUpdate("INSERT INTO T_ITEM VALUES (4, 'd')");
+            return manager.stream("SELECT ID FROM T_ITEM", List.of(), ID).onClose(() -> closed.set(true));
+        }));
+
+        assertTrue(closed.get());
+        assertFalse(manager.isManagedSessionStarted());
+        assertEquals(0, H2Adapter.active());
+        assertEquals(3, manager.executeQuery("SELECT ID FROM T_ITEM", List.of(), ID).size());
+    }
+
+    @JdbcTransactional(envId = H2Adapter.ENV)
+    private static Object transactional() {
+        return null;
+    }
+
+    private static Object invoke(Callable<?> body) throws Throwable {
+        var method = JdbcManagerTest.class.getDeclaredMethod("transactional");
+        return new JdbcTransactionalMethodInterceptor().invoke(new MethodInvocation() {
+            @Override
+            public Method getMethod() {
+                return method;
+            }
+
+            @Override
+            public Object[] getArguments() {
+                return new Object[0];
+            }
+
+            @Override
+            public Object proceed() throws Throwable {
+                return body.call();
+            }
+
+            @Override
+            public Object getThis() {
+                return null;
+            }
+
+            @Override
+            public AccessibleObject getStaticPart() {
+                return method;
+            }
+        });
+    }
+}
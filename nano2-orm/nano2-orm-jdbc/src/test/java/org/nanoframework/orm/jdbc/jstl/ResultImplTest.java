@@ -0,0 +1,187 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc.jstl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class ResultImplTest {
+    private Connection conn;
+
+    @BeforeEach
+    void before() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:", "sa", "");
+        try (var stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE T_ITEM (ID INT, NAME VARCHAR(32), AMOUNT BIGINT, PRICE DOUBLE)");
+            stmt.execute("INSERT INTO T_ITEM VALUES (1, 'a', 10, 1.5), (2, NULL, NULL, 2.5), (3, 'c', 30, NULL)");
+        }
+    }
+
+    @AfterEach
+    void after() throws SQLException {
+        conn.close();
+    }
+
+    private ResultImpl query(String sql, int maxRows, Comparator<? super String> comparator) throws SQLException {
+        try (var stmt = conn.createStatement(); var rs = stmt.executeQuery(sql)) {
+            return new ResultImpl(rs, -1, maxRows, comparator);
+        }
+    }
+
+    @Test
+    void columnTest() throws SQLException {
+        var result = query("SELECT ID, NAME, AMOUNT, PRICE FROM T_ITEM ORDER BY ID", -1, null);
+        assertEquals(3, result.getRowCount());
+        assertFalse(result.isLimitedByMaxRows());
+        assertArrayEquals(new String[] {"ID", "NAME", "AMOUNT", "PRICE" }, result.getColumnNames());
+
+        var rows = result.getRowsByIndex();
+        assertArrayEquals(new Object[] {1, "a", 10L, 1.5D }, rows[0]);
+        assertArrayEquals(new Object[] {2, null, null, 2.5D }, rows[1]);
+        assertArrayEquals(new Object[] {3, "c", 30L, null }, rows[2]);
+
+        var row = result.getRows()[1];
+        assertEquals(4, row.size());
+        assertTrue(row.containsKey("NAME"));
+        assertNull(row.get("NAME"));
+        assertNull(row.get("AMOUNT"));
+        assertEquals(2.5D, row.get("PRICE"));
+        assertEquals(List.of("AMOUNT", "ID", "NAME", "PRICE"), new ArrayList<>(row.keySet()));
+        assertEquals("AMOUNT", row.firstKey());
+        assertEquals("PRICE", row.lastKey());
+    }
+
+    @Test
+    void maxRowsTest() throws SQLException {
+        var result = query("SELECT ID FROM T_ITEM ORDER BY ID", 2, null);
+        assertEquals(2, result.getRowCount());
+        assertTrue(result.isLimitedByMaxRows());
+        assertEquals(2, result.getRows().length);
+    }
+
+    @Test
+    void caseTest() throws SQLException {
+        var sql = "SELECT ID, NAME FROM T_ITEM ORDER BY ID";
+        var sensitive = result(query(sql, -1, null));
+        assertEquals(1, sensitive.get("ID"));
+        assertNull(sensitive.get("id"));
+        assertFalse(sensitive.containsKey("Name"));
+
+        var insensitive = result(query(sql, -1, String.CASE_INSENSITIVE_ORDER));
+        assertEquals(1, insensitive.get("id"));
+        assertEquals("a", insensitive.get("Name"));
+        assertTrue(insensitive.containsKey("name"));
+        assertEquals(String.CASE_INSENSITIVE_ORDER, insensitive.comparator());
+    }
+
+    @Test
+    void labelTest() throws SQLException {
+        var result = query("SELECT A.ID, B.ID, A.NAME AS LABEL FROM T_ITEM A JOIN T_ITEM B ON B.ID = A.ID + 1 "
+                + "ORDER BY A.ID", -1, null);
+        assertEquals(2, result.getRowCount());
+        assertEquals("LABEL", result.getColumnLabels()[2]);
+
+        var row = result(result);
+        // 同名的列以后出现的列为准
+        assertEquals(2, row.get("ID"));
+        assertEquals("a", row.get("LABEL"));
+        assertArrayEquals(new Object[] {1, 2, "a" }, result.getRowsByIndex()[0]);
+    }
+
+    @Test
+    void mutationTest() throws SQLException {
+        var result = query("SELECT ID, NAME FROM T_ITEM ORDER BY ID", -1, String.CASE_INSENSITIVE_ORDER);
+        @SuppressWarnings("unchecked")
+        var row = (Map<String, Object>) result.getRows()[0];
+        assertEquals(1, row.put("id", 10));
+        assertEquals("a", row.remove("NAME"));
+        row.put("extra", true);
+
+        assertEquals(10, row.get("ID"));
+        assertFalse(row.containsKey("name"));
+        assertEquals(Map.of("ID", 10, "extra", true), Map.copyOf(row));
+
+        // 修改只影响当前行的视图，不影响列数据及其它行
+        assertArrayEquals(new Object[] {1, "a" }, result.getRowsByIndex()[0]);
+        assertEquals(2, result(result, 1).get("id"));
+        assertEquals(2, result.getRows()[1].size());
+        assertEquals(10, result.getRows()[0].get("ID"));
+    }
+
+    @Test
+    void entrySetTest() throws SQLException {
+        var result = query("SELECT ID, NAME, AMOUNT FROM T_ITEM ORDER BY ID", -1, null);
+        @SuppressWarnings("unchecked")
+        var row = (Map<String, Object>) result.getRows()[0];
+        for (var entry : row.entrySet()) {
+            if ("ID".equals(entry.getKey())) {
+                assertEquals(1, entry.setValue(10));
+                assertEquals(10, entry.getValue());
+            }
+        }
+
+        var iterator = row.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if ("NAME".equals(iterator.next().getKey())) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(Map.of("ID", 10, "AMOUNT", 10L), Map.copyOf(row));
+        assertEquals(2, row.entrySet().size());
+        assertArrayEquals(new Object[] {1, "a", 10L }, result.getRowsByIndex()[0]);
+
+        // 未修改的行迭代删除同样生效
+        @SuppressWarnings("unchecked")
+        var other = (Map<String, Object>) result.getRows()[1];
+        var entries = other.entrySet();
+        var it = entries.iterator();
+        it.next();
+        it.remove();
+        assertEquals(2, entries.size());
+        assertEquals(2, other.size());
+        assertThrows(IllegalStateException.class, it::remove);
+    }
+
+    private static SortedMap<?, ?> result(ResultImpl result) {
+        return result(result, 0);
+    }
+
+    private static SortedMap<?, ?> result(ResultImpl result, int row) {
+        return result.getRows()[row];
+    }
+}
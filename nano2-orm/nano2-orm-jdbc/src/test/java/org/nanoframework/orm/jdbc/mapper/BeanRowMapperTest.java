@@ -0,0 +1,180 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.orm.jdbc.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * @author yanghe
+ * @since 2.0.0
+ */
+class BeanRowMapperTest {
+    private Connection conn;
+
+    @BeforeEach
+    void before() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:h2:mem:", "sa", "");
+        try (var stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE T_USER (ID BIGINT, USER_NAME VARCHAR(32), AGE INT, SCORE INT, "
+                    + "BALANCE DECIMAL(10, 2), BIRTHDAY DATE, CREATED_AT TIMESTAMP, REMARK VARCHAR(32))");
+            stmt.execute("INSERT INTO T_USER VALUES (1, 'a', 18, 90, 10.50, DATE '2000-01-02', "
+                    + "TIMESTAMP '2018-03-04 05:06:07', 'x')");
+            stmt.execute("INSERT INTO T_USER (ID) VALUES (2)");
+        }
+    }
+
+    @AfterEach
+    void after() throws SQLException {
+        conn.close();
+    }
+
+    @Test
+    void mapTest() throws SQLException {
+        var mapper = BeanRowMapper.of(User.class);
+        assertSame(mapper, BeanRowMapper.of(User.class));
+        try (var stmt = conn.createStatement();
+                var rs = stmt.executeQuery("SELECT * FROM T_USER ORDER BY ID")) {
+            var rowMapper = mapper.prepare(rs);
+            assertTrue(rs.next());
+            var user = rowMapper.map(rs, 1);
+            assertEquals(1L, user.getId());
+            assertEquals("a", user.getUserName());
+            assertEquals(Integer.valueOf(18), user.getAge());
+            assertEquals(90, user.getScore());
+            assertEquals(new BigDecimal("10.50"), user.getBalance());
+            assertEquals(LocalDate.of(2000, 1, 2), user.getBirthday());
+            assertEquals(LocalDateTime.of(2018, 3, 4, 5, 6, 7), user.getCreatedAt());
+
+            // 空值: 包装类型设置为null，基本类型保留默认值
+            assertTrue(rs.next());
+            user = rowMapper.map(rs, 2);
+            assertEquals(2L, user.getId());
+            assertNull(user.getUserName());
+            assertNull(user.getAge());
+            assertEquals(-1, user.getScore());
+            assertNull(user.getBalance());
+            assertNull(user.getBirthday());
+            assertNull(user.getCreatedAt());
+        }
+    }
+
+    @Test
+    void labelTest() throws SQLException {
+        try (var stmt = conn.createStatement();
+                var rs = stmt.executeQuery("SELECT ID AS \"id\", REMARK AS USERNAME, AGE AS UNKNOWN FROM T_USER "
+                        + "WHERE ID = 1")) {
+            assertTrue(rs.next());
+            var user = BeanRowMapper.of(User.class).map(rs, 1);
+            assertEquals(1L, user.getId());
+            assertEquals("x", user.getUserName());
+            assertNull(user.getAge());
+        }
+    }
+
+    @Test
+    void interleaveTest() throws SQLException {
+        var mapper = BeanRowMapper.of(User.class);
+        try (var stmt1 = conn.createStatement();
+                var rs1 = stmt1.executeQuery("SELECT ID, USER_NAME FROM T_USER ORDER BY ID");
+                var stmt2 = conn.createStatement();
+                var rs2 = stmt2.executeQuery("SELECT AGE, ID FROM T_USER ORDER BY ID")) {
+            var names = mapper.prepare(rs1);
+            var ages = mapper.prepare(rs2);
+            for (var rowNum = 1; rowNum <= 2; rowNum++) {
+                assertTrue(rs1.next());
+                assertTrue(rs2.next());
+                var name = names.map(rs1, rowNum);
+                var age = ages.map(rs2, rowNum);
+                assertEquals(rowNum, name.getId());
+                assertEquals(rowNum, age.getId());
+                assertNull(name.getAge());
+                assertNull(age.getUserName());
+            }
+        }
+    }
+
+    @Test
+    void overloadTest() throws SQLException {
+        try (var stmt = conn.createStatement();
+                var rs = stmt.executeQuery("SELECT ID, REMARK FROM T_USER WHERE ID = 1")) {
+            assertTrue(rs.next());
+            var overload = BeanRowMapper.of(Overload.class).map(rs, 1);
+            assertEquals(1L, overload.getId());
+            assertNull(overload.remark);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class User {
+        private long id;
+
+        private String userName;
+
+        private Integer age;
+
+        private int score = -1;
+
+        private BigDecimal balance;
+
+        private LocalDate birthday;
+
+        private LocalDateTime createdAt;
+    }
+
+    public static class Overload {
+        private long id;
+
+        private Object remark;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public void setId(String id) {
+            this.id = Long.parseLong(id) + 100;
+        }
+
+        public void setRemark(String remark) {
+            this.remark = remark;
+        }
+
+        public void setRemark(Integer remark) {
+            this.remark = remark;
+        }
+    }
+}
@@ -90,7 +90,7 @@ public class ExecutorConfig extends AbstractConfig {
     }
 
     public StandardThreadExecutor init() {
-        var executor = new StandardThreadExecutor();
+        var executor = new QueueTimeThreadExecutor();
         executor.setName(name);
         executor.setDaemon(daemon);
         executor.setNamePrefix(namePrefix);
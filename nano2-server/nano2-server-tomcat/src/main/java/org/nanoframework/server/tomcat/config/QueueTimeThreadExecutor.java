@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.nanoframework.server.tomcat.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.core.StandardThreadExecutor;
+import org.nanoframework.core.concurrent.QueueTime;
+
+/**
+ * 记录任务入队时间的Tomcat线程池，任务执行时将入队时间设置到{@link QueueTime}，用于路由执行前的排队超时拒绝.
+ * @author yanghe
+ * @since 2.0.0
+ */
+public class QueueTimeThreadExecutor extends StandardThreadExecutor {
+
+    @Override
+    public void execute(Runnable command, long timeout, TimeUnit unit) {
+        super.execute(new Task(command), timeout, unit);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new Task(command));
+    }
+
+    private static final class Task implements Runnable {
+        private final Runnable command;
+
+        private final long enqueued = System.nanoTime();
+
+        private Task(Runnable command) {
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            QueueTime.mark(enqueued);
+            try {
+                command.run();
+            } finally {
+                QueueTime.clear();
+            }
+        }
+    }
+}